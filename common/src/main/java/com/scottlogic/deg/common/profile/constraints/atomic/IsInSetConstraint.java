@@ -27,6 +27,8 @@ import java.util.stream.Collectors;
 public class IsInSetConstraint implements AtomicConstraint {
     public final Field field;
     public final DistributedSet<Object> legalValues;
+    // the set of values can be large, and is hashed whenever a tree node holding this constraint is shared
+    private final int hashCode;
 
     public IsInSetConstraint(Field field, DistributedSet<Object> legalValues) {
         this.field = field;
@@ -41,6 +43,8 @@ public class IsInSetConstraint implements AtomicConstraint {
             throw new IllegalArgumentException("Cannot create an IsInSetConstraint for field '" +
                 field.name + "' with a set containing null.");
         }
+
+        this.hashCode = Objects.hash(field, legalValues);
     }
 
     public Set<Object> legalValuesWithoutFrequency() {
@@ -88,6 +92,6 @@ public class IsInSetConstraint implements AtomicConstraint {
 
     @Override
     public int hashCode(){
-        return Objects.hash(field, legalValues);
+        return hashCode;
     }
 }
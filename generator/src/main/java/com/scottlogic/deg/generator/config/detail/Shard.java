@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.config.detail;
+
+import com.scottlogic.deg.common.ValidationException;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * One of a number of disjoint slices of a generation run, identified as {@code index/count} where index is zero-based.
+ */
+public class Shard {
+    public static final Shard WHOLE = new Shard(0, 1);
+
+    private static final Pattern FORMAT = Pattern.compile("^\\s*(\\d+)\\s*/\\s*(\\d+)\\s*$");
+
+    private final int index;
+    private final int count;
+
+    public Shard(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new ValidationException(
+                "Invalid shard " + index + "/" + count + " - the shard index must be between 0 and " + (count - 1));
+        }
+
+        this.index = index;
+        this.count = count;
+    }
+
+    public static Shard parse(String shard) {
+        if (shard == null) {
+            return WHOLE;
+        }
+
+        Matcher matcher = FORMAT.matcher(shard);
+        if (!matcher.matches()) {
+            throw new ValidationException("Invalid shard " + shard + " - expected the form index/count, e.g. 0/16");
+        }
+
+        try {
+            return new Shard(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid shard " + shard + " - the shard index and count are too large");
+        }
+    }
+
+    public boolean isWhole() {
+        return count == 1;
+    }
+
+    /**
+     * Keep every count-th item of a deterministic (FULL_SEQUENTIAL or INTERESTING) stream, starting at this shard's
+     * index, so that the shards partition the stream between them.
+     */
+    public <T> Stream<T> selectRows(Stream<T> rows) {
+        if (isWhole()) {
+            return rows;
+        }
+
+        AtomicLong rowIndex = new AtomicLong();
+        return rows.filter(row -> rowIndex.getAndIncrement() % count == index);
+    }
+
+    /**
+     * @return this shard's share of a number of rows, the shares of all shards add up to the given number
+     */
+    public long rowsInShard(long totalRows) {
+        return totalRows / count + (index < totalRows % count ? 1 : 0);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
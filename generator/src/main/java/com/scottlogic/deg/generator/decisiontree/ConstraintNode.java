@@ -16,52 +16,127 @@
 
 package com.scottlogic.deg.generator.decisiontree;
 
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
 import com.scottlogic.deg.common.profile.constraints.delayed.DelayedAtomicConstraint;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
 import com.scottlogic.deg.generator.fieldspecs.RowSpec;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class ConstraintNode implements Node {
-    private final Collection<AtomicConstraint> atomicConstraints;
-    private final Collection<DelayedAtomicConstraint> delayedAtomicConstraints;
+    private final Set<AtomicConstraint> atomicConstraints;
+    private final Set<DelayedAtomicConstraint> delayedAtomicConstraints;
     private final Collection<DecisionNode> decisions;
     private final Set<NodeMarking> nodeMarkings;
+    private final Map<Field, List<AtomicConstraint>> atomicConstraintsByField;
+    private final Set<Field> fieldsInSubtree;
+    // nodes are immutable, and are used as keys when caching pruning, so the hash is only worked out once
+    private final int hashCode;
 
-    private Optional<RowSpec> adaptedRowSpec = null;
+    private volatile RowSpecForFields adaptedRowSpec = null;
+    private volatile Map<Field, Optional<FieldSpec>> reducedFieldSpecs = null;
+    private volatile Map<Field, Integer> optionCountsByField = null;
 
     public ConstraintNode(Collection<AtomicConstraint> atomicConstraints,
                           Collection<DelayedAtomicConstraint> delayedAtomicConstraints,
                           Collection<DecisionNode> decisions,
                           Set<NodeMarking> nodeMarkings) {
-        this.atomicConstraints = Collections.unmodifiableCollection(atomicConstraints);
-        this.delayedAtomicConstraints = Collections.unmodifiableCollection(delayedAtomicConstraints);
+        // a constraint repeated in the node adds nothing, so is only kept once; the constraints keep the order they were
+        // added in, and are only copied here rather than every time they're asked for
+        this.atomicConstraints = Collections.unmodifiableSet(new LinkedHashSet<>(atomicConstraints));
+        this.delayedAtomicConstraints = Collections.unmodifiableSet(new LinkedHashSet<>(delayedAtomicConstraints));
         this.decisions = Collections.unmodifiableCollection(decisions);
         this.nodeMarkings = Collections.unmodifiableSet(nodeMarkings);
+        this.atomicConstraintsByField = indexByField(this.atomicConstraints);
+        this.fieldsInSubtree = fieldsInSubtree(this.atomicConstraintsByField.keySet(), this.decisions);
+        this.hashCode = Objects.hash(this.atomicConstraints, this.decisions);
     }
 
     public Collection<AtomicConstraint> getAtomicConstraints() {
-        return new HashSet<>(atomicConstraints);
+        return atomicConstraints;
     }
 
     public Collection<DelayedAtomicConstraint> getDelayedAtomicConstraints() {
-        return new HashSet<>(delayedAtomicConstraints);
+        return delayedAtomicConstraints;
     }
 
     public Collection<DecisionNode> getDecisions() {
         return decisions;
     }
 
-    public Optional<RowSpec> getOrCreateRowSpec(Supplier<Optional<RowSpec>> createRowSpecFunc) {
-        if (adaptedRowSpec != null) {
-            return adaptedRowSpec;
+    public List<AtomicConstraint> getAtomicConstraintsForField(Field field) {
+        return atomicConstraintsByField.getOrDefault(field, Collections.emptyList());
+    }
+
+    public Set<Field> getFieldsWithAtomicConstraints() {
+        return atomicConstraintsByField.keySet();
+    }
+
+    /**
+     * @return every field with an atomic constraint in this node or any node beneath it
+     */
+    public Set<Field> getFieldsInSubtree() {
+        return fieldsInSubtree;
+    }
+
+    /**
+     * @return for each field, how many options beneath this node constrain it. Counted the first time it is asked for
+     * from the counts of the options beneath; as pruning shares the subtrees it doesn't change, only the nodes it
+     * rebuilds are counted again
+     */
+    public Map<Field, Integer> getOptionCountsByField() {
+        Map<Field, Integer> counts = optionCountsByField;
+        if (counts == null) {
+            counts = countOptionsByField(decisions);
+            optionCountsByField = counts;
+        }
+        return counts;
+    }
+
+    /**
+     * @return the row spec which this node's atomic constraints reduce to over the given fields, creating it with the
+     * given function the first time it is asked for. Identical nodes are shared between trees, e.g. between partitions
+     * with different fields, so the row spec is only reused when it is asked for with the same fields
+     */
+    public Optional<RowSpec> getOrCreateRowSpec(ProfileFields fields, Supplier<Optional<RowSpec>> createRowSpecFunc) {
+        RowSpecForFields cached = adaptedRowSpec;
+        if (cached != null && cached.fields.equals(fields)) {
+            return cached.rowSpec;
         }
 
-        adaptedRowSpec = createRowSpecFunc.get();
-        return adaptedRowSpec;
+        Optional<RowSpec> rowSpec = createRowSpecFunc.get();
+        adaptedRowSpec = new RowSpecForFields(fields, rowSpec);
+        return rowSpec;
+    }
+
+    /**
+     * @return the FieldSpec which this node's atomic constraints reduce to for the given field, reducing them with the
+     * given function the first time it is asked for and remembering the result after that
+     */
+    public Optional<FieldSpec> getOrReduceFieldSpec(Field field, Function<List<AtomicConstraint>, Optional<FieldSpec>> reduce) {
+        Map<Field, Optional<FieldSpec>> reduced = reducedFieldSpecs;
+        if (reduced == null) {
+            synchronized (this) {
+                if (reducedFieldSpecs == null) {
+                    reducedFieldSpecs = new ConcurrentHashMap<>();
+                }
+                reduced = reducedFieldSpecs;
+            }
+        }
+
+        Optional<FieldSpec> fieldSpec = reduced.get(field);
+        if (fieldSpec == null) {
+            fieldSpec = reduce.apply(getAtomicConstraintsForField(field));
+            reduced.putIfAbsent(field, fieldSpec);
+        }
+        return fieldSpec;
     }
 
     public String toString() {
@@ -85,6 +160,10 @@ public class ConstraintNode implements Node {
                 : Objects.toString(atomicConstraints));
     }
 
+    Set<NodeMarking> getNodeMarkings() {
+        return nodeMarkings;
+    }
+
     public ConstraintNodeBuilder builder() {
         return new ConstraintNodeBuilder(atomicConstraints, delayedAtomicConstraints, decisions, nodeMarkings);
     }
@@ -99,13 +178,14 @@ public class ConstraintNode implements Node {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ConstraintNode that = (ConstraintNode) o;
-        return Objects.equals(atomicConstraints, that.atomicConstraints) &&
+        return hashCode == that.hashCode &&
+            Objects.equals(atomicConstraints, that.atomicConstraints) &&
             Objects.equals(decisions, that.decisions);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(atomicConstraints, decisions);
+        return hashCode;
     }
 
 
@@ -121,6 +201,44 @@ public class ConstraintNode implements Node {
                 .build());
     }
 
+    private static Map<Field, List<AtomicConstraint>> indexByField(Collection<AtomicConstraint> atomicConstraints) {
+        Map<Field, List<AtomicConstraint>> constraintsByField = new HashMap<>();
+        for (AtomicConstraint constraint : atomicConstraints) {
+            constraintsByField.computeIfAbsent(constraint.getField(), field -> new ArrayList<>()).add(constraint);
+        }
+        constraintsByField.replaceAll((field, constraints) -> Collections.unmodifiableList(constraints));
+        return Collections.unmodifiableMap(constraintsByField);
+    }
+
+    private static Set<Field> fieldsInSubtree(Set<Field> fieldsInNode, Collection<DecisionNode> decisions) {
+        if (decisions.isEmpty()) {
+            return fieldsInNode;
+        }
+
+        Set<Field> fields = new HashSet<>(fieldsInNode);
+        for (DecisionNode decision : decisions) {
+            for (ConstraintNode option : decision.getOptions()) {
+                fields.addAll(option.getFieldsInSubtree());
+            }
+        }
+        return Collections.unmodifiableSet(fields);
+    }
+
+    private static Map<Field, Integer> countOptionsByField(Collection<DecisionNode> decisions) {
+        if (decisions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Field, Integer> counts = new HashMap<>();
+        for (DecisionNode decision : decisions) {
+            for (ConstraintNode option : decision.getOptions()) {
+                option.getFieldsWithAtomicConstraints().forEach(field -> counts.merge(field, 1, Integer::sum));
+                option.getOptionCountsByField().forEach((field, count) -> counts.merge(field, count, Integer::sum));
+            }
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
     static ConstraintNode merge(Iterator<ConstraintNode> constraintNodeIterator) {
         Collection<AtomicConstraint> atomicConstraints = new ArrayList<>();
         Collection<DelayedAtomicConstraint> delayedAtomicConstraints = new ArrayList<>();
@@ -143,4 +261,14 @@ public class ConstraintNode implements Node {
             .setNodeMarkings(markings)
             .build();
     }
+
+    private static final class RowSpecForFields {
+        private final ProfileFields fields;
+        private final Optional<RowSpec> rowSpec;
+
+        private RowSpecForFields(ProfileFields fields, Optional<RowSpec> rowSpec) {
+            this.fields = fields;
+            this.rowSpec = rowSpec;
+        }
+    }
 }
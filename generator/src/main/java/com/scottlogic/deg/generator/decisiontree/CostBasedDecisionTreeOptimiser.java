@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.decisiontree;
+
+import com.google.inject.Inject;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Factorises the tree as the {@link MostProlificConstraintOptimiser} does, preferring to factorise out the most
+ * selective constraints, then orders the tree so that the walkers explore its cheapest branches first.
+ * <p>
+ * Each option is costed from the FieldSpecs its constraints reduce to: the fewer values an option permits, the more
+ * likely it is to contradict the values fixed so far, so the sooner a walker finds out the better. Options are
+ * explored most selective first, and decisions with the fewest and most selective options first, so that the
+ * walkers backtrack as little and as early as they can.
+ */
+public class CostBasedDecisionTreeOptimiser implements DecisionTreeOptimiser {
+    private final ValueSpaceEstimator estimator;
+    private final MostProlificConstraintOptimiser factorisingOptimiser;
+
+    @Inject
+    public CostBasedDecisionTreeOptimiser(ConstraintReducer constraintReducer) {
+        this.estimator = new ValueSpaceEstimator(constraintReducer);
+        this.factorisingOptimiser = new MostProlificConstraintOptimiser(
+            Comparator.comparingDouble(estimator::estimateValueSpace));
+    }
+
+    @Override
+    public DecisionTree optimiseTree(DecisionTree tree) {
+        DecisionTree factorisedTree = factorisingOptimiser.optimiseTree(tree);
+        return new DecisionTree(orderByCost(factorisedTree.getRootNode()).node, tree.getFields());
+    }
+
+    private CostedNode orderByCost(ConstraintNode node) {
+        List<CostedDecision> orderedDecisions = node.getDecisions().stream()
+            .map(this::orderByCost)
+            .sorted(Comparator
+                .comparingInt((CostedDecision decision) -> decision.decision.getOptions().size())
+                .thenComparingDouble(decision -> decision.selectivity))
+            .collect(Collectors.toList());
+
+        ConstraintNode orderedNode = node.builder()
+            .setDecisions(orderedDecisions.stream().map(decision -> decision.decision).collect(Collectors.toList()))
+            .build();
+
+        double subtreeSelectivity = orderedDecisions.stream().mapToDouble(decision -> decision.selectivity).sum();
+        return new CostedNode(orderedNode, estimator.estimateSelectivity(node) + subtreeSelectivity);
+    }
+
+    private CostedDecision orderByCost(DecisionNode decision) {
+        List<CostedNode> orderedOptions = decision.getOptions().stream()
+            .map(this::orderByCost)
+            .sorted(Comparator.comparingDouble(option -> option.selectivity))
+            .collect(Collectors.toList());
+
+        // a decision permits the values of all of its options; as its options are in log10 terms, the largest dominates
+        double selectivity = orderedOptions.stream()
+            .mapToDouble(option -> option.selectivity)
+            .max()
+            .orElse(0);
+
+        DecisionNode orderedDecision = decision.setOptions(
+            orderedOptions.stream().map(option -> option.node).collect(Collectors.toList()));
+        return new CostedDecision(orderedDecision, selectivity);
+    }
+
+    private static class CostedNode {
+        private final ConstraintNode node;
+        private final double selectivity;
+
+        CostedNode(ConstraintNode node, double selectivity) {
+            this.node = node;
+            this.selectivity = selectivity;
+        }
+    }
+
+    private static class CostedDecision {
+        private final DecisionNode decision;
+        private final double selectivity;
+
+        CostedDecision(DecisionNode decision, double selectivity) {
+            this.decision = decision;
+            this.selectivity = selectivity;
+        }
+    }
+}
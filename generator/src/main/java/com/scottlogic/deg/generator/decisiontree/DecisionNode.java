@@ -26,6 +26,7 @@ import java.util.stream.Stream;
 public final class DecisionNode implements Node {
     private final Collection<ConstraintNode> options;
     private final Set<NodeMarking> nodeMarkings;
+    private final int hashCode;
 
     public DecisionNode(ConstraintNode... options) {
         this(Collections.unmodifiableCollection(Arrays.asList(options)));
@@ -38,6 +39,7 @@ public final class DecisionNode implements Node {
     public DecisionNode(Collection<ConstraintNode> options, Set<NodeMarking> nodeMarkings) {
         this.options = Collections.unmodifiableCollection(options);
         this.nodeMarkings = Collections.unmodifiableSet(nodeMarkings);
+        this.hashCode = Objects.hash(this.options);
     }
 
     public Collection<ConstraintNode> getOptions() {
@@ -48,6 +50,10 @@ public final class DecisionNode implements Node {
         return new DecisionNode(options);
     }
 
+    Set<NodeMarking> getNodeMarkings() {
+        return nodeMarkings;
+    }
+
     @Override
     public boolean hasMarking(NodeMarking detail) {
         return this.nodeMarkings.contains(detail);
@@ -77,12 +83,12 @@ public final class DecisionNode implements Node {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DecisionNode that = (DecisionNode) o;
-        return Objects.equals(options, that.options);
+        return hashCode == that.hashCode && Objects.equals(options, that.options);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(options);
+        return hashCode;
     }
 
     public DecisionNode accept(NodeVisitor visitor){
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.decisiontree;
+
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
+import com.scottlogic.deg.common.profile.constraints.delayed.DelayedAtomicConstraint;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Shares tree nodes so that structurally identical subtrees are the same objects, making the tree a DAG.
+ * <p>
+ * Profiles often repeat the same patterns of constraints across rules, and pruning rebuilds the nodes it changes
+ * rather than sharing the subtrees of its input. Sharing identical subtrees means the FieldSpecs and option counts
+ * cached on a node, and the pruning results cached against it, are worked out once for all its copies. A shared node
+ * can be part of trees with different fields, e.g. the empty root of two partitions, so anything cached on it must
+ * not depend on the tree it is in.
+ * <p>
+ * Nodes are only held weakly, so any no longer in a tree can be garbage collected.
+ */
+public class HashConsingNodeFactory {
+    private final Interner<ConstraintNode> constraintNodes = new Interner<>();
+    private final Interner<DecisionNode> decisionNodes = new Interner<>();
+
+    public DecisionTree share(DecisionTree tree) {
+        return new DecisionTree(share(tree.getRootNode()), tree.getFields());
+    }
+
+    /**
+     * @return the shared node which is structurally identical to the given one; the given node itself if there is no
+     * such node yet and its subtree is already shared
+     */
+    public ConstraintNode share(ConstraintNode node) {
+        return share(node, new IdentityHashMap<>());
+    }
+
+    /* the tree may already be a DAG, so each node is only shared once */
+    private ConstraintNode share(ConstraintNode node, Map<ConstraintNode, ConstraintNode> sharedNodes) {
+        ConstraintNode shared = sharedNodes.get(node);
+        if (shared != null) {
+            return shared;
+        }
+
+        // pruning keeps the subtrees it doesn't change, which are shared already, so only the nodes it rebuilt are
+        // visited; the key of a shared node is made of its own children
+        if (constraintNodes.get(keyOf(node, node.getDecisions())) == node) {
+            sharedNodes.put(node, node);
+            return node;
+        }
+
+        // a decision repeated in the same node adds nothing once it's shared, so is only kept once
+        List<DecisionNode> decisions = node.getDecisions().stream()
+            .map(decision -> share(decision, sharedNodes))
+            .distinct()
+            .collect(Collectors.toList());
+
+        shared = constraintNodes.intern(keyOf(node, decisions), () -> sameElements(decisions, node.getDecisions())
+            ? node
+            : new ConstraintNode(
+                node.getAtomicConstraints(),
+                node.getDelayedAtomicConstraints(),
+                decisions,
+                node.getNodeMarkings()));
+
+        sharedNodes.put(node, shared);
+        return shared;
+    }
+
+    private DecisionNode share(DecisionNode decision, Map<ConstraintNode, ConstraintNode> sharedNodes) {
+        if (decisionNodes.get(keyOf(decision, decision.getOptions())) == decision) {
+            return decision;
+        }
+
+        List<ConstraintNode> options = decision.getOptions().stream()
+            .map(option -> share(option, sharedNodes))
+            .collect(Collectors.toList());
+
+        return decisionNodes.intern(keyOf(decision, options), () -> sameElements(options, decision.getOptions())
+            ? decision
+            : new DecisionNode(options, decision.getNodeMarkings()));
+    }
+
+    private static NodeKey keyOf(ConstraintNode node, Collection<DecisionNode> sharedDecisions) {
+        List<AtomicConstraint> atomicConstraints = new ArrayList<>(node.getAtomicConstraints());
+        List<DelayedAtomicConstraint> delayedAtomicConstraints = new ArrayList<>(node.getDelayedAtomicConstraints());
+        return new NodeKey(
+            new Object[] {
+                atomicConstraints,
+                classesOf(atomicConstraints),
+                delayedAtomicConstraints,
+                classesOf(delayedAtomicConstraints),
+                node.getNodeMarkings() },
+            sharedDecisions);
+    }
+
+    private static NodeKey keyOf(DecisionNode decision, Collection<ConstraintNode> sharedOptions) {
+        return new NodeKey(new Object[] { decision.getNodeMarkings() }, sharedOptions);
+    }
+
+    private static boolean sameElements(List<?> shared, Collection<?> original) {
+        if (shared.size() != original.size()) {
+            return false;
+        }
+
+        Iterator<?> originalIterator = original.iterator();
+        return shared.stream().allMatch(element -> element == originalIterator.next());
+    }
+
+    /* constraints can be equal to constraints of other types, e.g. a violated constraint to the one it violates */
+    private static List<Class<?>> classesOf(List<?> constraints) {
+        return constraints.stream().map(Object::getClass).collect(Collectors.toList());
+    }
+
+    /**
+     * The contents of a node, and its children. The children are already shared, so are compared by identity rather
+     * than by comparing their subtrees.
+     */
+    private static final class NodeKey {
+        private final Object[] contents;
+        private final Object[] children;
+        private final int hashCode;
+
+        NodeKey(Object[] contents, Collection<?> children) {
+            this.contents = contents;
+            this.children = children.toArray();
+            int hash = Arrays.hashCode(contents);
+            for (Object child : this.children) {
+                hash = 31 * hash + System.identityHashCode(child);
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            NodeKey that = (NodeKey) o;
+            return hashCode == that.hashCode
+                && sameChildren(that)
+                && Arrays.equals(contents, that.contents);
+        }
+
+        private boolean sameChildren(NodeKey that) {
+            if (children.length != that.children.length) {
+                return false;
+            }
+
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != that.children[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Interner<T> {
+        private final ConcurrentHashMap<NodeKey, KeyedReference<T>> nodes = new ConcurrentHashMap<>();
+        private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+
+        T get(NodeKey key) {
+            KeyedReference<T> reference = nodes.get(key);
+            return reference != null ? reference.get() : null;
+        }
+
+        T intern(NodeKey key, Supplier<T> create) {
+            removeCollected();
+
+            while (true) {
+                KeyedReference<T> reference = nodes.get(key);
+                T existing = reference != null ? reference.get() : null;
+                if (existing != null) {
+                    return existing;
+                }
+
+                T created = create.get();
+                KeyedReference<T> newReference = new KeyedReference<>(created, key, collected);
+                boolean added = reference == null
+                    ? nodes.putIfAbsent(key, newReference) == null
+                    : nodes.replace(key, reference, newReference);
+                if (added) {
+                    return created;
+                }
+            }
+        }
+
+        private void removeCollected() {
+            Object reference;
+            while ((reference = collected.poll()) != null) {
+                KeyedReference<?> keyedReference = (KeyedReference<?>) reference;
+                nodes.remove(keyedReference.key, keyedReference);
+            }
+        }
+    }
+
+    private static final class KeyedReference<T> extends WeakReference<T> {
+        private final NodeKey key;
+
+        KeyedReference(T referent, NodeKey key, ReferenceQueue<T> queue) {
+            super(referent, queue);
+            this.key = key;
+        }
+    }
+}
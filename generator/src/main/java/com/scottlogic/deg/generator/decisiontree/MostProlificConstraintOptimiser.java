@@ -26,6 +26,19 @@ import java.util.stream.Stream;
 
 public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
     private final int maxIterations = 50;
+    private final Comparator<AtomicConstraint> preferredFactorisingConstraints;
+
+    public MostProlificConstraintOptimiser() {
+        this((a, b) -> 0);
+    }
+
+    /**
+     * @param preferredFactorisingConstraints orders the constraints to factorise out first, where they are as prolific
+     *                                        as each other
+     */
+    MostProlificConstraintOptimiser(Comparator<AtomicConstraint> preferredFactorisingConstraints) {
+        this.preferredFactorisingConstraints = preferredFactorisingConstraints;
+    }
 
     @Override
     public DecisionTree optimiseTree(DecisionTree tree){
@@ -128,6 +141,7 @@ public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
         Comparator<Map.Entry<AtomicConstraint, List<AtomicConstraint>>> comparator = Comparator
             .comparing(entry -> entry.getValue().size());
         comparator = comparator.reversed()
+            .thenComparing(Map.Entry::getKey, preferredFactorisingConstraints)
             .thenComparing(this::disfavourNotConstraints)
             .thenComparing(entry -> entry.getKey().toString());
 
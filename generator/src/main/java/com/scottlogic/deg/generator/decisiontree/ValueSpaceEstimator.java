@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.decisiontree;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsOfTypeConstraint;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.restrictions.DateTimeRestrictions;
+import com.scottlogic.deg.generator.restrictions.NumericRestrictions;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Estimates how many values the constraints in a node leave open, from the FieldSpecs they reduce to. Estimates are
+ * log10 of the number of values; any type that isn't bounded is taken to allow {@link #UNBOUNDED} values, and a node
+ * that is contradictory allows none, i.e. negative infinity.
+ */
+public class ValueSpaceEstimator {
+    public static final double UNBOUNDED = 18;
+
+    private static final OffsetDateTime EPOCH = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+
+    private final ConstraintReducer constraintReducer;
+
+    public ValueSpaceEstimator(ConstraintReducer constraintReducer) {
+        this.constraintReducer = constraintReducer;
+    }
+
+    /**
+     * @return the estimated log10 of the number of rows the node's own constraints permit, relative to a node with
+     * no constraints; 0 when the node doesn't constrain any field
+     */
+    double estimateSelectivity(ConstraintNode node) {
+        double selectivity = 0;
+        for (Field field : node.getFieldsWithAtomicConstraints()) {
+            Optional<FieldSpec> fieldSpec = constraintReducer.reduceConstraintsToFieldSpec(node, field);
+            if (!fieldSpec.isPresent()) {
+                return Double.NEGATIVE_INFINITY;
+            }
+
+            selectivity += estimateValueSpace(fieldSpec.get()) - UNBOUNDED;
+        }
+        return selectivity;
+    }
+
+    /**
+     * @return the estimated log10 of the number of values the constraint permits on its own
+     */
+    double estimateValueSpace(AtomicConstraint constraint) {
+        return constraintReducer.reduceConstraintsToFieldSpec(Collections.singletonList(constraint))
+            .map(this::estimateValueSpace)
+            .orElse(Double.NEGATIVE_INFINITY);
+    }
+
+    public double estimateValueSpace(FieldSpec fieldSpec) {
+        if (fieldSpec.getWhitelist() != null) {
+            return log10(fieldSpec.getWhitelist().set().size() + (fieldSpec.isNullable() ? 1 : 0));
+        }
+
+        double values = fieldSpec.isNullable() ? 1 : 0;
+        for (IsOfTypeConstraint.Types type : fieldSpec.getTypeRestrictions().getAllowedTypes()) {
+            values += Math.pow(10, estimateValueSpace(fieldSpec, type));
+        }
+        return Math.min(log10(values), UNBOUNDED);
+    }
+
+    private double estimateValueSpace(FieldSpec fieldSpec, IsOfTypeConstraint.Types type) {
+        switch (type) {
+            case NUMERIC:
+                return estimateValueSpace(fieldSpec.getNumericRestrictions());
+            case DATETIME:
+                return estimateValueSpace(fieldSpec.getDateTimeRestrictions());
+            default:
+                return UNBOUNDED;
+        }
+    }
+
+    private double estimateValueSpace(NumericRestrictions restrictions) {
+        if (restrictions == null || restrictions.min == null || restrictions.max == null) {
+            return UNBOUNDED;
+        }
+
+        BigDecimal steps = restrictions.max.getLimit()
+            .subtract(restrictions.min.getLimit())
+            .divide(restrictions.getStepSize(), RoundingMode.DOWN);
+        return Math.min(log10(steps.doubleValue() + 1), UNBOUNDED);
+    }
+
+    private double estimateValueSpace(DateTimeRestrictions restrictions) {
+        if (restrictions == null || restrictions.min == null || restrictions.max == null) {
+            return UNBOUNDED;
+        }
+
+        double millis = ChronoUnit.MILLIS.between(restrictions.min.getLimit(), restrictions.max.getLimit());
+        double millisPerStep = ChronoUnit.MILLIS.between(EPOCH, restrictions.getGranularity().getNext().apply(EPOCH));
+        return Math.min(log10(Math.max(millis, 0) / millisPerStep + 1), UNBOUNDED);
+    }
+
+    private static double log10(double values) {
+        return values <= 0 ? Double.NEGATIVE_INFINITY : Math.log10(values);
+    }
+}
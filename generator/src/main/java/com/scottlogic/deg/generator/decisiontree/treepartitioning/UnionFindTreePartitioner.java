@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.decisiontree.treepartitioning;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
+import com.scottlogic.deg.common.profile.constraints.delayed.DelayedAtomicConstraint;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNodeBuilder;
+import com.scottlogic.deg.generator.decisiontree.DecisionNode;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Given a decision tree, split it into multiple trees based on which constraints and decisions affect which fields.
+ * <p>
+ * Fields are numbered in profile order and joined into partitions with a disjoint-set forest, so partitioning takes
+ * close to linear time in the number of fields and constraints, however wide the profile. Partitions are returned in
+ * the order of their first field, followed by a partition for each unconstrained field.
+ */
+public class UnionFindTreePartitioner implements TreePartitioner {
+    private final ConstraintToFieldMapper fieldMapper = new ConstraintToFieldMapper();
+
+    @Override
+    public Stream<DecisionTree> splitTreeIntoPartitions(DecisionTree decisionTree) {
+        Map<RootLevelConstraint, Set<Field>> mapping = fieldMapper.mapConstraintsToFields(decisionTree);
+
+        List<Field> fields = new ArrayList<>();
+        Map<Field, Integer> ordinals = new HashMap<>();
+        decisionTree.getFields().forEach(field -> addOrdinal(field, fields, ordinals));
+        mapping.values().forEach(constrainedFields ->
+            constrainedFields.forEach(field -> addOrdinal(field, fields, ordinals)));
+
+        DisjointSets partitionOf = new DisjointSets(fields.size());
+        for (Set<Field> constrainedFields : mapping.values()) {
+            Iterator<Field> iterator = constrainedFields.iterator();
+            if (!iterator.hasNext()) {
+                continue;
+            }
+
+            int first = ordinals.get(iterator.next());
+            while (iterator.hasNext()) {
+                partitionOf.union(first, ordinals.get(iterator.next()));
+            }
+        }
+
+        Map<Integer, Partition> partitions = new HashMap<>();
+        List<Partition> unrelatedPartitions = new ArrayList<>();
+        for (Map.Entry<RootLevelConstraint, Set<Field>> entry : mapping.entrySet()) {
+            Partition partition = entry.getValue().isEmpty()
+                ? addTo(unrelatedPartitions, new Partition())
+                : partitions.computeIfAbsent(
+                    partitionOf.find(ordinals.get(entry.getValue().iterator().next())),
+                    root -> new Partition());
+            partition.add(entry.getKey());
+        }
+
+        List<Partition> orderedPartitions = new ArrayList<>();
+        List<Field> unconstrainedFields = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (int ordinal = 0; ordinal < fields.size(); ordinal++) {
+            int root = partitionOf.find(ordinal);
+            Partition partition = partitions.get(root);
+            if (partition == null) {
+                unconstrainedFields.add(fields.get(ordinal));
+                continue;
+            }
+
+            if (seen.add(root)) {
+                orderedPartitions.add(partition);
+            }
+            partition.fields.add(fields.get(ordinal));
+        }
+        orderedPartitions.addAll(unrelatedPartitions);
+
+        return Stream.concat(
+            orderedPartitions.stream().map(Partition::toDecisionTree),
+            unconstrainedFields.stream()
+                .map(field -> new DecisionTree(
+                    new ConstraintNodeBuilder().build(),
+                    new ProfileFields(Collections.singletonList(field))
+                ))
+        );
+    }
+
+    private static void addOrdinal(Field field, List<Field> fields, Map<Field, Integer> ordinals) {
+        if (!ordinals.containsKey(field)) {
+            ordinals.put(field, fields.size());
+            fields.add(field);
+        }
+    }
+
+    private static Partition addTo(List<Partition> partitions, Partition partition) {
+        partitions.add(partition);
+        return partition;
+    }
+
+    private static class Partition {
+        private final List<Field> fields = new ArrayList<>();
+        private final List<AtomicConstraint> atomicConstraints = new ArrayList<>();
+        private final List<DelayedAtomicConstraint> delayedAtomicConstraints = new ArrayList<>();
+        private final List<DecisionNode> decisions = new ArrayList<>();
+
+        void add(RootLevelConstraint constraint) {
+            if (constraint.getAtomicConstraint() != null) {
+                atomicConstraints.add(constraint.getAtomicConstraint());
+            } else if (constraint.getDelayedAtomicConstraint() != null) {
+                delayedAtomicConstraints.add(constraint.getDelayedAtomicConstraint());
+            } else {
+                decisions.add(constraint.getDecisionNode());
+            }
+        }
+
+        DecisionTree toDecisionTree() {
+            return new DecisionTree(
+                new ConstraintNodeBuilder()
+                    .addAtomicConstraints(atomicConstraints)
+                    .addDelayedAtomicConstraints(delayedAtomicConstraints)
+                    .setDecisions(decisions)
+                    .build(),
+                new ProfileFields(fields));
+        }
+    }
+
+    /**
+     * Union-find over field ordinals, with union by rank and path compression
+     */
+    private static class DisjointSets {
+        private final int[] parent;
+        private final byte[] rank;
+
+        DisjointSets(int size) {
+            parent = new int[size];
+            rank = new byte[size];
+            for (int index = 0; index < size; index++) {
+                parent[index] = index;
+            }
+        }
+
+        int find(int index) {
+            int root = index;
+            while (parent[root] != root) {
+                root = parent[root];
+            }
+
+            while (parent[index] != root) {
+                int next = parent[index];
+                parent[index] = root;
+                index = next;
+            }
+            return root;
+        }
+
+        void union(int first, int second) {
+            int firstRoot = find(first);
+            int secondRoot = find(second);
+            if (firstRoot == secondRoot) {
+                return;
+            }
+
+            if (rank[firstRoot] < rank[secondRoot]) {
+                parent[firstRoot] = secondRoot;
+            } else if (rank[firstRoot] > rank[secondRoot]) {
+                parent[secondRoot] = firstRoot;
+            } else {
+                parent[secondRoot] = firstRoot;
+                rank[firstRoot]++;
+            }
+        }
+    }
+}
@@ -42,6 +42,9 @@ public class FieldSpec {
     private final DistributedSet<Object> whitelist;
     private final HeterogeneousTypeContainer<Restrictions> restrictions;
 
+    // FieldSpecs are immutable, and are used as keys when caching merges, so the hash is only worked out once
+    private final int hashCode;
+
     private FieldSpec(
         DistributedSet<Object> whitelist,
         HeterogeneousTypeContainer<Restrictions> restrictions,
@@ -52,6 +55,7 @@ public class FieldSpec {
         this.restrictions = restrictions;
         this.nullable = nullable;
         this.formatting = formatting;
+        this.hashCode = Objects.hash(nullable, whitelist, restrictions, formatting);
     }
 
     public boolean isNullable() {
@@ -207,7 +211,7 @@ public class FieldSpec {
     }
 
     public int hashCode() {
-        return Objects.hash(nullable, whitelist, restrictions, formatting);
+        return hashCode;
     }
 
     @Override
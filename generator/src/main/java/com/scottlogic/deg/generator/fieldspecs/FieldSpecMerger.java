@@ -20,14 +20,22 @@ import com.scottlogic.deg.generator.fieldspecs.whitelist.DistributedSet;
 import com.scottlogic.deg.generator.fieldspecs.whitelist.WeightedElement;
 import com.scottlogic.deg.generator.fieldspecs.whitelist.FrequencyDistributedSet;
 import com.scottlogic.deg.generator.restrictions.*;
+import com.scottlogic.deg.generator.utils.MemoCache;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Returns a FieldSpec that permits only data permitted by all of its inputs
+ * <p>
+ * The same pairs are merged over and over again, as the walkers backtrack and restart, so merges are cached. The
+ * merged FieldSpecs are interned, so that when they are merged again the cache lookup mostly compares references.
  */
 public class FieldSpecMerger {
+    private static final int MERGE_CACHE_CAPACITY = 16384;
+    private static final int INTERNED_FIELD_SPECS_CAPACITY = 16384;
+
     private static final RestrictionMergeOperation initialMergeOperation = new TypesRestrictionMergeOperation();
     private static final RestrictionMergeOperation[] mergeOperations = new RestrictionMergeOperation[]{
         initialMergeOperation,
@@ -37,12 +45,35 @@ public class FieldSpecMerger {
         new BlacklistRestictionsMergeOperation()
     };
 
+    private final MemoCache<MergeKey, Optional<FieldSpec>> mergeCache = new MemoCache<>(MERGE_CACHE_CAPACITY);
+    private final MemoCache<FieldSpec, FieldSpec> internedFieldSpecs = new MemoCache<>(INTERNED_FIELD_SPECS_CAPACITY);
+
     /**
      * Null parameters are permitted, and are synonymous with an empty FieldSpec
      * <p>
      * Returning an empty Optional conveys that the fields were unmergeable.
      */
     public Optional<FieldSpec> merge(FieldSpec left, FieldSpec right) {
+        return mergeCache.computeIfAbsent(
+            new MergeKey(
+                left == null ? FieldSpec.Empty : left,
+                right == null ? FieldSpec.Empty : right),
+            key -> mergeUncached(key.left, key.right).map(this::intern));
+    }
+
+    public MemoCache.Metrics getMergeCacheMetrics() {
+        return mergeCache.getMetrics();
+    }
+
+    public MemoCache.Metrics getInternedFieldSpecMetrics() {
+        return internedFieldSpecs.getMetrics();
+    }
+
+    private FieldSpec intern(FieldSpec fieldSpec) {
+        return internedFieldSpecs.computeIfAbsent(fieldSpec, spec -> spec);
+    }
+
+    private Optional<FieldSpec> mergeUncached(FieldSpec left, FieldSpec right) {
         if (hasSet(left) && hasSet(right)) {
             return mergeSets(left, right);
         }
@@ -132,4 +163,29 @@ public class FieldSpecMerger {
 
         return addNullable(left, right, merging);
     }
+
+    private static class MergeKey {
+        private final FieldSpec left;
+        private final FieldSpec right;
+        private final int hashCode;
+
+        MergeKey(FieldSpec left, FieldSpec right) {
+            this.left = left;
+            this.right = right;
+            this.hashCode = Objects.hash(left, right);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MergeKey that = (MergeKey) o;
+            return left.equals(that.left) && right.equals(that.right);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
@@ -23,4 +23,12 @@ import java.util.stream.Stream;
 
 public interface DataGenerator {
     Stream<GeneratedObject> generateData(Profile profile);
+
+    /**
+     * Generate the rows from the given row onwards, as when resuming a run that has already written the rows before
+     * it. This default generates the earlier rows again and discards them.
+     */
+    default Stream<GeneratedObject> generateData(Profile profile, long firstRow) {
+        return generateData(profile).skip(firstRow);
+    }
 }
@@ -19,18 +19,32 @@ package com.scottlogic.deg.generator.generation;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeFactory;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeOptimiser;
+import com.scottlogic.deg.generator.decisiontree.HashConsingNodeFactory;
 import com.scottlogic.deg.generator.decisiontree.treepartitioning.TreePartitioner;
 import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
 import com.scottlogic.deg.generator.generation.databags.*;
 import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.generator.utils.BackgroundProducerIterator;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator.RowSequence;
 import com.scottlogic.deg.generator.walker.DecisionTreeWalker;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DecisionTreeDataGenerator implements DataGenerator {
+    private static final int PARTITION_QUEUE_CAPACITY = 1000;
+
     private final DecisionTreeWalker treeWalker;
     private final DataGeneratorMonitor monitor;
     private final DecisionTreeFactory decisionTreeGenerator;
@@ -39,6 +53,11 @@ public class DecisionTreeDataGenerator implements DataGenerator {
     private final CombinationStrategy partitionCombiner;
     private final UpfrontTreePruner upfrontTreePruner;
     private final long maxRows;
+    private final boolean walkPartitionsInParallel;
+    private final DataGenerationType generationType;
+    private final Shard shard;
+    private final RowKeyedRandomNumberGenerator randomNumberGenerator;
+    private final HashConsingNodeFactory nodeFactory;
 
     @Inject
     public DecisionTreeDataGenerator(
@@ -49,7 +68,12 @@ public class DecisionTreeDataGenerator implements DataGenerator {
         DataGeneratorMonitor monitor,
         CombinationStrategy combinationStrategy,
         UpfrontTreePruner upfrontTreePruner,
-        @Named("config:maxRows") long maxRows) {
+        @Named("config:maxRows") long maxRows,
+        @Named("config:parallelPartitions") boolean walkPartitionsInParallel,
+        DataGenerationType generationType,
+        Shard shard,
+        RowKeyedRandomNumberGenerator randomNumberGenerator,
+        HashConsingNodeFactory nodeFactory) {
         this.decisionTreeGenerator = decisionTreeGenerator;
         this.treePartitioner = treePartitioner;
         this.treeOptimiser = optimiser;
@@ -58,10 +82,24 @@ public class DecisionTreeDataGenerator implements DataGenerator {
         this.partitionCombiner = combinationStrategy;
         this.upfrontTreePruner = upfrontTreePruner;
         this.maxRows = maxRows;
+        this.walkPartitionsInParallel = walkPartitionsInParallel;
+        this.generationType = generationType;
+        this.shard = shard;
+        this.randomNumberGenerator = randomNumberGenerator;
+        this.nodeFactory = nodeFactory;
     }
 
     @Override
     public Stream<GeneratedObject> generateData(Profile profile) {
+        return generateData(profile, 0);
+    }
+
+    /**
+     * A RANDOM run starts its walks at the given row, as every row's random numbers are keyed on its index. Other
+     * runs generate the earlier rows again and discard them.
+     */
+    @Override
+    public Stream<GeneratedObject> generateData(Profile profile, long firstRow) {
         monitor.generationStarting();
         DecisionTree decisionTree = decisionTreeGenerator.analyse(profile);
 
@@ -70,14 +108,84 @@ public class DecisionTreeDataGenerator implements DataGenerator {
             return Stream.empty();
         }
 
-        Stream<Stream<DataBag>> partitionedDataBags = treePartitioner
-            .splitTreeIntoPartitions(decisionTree)
-            .map(treeOptimiser::optimiseTree)
-            .map(treeWalker::walk);
+        Stream<DecisionTree> partitions = treePartitioner.splitTreeIntoPartitions(decisionTree);
+        long firstRowWalked = generationType == DataGenerationType.RANDOM ? firstRow : 0;
+        if (walkPartitionsInParallel) {
+            return walkPartitionsInParallel(partitions, firstRowWalked)
+                .skip(firstRow - firstRowWalked);
+        }
+
+        AtomicInteger partitionIndex = new AtomicInteger();
+        Stream<Stream<DataBag>> partitionedDataBags = partitions
+            .map(partition -> walkPartition(partition, partitionIndex.getAndIncrement(), firstRowWalked));
+
+        return combine(partitionedDataBags, firstRowWalked)
+            .skip(firstRow - firstRowWalked);
+    }
+
+    /**
+     * Optimise and walk every partition on its own thread, each feeding a bounded queue that the combination
+     * strategy reads from. Every partition gets a dedicated thread (rather than a fixed size pool) as the combination
+     * strategies read from all partitions in lock-step, a partition waiting for a free thread would stall the others.
+     */
+    private Stream<GeneratedObject> walkPartitionsInParallel(Stream<DecisionTree> partitions, long firstRow) {
+        List<BackgroundProducerIterator<DataBag>> walks = new ArrayList<>();
+        partitions.forEach(partition -> {
+            int partitionIndex = walks.size();
+            walks.add(new BackgroundProducerIterator<>(
+                () -> walkPartition(partition, partitionIndex, firstRow),
+                PARTITION_QUEUE_CAPACITY,
+                "partition-walker-" + partitionIndex));
+        });
+
+        Stream<Stream<DataBag>> partitionedDataBags = walks.stream()
+            .map(walk -> StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(walk, Spliterator.ORDERED), false));
+
+        return combine(partitionedDataBags, firstRow)
+            .onClose(() -> walks.forEach(BackgroundProducerIterator::close));
+    }
+
+    /**
+     * Optimise and walk a partition. When sharding a FULL_SEQUENTIAL or INTERESTING run the walk of the first partition
+     * is divided between the shards, every shard walks the other partitions in full so that it can combine them with
+     * its slice.
+     *
+     * In a RANDOM run the random numbers for each row of a partition are keyed on the partition and the row's index,
+     * which the MINIMAL combination strategy makes the index of the output row it is combined into. A shard walks the
+     * rows with the indices of its share of the output, starting from the shard's firstRow-th row.
+     */
+    private Stream<DataBag> walkPartition(DecisionTree partition, int partitionIndex, long firstRow) {
+        DecisionTree optimisedPartition = nodeFactory.share(treeOptimiser.optimiseTree(partition));
+        if (generationType == DataGenerationType.RANDOM) {
+            return randomNumberGenerator.keyRows(
+                new RowSequence(partitionIndex, shard.getIndex() + firstRow * shard.getCount(), shard.getCount()),
+                () -> treeWalker.walk(optimisedPartition));
+        }
+
+        if (partitionIndex == 0 && !shard.isWhole()) {
+            return treeWalker.walk(optimisedPartition, shard);
+        }
+
+        return treeWalker.walk(optimisedPartition);
+    }
+
+    /**
+     * A RANDOM shard emits the rows of its share of the output indices of a single run, so its share of maxRows. The
+     * slices of a FULL_SEQUENTIAL or INTERESTING run vary in size and a shard can't tell where a single run would have
+     * stopped, so each shard emits up to maxRows rows; a single run that isn't cut short by maxRows is then reproduced
+     * exactly.
+     */
+    private long rowsToEmit() {
+        return generationType == DataGenerationType.RANDOM
+            ? shard.rowsInShard(maxRows)
+            : maxRows;
+    }
 
+    private Stream<GeneratedObject> combine(Stream<Stream<DataBag>> partitionedDataBags, long firstRow) {
         return partitionCombiner.permute(partitionedDataBags)
             .map(d->(GeneratedObject)d)
-            .limit(maxRows)
+            .limit(Math.max(0, rowsToEmit() - firstRow))
             .peek(monitor::rowEmitted);
     }
 }
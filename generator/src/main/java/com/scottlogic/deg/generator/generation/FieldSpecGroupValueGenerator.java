@@ -33,15 +33,18 @@ import com.scottlogic.deg.generator.utils.SetUtils;
 
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class FieldSpecGroupValueGenerator {
 
     private final FieldSpecValueGenerator underlyingGenerator;
+    private final FieldSpecMerger merger;
 
-    public FieldSpecGroupValueGenerator(FieldSpecValueGenerator underlyingGenerator) {
+    public FieldSpecGroupValueGenerator(FieldSpecValueGenerator underlyingGenerator, FieldSpecMerger merger) {
         this.underlyingGenerator = underlyingGenerator;
+        this.merger = merger;
     }
 
     public Stream<DataBag> generate(FieldSpecGroup group) {
@@ -56,13 +59,37 @@ public class FieldSpecGroupValueGenerator {
         return createRemainingDataBags(firstDataBagValues, first, groupRespectingFirstField);
     }
 
+    /**
+     * Create a source of random data bags for the group, doing the work that doesn't depend on the values drawn once
+     * rather than for each data bag. The first field's spec, and so its value sources, are fixed; the specs of the
+     * other fields are narrowed by the values drawn before them, so are still worked out for each data bag.
+     */
+    public Supplier<DataBag> generateRandom(FieldSpecGroup group) {
+        Field first = SetUtils.firstIteratorElement(group.fieldSpecs().keySet());
+
+        FieldSpecGroup groupRespectingFirstField = initialAdjustments(first, group);
+        Supplier<DataBagValue> firstValues =
+            underlyingGenerator.randomValues(groupRespectingFirstField.fieldSpecs().get(first));
+        Set<Field> remainingFields = filterFromSet(group.fieldSpecs().keySet(), first);
+
+        return () -> {
+            DataBagGroupWrapper wrapper = adjustWrapperBounds(
+                new DataBagGroupWrapper(toDataBag(first, firstValues.get()), groupRespectingFirstField, underlyingGenerator),
+                first);
+            for (Field field : remainingFields) {
+                wrapper = acceptNextRandomValue(wrapper, field);
+            }
+            return wrapper.dataBag();
+        };
+    }
+
     private static DataBag toDataBag(Field field, DataBagValue value) {
         Map<Field, DataBagValue> map = new HashMap<>();
         map.put(field, value);
         return new DataBag(map);
     }
 
-    private static FieldSpecGroup initialAdjustments(Field first, FieldSpecGroup group) {
+    private FieldSpecGroup initialAdjustments(Field first, FieldSpecGroup group) {
         checkOnlyPairwiseRelationsExist(group.relations());
 
         Map<Field, FieldSpec> mutatingSpecs = new HashMap<>(group.fieldSpecs());
@@ -76,13 +103,11 @@ public class FieldSpecGroupValueGenerator {
         return new FieldSpecGroup(mutatingSpecs, group.relations());
     }
 
-    private static Optional<FieldSpec> createMergedSpecFromRelation(Field first,
-                                                                    FieldSpecRelations relation,
-                                                                    FieldSpecGroup group) {
+    private Optional<FieldSpec> createMergedSpecFromRelation(Field first,
+                                                             FieldSpecRelations relation,
+                                                             FieldSpecGroup group) {
         Field other = relation.main().equals(first) ? relation.other() : relation.main();
 
-        FieldSpecMerger merger = new FieldSpecMerger();
-
         FieldSpec reduced = relation.inverse().reduceToRelatedFieldSpec(group.fieldSpecs().get(other));
         return merger.merge(reduced, group.fieldSpecs().get(first));
     }
@@ -103,7 +128,7 @@ public class FieldSpecGroupValueGenerator {
         }
     }
 
-    private static FieldSpecGroup adjustBounds(Field field, DataBagValue value, FieldSpecGroup group) {
+    private FieldSpecGroup adjustBounds(Field field, DataBagValue value, FieldSpecGroup group) {
         Object object = value.getUnformattedValue();
 
         if (object instanceof OffsetDateTime) {
@@ -113,9 +138,9 @@ public class FieldSpecGroupValueGenerator {
         return group;
     }
 
-    private static FieldSpecGroup adjustBoundsOfDate(Field field,
-                                                     OffsetDateTime value,
-                                                     FieldSpecGroup group) {
+    private FieldSpecGroup adjustBoundsOfDate(Field field,
+                                              OffsetDateTime value,
+                                              FieldSpecGroup group) {
         DateTimeRestrictions.DateTimeLimit limit = new DateTimeRestrictions.DateTimeLimit(value, true);
         DateTimeRestrictions restrictions = new DateTimeRestrictions();
         restrictions.min = limit;
@@ -125,9 +150,9 @@ public class FieldSpecGroupValueGenerator {
         return adjustBoundsOfDateFromFieldSpec(field, newSpec, group);
     }
 
-    private static FieldSpecGroup adjustBoundsOfDateFromFieldSpec(Field field,
-                                                                  FieldSpec newSpec,
-                                                                  FieldSpecGroup group) {
+    private FieldSpecGroup adjustBoundsOfDateFromFieldSpec(Field field,
+                                                           FieldSpec newSpec,
+                                                           FieldSpecGroup group) {
         Map<Field, FieldSpec> specs = new HashMap<>(group.fieldSpecs());
         specs.replace(field, newSpec);
 
@@ -147,12 +172,10 @@ public class FieldSpecGroupValueGenerator {
         return new FieldSpecGroup(specs, relations);
     }
 
-    private static void applyToFieldSpecMap(Map<Field, FieldSpec> map,
-                                                                   FieldSpec left,
-                                                                   FieldSpec right,
-                                                                   Field field) {
-        FieldSpecMerger merger = new FieldSpecMerger();
-
+    private void applyToFieldSpecMap(Map<Field, FieldSpec> map,
+                                     FieldSpec left,
+                                     FieldSpec right,
+                                     Field field) {
         FieldSpec newSpec = merger.merge(left, right)
             .orElseThrow(() -> new IllegalArgumentException("Failed to create field spec from value"));
         map.put(field, newSpec);
@@ -167,15 +190,15 @@ public class FieldSpecGroupValueGenerator {
         return recursiveMap(initial, toProcess).map(DataBagGroupWrapper::dataBag);
     }
 
-    private static DataBagGroupWrapper adjustWrapperBounds(DataBagGroupWrapper wrapper, Field field) {
+    private DataBagGroupWrapper adjustWrapperBounds(DataBagGroupWrapper wrapper, Field field) {
         DataBagValue value = wrapper.dataBag().getUnformattedValue(field);
         FieldSpecGroup newGroup = adjustBounds(field, value, wrapper.group());
         return new DataBagGroupWrapper(wrapper.dataBag(), newGroup, wrapper.generator());
 
     }
 
-    private static Stream<DataBagGroupWrapper> recursiveMap(Stream<DataBagGroupWrapper> wrapperStream,
-                                                            Set<Field> fieldsToProcess) {
+    private Stream<DataBagGroupWrapper> recursiveMap(Stream<DataBagGroupWrapper> wrapperStream,
+                                                     Set<Field> fieldsToProcess) {
         if (fieldsToProcess.isEmpty()) {
             return wrapperStream;
         }
@@ -196,7 +219,7 @@ public class FieldSpecGroupValueGenerator {
             .collect(Collectors.toSet());
     }
 
-    private static Stream<DataBagGroupWrapper> acceptNextValue(DataBagGroupWrapper wrapper, Field field) {
+    private Stream<DataBagGroupWrapper> acceptNextValue(DataBagGroupWrapper wrapper, Field field) {
         if (wrapper.generator().isRandom()) {
             return Stream.of(acceptNextRandomValue(wrapper, field));
         } else {
@@ -204,7 +227,7 @@ public class FieldSpecGroupValueGenerator {
         }
     }
 
-    private static DataBagGroupWrapper acceptNextRandomValue(DataBagGroupWrapper wrapper, Field field) {
+    private DataBagGroupWrapper acceptNextRandomValue(DataBagGroupWrapper wrapper, Field field) {
         FieldSpecGroup group = wrapper.group();
 
         DataBagValue nextValue = wrapper.generator().generateOne(group.fieldSpecs().get(field));
@@ -216,7 +239,7 @@ public class FieldSpecGroupValueGenerator {
         return new DataBagGroupWrapper(combined, newGroup, wrapper.generator());
     }
 
-    private static Stream<DataBagGroupWrapper> acceptNextNonRandomValue(DataBagGroupWrapper wrapper, Field field) {
+    private Stream<DataBagGroupWrapper> acceptNextNonRandomValue(DataBagGroupWrapper wrapper, Field field) {
         FieldSpecGroup group = wrapper.group();
         return wrapper.generator().generate(group.fieldSpecs().get(field))
             .map(value -> new WrappedDataBag(toDataBag(field, value), value))
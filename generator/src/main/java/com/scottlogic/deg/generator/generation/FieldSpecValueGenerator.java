@@ -22,9 +22,10 @@ import com.scottlogic.deg.generator.config.detail.DataGenerationType;
 import com.scottlogic.deg.generator.generation.databags.DataBagValue;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.CombiningFieldValueSource;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.FieldValueSource;
-import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -32,12 +33,12 @@ import java.util.stream.StreamSupport;
 public class FieldSpecValueGenerator {
     private final DataGenerationType dataType;
     private final FieldValueSourceEvaluator sourceFactory;
-    private final JavaUtilRandomNumberGenerator randomNumberGenerator;
+    private final RandomNumberGenerator randomNumberGenerator;
 
     @Inject
     public FieldSpecValueGenerator(DataGenerationType dataGenerationType,
                                    FieldValueSourceEvaluator sourceEvaluator,
-                                   JavaUtilRandomNumberGenerator randomNumberGenerator) {
+                                   RandomNumberGenerator randomNumberGenerator) {
         this.dataType = dataGenerationType;
         this.sourceFactory = sourceEvaluator;
         this.randomNumberGenerator = randomNumberGenerator;
@@ -69,6 +70,18 @@ public class FieldSpecValueGenerator {
         return createValueFromSources(spec, fieldValueSources);
     }
 
+    /**
+     * Work out the spec's value sources once, for drawing many random values from the same spec.
+     */
+    public Supplier<DataBagValue> randomValues(FieldSpec spec) {
+        FieldValueSource combinedFieldValueSource =
+            new CombiningFieldValueSource(sourceFactory.getFieldValueSources(spec));
+
+        return () -> new DataBagValue(
+            combinedFieldValueSource.generateRandomValue(randomNumberGenerator),
+            spec.getFormatting());
+    }
+
     private Stream<DataBagValue> createValuesFromSources(FieldSpec spec, List<FieldValueSource> fieldValueSources) {
         FieldValueSource combinedFieldValueSource = new CombiningFieldValueSource(fieldValueSources);
 
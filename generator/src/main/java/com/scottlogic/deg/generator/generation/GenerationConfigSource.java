@@ -22,6 +22,7 @@ public interface GenerationConfigSource  {
     DataGenerationType getGenerationType();
     CombinationStrategyType getCombinationStrategyType();
     TreeWalkerType getWalkerType();
+    FieldFixingStrategyType getFieldFixingStrategyType();
     long getMaxRows();
 
     MonitorType getMonitorType();
@@ -29,4 +30,10 @@ public interface GenerationConfigSource  {
     boolean visualiseReductions();
     boolean requireFieldTyping();
     boolean dontOptimise();
+    OptimiserType getOptimiserType();
+    boolean walkPartitionsInParallel();
+    boolean useForwardChecking();
+    int getThreads();
+    Shard getShard();
+    Long getSeed();
 }
@@ -19,7 +19,9 @@ package com.scottlogic.deg.generator.generation;
 import com.scottlogic.deg.common.output.GeneratedObject;
 import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.walker.reductive.ReductiveState;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveTreePruner;
 
 import java.io.PrintWriter;
 import java.util.List;
@@ -28,8 +30,24 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 
 public class MessagePrintingDataGeneratorMonitor extends ReductiveDataGeneratorMonitor {
-    public MessagePrintingDataGeneratorMonitor(PrintWriter writer) {
+    private final FieldSpecMerger fieldSpecMerger;
+    private final ReductiveTreePruner treePruner;
+
+    public MessagePrintingDataGeneratorMonitor(
+        PrintWriter writer,
+        FieldSpecMerger fieldSpecMerger,
+        ReductiveTreePruner treePruner) {
         super(writer);
+        this.fieldSpecMerger = fieldSpecMerger;
+        this.treePruner = treePruner;
+    }
+
+    @Override
+    public void endGeneration() {
+        println("FieldSpec merge cache: %s", fieldSpecMerger.getMergeCacheMetrics());
+        println("Interned FieldSpecs: %s", fieldSpecMerger.getInternedFieldSpecMetrics());
+        println("Pruning cache: %s", treePruner.getPruningCacheMetrics());
+        super.endGeneration();
     }
 
     private void println(String message) {
@@ -37,8 +55,11 @@ public class MessagePrintingDataGeneratorMonitor extends ReductiveDataGeneratorM
     }
 
     private void println(String message, Object... args) {
-        writer.format(message, args);
-        writer.println();
+        // partitions may be walked on several threads, keep each message on its own line
+        synchronized (writer) {
+            writer.format(message, args);
+            writer.println();
+        }
     }
 
     @Override
@@ -23,13 +23,14 @@ import com.scottlogic.deg.generator.walker.reductive.ReductiveState;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 public abstract class ReductiveDataGeneratorMonitor implements DataGeneratorMonitor {
     final PrintWriter writer;
 
-    private List<String> linesToPrintAtEndOfGeneration = new ArrayList<>();
+    private final List<String> linesToPrintAtEndOfGeneration = Collections.synchronizedList(new ArrayList<>());
 
     @Inject
     ReductiveDataGeneratorMonitor(PrintWriter writer) {
@@ -37,7 +38,9 @@ public abstract class ReductiveDataGeneratorMonitor implements DataGeneratorMoni
     }
 
     public void endGeneration() {
-        linesToPrintAtEndOfGeneration.forEach(writer::println);
+        synchronized (linesToPrintAtEndOfGeneration) {
+            linesToPrintAtEndOfGeneration.forEach(writer::println);
+        }
     }
 
     public void addLineToPrintAtEndOfGeneration(String line) {
@@ -23,6 +23,7 @@ import com.scottlogic.deg.generator.fieldspecs.whitelist.NullDistributedSet;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.CannedValuesFieldValueSource;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.FieldValueSource;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.RealNumberFieldValueSource;
+import com.scottlogic.deg.generator.generation.fieldvaluesources.ScaledLongFieldValueSource;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.datetime.DateTimeFieldValueSource;
 import com.scottlogic.deg.generator.generation.string.RegexStringGenerator;
 import com.scottlogic.deg.generator.generation.string.StringGenerator;
@@ -94,9 +95,13 @@ public class StandardFieldValueSourceEvaluator implements FieldValueSourceEvalua
             ? new NumericRestrictions()
             : fieldSpec.getNumericRestrictions();
 
-        return new RealNumberFieldValueSource(
+        RealNumberFieldValueSource source = new RealNumberFieldValueSource(
             restrictions,
             getBlacklist(fieldSpec));
+
+        return ScaledLongFieldValueSource.from(source)
+            .map(FieldValueSource.class::cast)
+            .orElse(source);
     }
 
     private Set<Object> getBlacklist(FieldSpec fieldSpec) {
@@ -18,26 +18,24 @@ package com.scottlogic.deg.generator.generation;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
-import com.scottlogic.deg.generator.decisiontree.DecisionNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
-import com.scottlogic.deg.generator.decisiontree.NodeMarking;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
-import com.scottlogic.deg.generator.validators.ContradictionDecisionTreeValidator;
-import com.scottlogic.deg.generator.walker.reductive.Merged;
+import com.scottlogic.deg.generator.walker.reductive.PrunedTree;
 import com.scottlogic.deg.generator.walker.reductive.ReductiveTreePruner;
 
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Prunes contradictory branches from the tree before generation starts. Any branch that is pruned is one that would
+ * have been marked as contradictory, so whether the profile is partially contradictory is found out in the same pass.
+ */
 public class UpfrontTreePruner {
     private ReductiveTreePruner treePruner;
-    private ContradictionDecisionTreeValidator validator;
     @Inject
-    public UpfrontTreePruner(ReductiveTreePruner treePruner, ContradictionDecisionTreeValidator validator) {
+    public UpfrontTreePruner(ReductiveTreePruner treePruner) {
         this.treePruner = treePruner;
-        this.validator = validator;
     }
 
     public DecisionTree runUpfrontPrune(DecisionTree tree, DataGeneratorMonitor monitor) {
@@ -47,34 +45,21 @@ public class UpfrontTreePruner {
                     Function.identity(),
                     f -> FieldSpec.Empty));
 
-        Merged<ConstraintNode> prunedNode = treePruner.pruneConstraintNode(tree.getRootNode(), fieldSpecs);
-        DecisionTree markedTree = validator.markContradictions(tree);
+        PrunedTree prunedTree = treePruner.pruneTree(tree.getRootNode(), fieldSpecs);
 
-        if (prunedNode.isContradictory()) {
+        if (prunedTree.getPrunedNode().isContradictory()) {
             monitor.addLineToPrintAtEndOfGeneration("");
             monitor.addLineToPrintAtEndOfGeneration("The provided profile is wholly contradictory!");
             monitor.addLineToPrintAtEndOfGeneration("No data can be generated!");
             return new DecisionTree(null, tree.getFields());
 
-        } else if (isPartiallyContradictory(markedTree.getRootNode())) {
+        } else if (prunedTree.hadContradictionsPruned()) {
             monitor.addLineToPrintAtEndOfGeneration("");
             monitor.addLineToPrintAtEndOfGeneration("The provided profile is partially contradictory!");
             monitor.addLineToPrintAtEndOfGeneration("Run the visualise command for more information.");
-            return new DecisionTree(prunedNode.get(), tree.getFields());
+            return new DecisionTree(prunedTree.getPrunedNode().get(), tree.getFields());
 
         }
-        return new DecisionTree(prunedNode.get(), tree.getFields());
-    }
-
-    private boolean isPartiallyContradictory(ConstraintNode root) {
-        return
-            root.hasMarking(NodeMarking.CONTRADICTORY) ||
-            root.getDecisions().stream().anyMatch(this::isPartiallyContradictory);
-    }
-
-    private boolean isPartiallyContradictory(DecisionNode root) {
-        return
-            root.hasMarking(NodeMarking.CONTRADICTORY) ||
-            root.getOptions().stream().anyMatch(this::isPartiallyContradictory);
+        return new DecisionTree(prunedTree.getPrunedNode().get(), tree.getFields());
     }
 }
@@ -18,8 +18,10 @@ package com.scottlogic.deg.generator.generation.databags;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpecGroup;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.fieldspecs.RowSpec;
 import com.scottlogic.deg.generator.fieldspecs.relations.FieldSpecRelations;
 import com.scottlogic.deg.generator.generation.FieldSpecGroupValueGenerator;
@@ -28,29 +30,71 @@ import com.scottlogic.deg.generator.generation.RowSpecGrouper;
 import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class RowSpecDataBagGenerator {
     private final FieldSpecValueGenerator generator;
     private final CombinationStrategy combinationStrategy;
+    private final FieldSpecMerger fieldSpecMerger;
 
     @Inject
     public RowSpecDataBagGenerator(
         FieldSpecValueGenerator generator,
-        CombinationStrategy combinationStrategy) {
+        CombinationStrategy combinationStrategy,
+        FieldSpecMerger fieldSpecMerger) {
         this.generator = generator;
         this.combinationStrategy = combinationStrategy;
+        this.fieldSpecMerger = fieldSpecMerger;
     }
 
     public Stream<DataBag> createDataBags(RowSpec rowSpec) {
+        return createDataBags(rowSpec, Shard.WHOLE);
+    }
+
+    /**
+     * Create the shard's slice of the data bags for the row spec. Only the shard's share of the values of the group
+     * containing the row spec's first field are generated, these are combined with all the values of the other groups.
+     */
+    public Stream<DataBag> createDataBags(RowSpec rowSpec, Shard shard) {
+        if (rowSpec.getFields().size() == 0) {
+            return shard.selectRows(combinationStrategy.permute(Stream.empty()));
+        }
+
+        Field shardedField = rowSpec.getFields().iterator().next();
         Stream<Stream<DataBag>> dataBagsForGroups = RowSpecGrouper.createGroups(rowSpec).stream()
-            .map(group -> generateDataForGroup(rowSpec, group));
+            .map(group -> group.fields().contains(shardedField)
+                ? shard.selectRows(generateDataForGroup(rowSpec, group))
+                : generateDataForGroup(rowSpec, group));
 
         return combinationStrategy.permute(dataBagsForGroups);
     }
 
+    /**
+     * Create a source of random data bags for the row spec, for drawing many rows from the same row spec. The fields
+     * are grouped and each group's value sources created once, so each data bag only draws its values.
+     */
+    public Supplier<DataBag> createRandomDataBags(RowSpec rowSpec) {
+        FieldSpecGroupValueGenerator groupGenerator = new FieldSpecGroupValueGenerator(generator, fieldSpecMerger);
+        List<Supplier<DataBag>> dataBagsForGroups = RowSpecGrouper.createGroups(rowSpec).stream()
+            .map(group -> groupGenerator.generateRandom(createSpecGroup(rowSpec, group)))
+            .collect(Collectors.toList());
+
+        return () -> DataBag.merge(dataBagsForGroups.stream()
+            .map(Supplier::get)
+            .toArray(DataBag[]::new));
+    }
+
     private Stream<DataBag> generateDataForGroup(RowSpec rowSpec, FieldGroup group) {
+        FieldSpecGroup specGroup = createSpecGroup(rowSpec, group);
+
+        FieldSpecGroupValueGenerator groupGenerator = new FieldSpecGroupValueGenerator(generator, fieldSpecMerger);
+
+        return groupGenerator.generate(specGroup);
+    }
+
+    private static FieldSpecGroup createSpecGroup(RowSpec rowSpec, FieldGroup group) {
         List<Field> fields = group.fields();
         List<FieldSpecRelations> relations = rowSpec.getRelations().stream()
             .filter(relation -> fields.contains(relation.main()) || fields.contains(relation.other()))
@@ -59,10 +103,6 @@ public class RowSpecDataBagGenerator {
         Map<Field, FieldSpec> fieldSpecMap = fields.stream()
             .collect(Collectors.toMap(field -> field, rowSpec::getSpecForField));
 
-        FieldSpecGroup specGroup = new FieldSpecGroup(fieldSpecMap, relations);
-
-        FieldSpecGroupValueGenerator groupGenerator = new FieldSpecGroupValueGenerator(generator);
-
-        return groupGenerator.generate(specGroup);
+        return new FieldSpecGroup(fieldSpecMap, relations);
     }
 }
@@ -91,6 +91,22 @@ public class RealNumberFieldValueSource implements FieldValueSource {
         return new NumericLimit<>(minValue.max(restrictions.min.getLimit()), restrictions.min.isInclusive());
     }
 
+    BigDecimal getInclusiveUpperLimit() {
+        return inclusiveUpperLimit;
+    }
+
+    BigDecimal getInclusiveLowerLimit() {
+        return inclusiveLowerLimit;
+    }
+
+    Set<BigDecimal> getBlacklist() {
+        return blacklist;
+    }
+
+    int getScale() {
+        return scale;
+    }
+
     @Override
     public Iterable<Object> generateInterestingValues() {
         return () -> new UpCastingIterator<>(
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation.fieldvaluesources;
+
+import com.scottlogic.deg.common.util.FlatMappingSpliterator;
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.UpCastingIterator;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Produces the same values as a {@link RealNumberFieldValueSource}, in the same order and from the same random
+ * numbers, for ranges whose values fit in a long once scaled up to integers.
+ * <p>
+ * Bounds, steps and the blacklist are held as scaled longs, so generating a value is integer arithmetic; a BigDecimal
+ * is only made for each value returned.
+ */
+public class ScaledLongFieldValueSource implements FieldValueSource {
+    private static final int MAX_SCALE = 18;
+    private static final int MAX_LIMIT_BITS = 62;
+    private static final double UNIT_DOUBLE_SCALE = 0x1.0p53;
+    private static final long HALF = 1L << 52;
+    private static final long FRACTION_MASK = (1L << 53) - 1;
+
+    private final long inclusiveLowerLimit;
+    private final long inclusiveUpperLimit;
+    private final long[] blacklist;
+    private final int scale;
+
+    private ScaledLongFieldValueSource(long inclusiveLowerLimit, long inclusiveUpperLimit, long[] blacklist, int scale) {
+        this.inclusiveLowerLimit = inclusiveLowerLimit;
+        this.inclusiveUpperLimit = inclusiveUpperLimit;
+        this.blacklist = blacklist;
+        this.scale = scale;
+    }
+
+    /**
+     * @return a source producing the same values as the given one, if its range fits in a long when scaled
+     */
+    public static Optional<ScaledLongFieldValueSource> from(RealNumberFieldValueSource source) {
+        int scale = source.getScale();
+        BigDecimal lower = source.getInclusiveLowerLimit();
+        BigDecimal upper = source.getInclusiveUpperLimit();
+        if (scale > MAX_SCALE || lower.compareTo(upper) > 0 || !fits(lower) || !fits(upper)) {
+            return Optional.empty();
+        }
+
+        long[] blacklist = source.getBlacklist().stream()
+            .mapToLong(value -> value.unscaledValue().longValueExact())
+            .sorted()
+            .toArray();
+
+        return Optional.of(new ScaledLongFieldValueSource(
+            lower.unscaledValue().longValueExact(),
+            upper.unscaledValue().longValueExact(),
+            blacklist,
+            scale));
+    }
+
+    private static boolean fits(BigDecimal limit) {
+        return limit.unscaledValue().bitLength() <= MAX_LIMIT_BITS;
+    }
+
+    @Override
+    public Iterable<Object> generateInterestingValues() {
+        return () -> new UpCastingIterator<>(
+            FlatMappingSpliterator.flatMap(
+                Stream.of(
+                    streamOf(() -> new ScaledLongIterator(inclusiveLowerLimit)).limit(2),
+                    streamOf(() -> new ScaledLongIterator(0)).limit(1),
+                    streamOf(() -> new ScaledLongIterator(inclusiveUpperLimit - 1)).limit(2)),
+                Function.identity())
+                .distinct()
+                .iterator());
+    }
+
+    @Override
+    public Iterable<Object> generateAllValues() {
+        return () -> new ScaledLongIterator(inclusiveLowerLimit);
+    }
+
+    @Override
+    public Iterable<Object> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
+        return () -> new RandomScaledLongIterator(randomNumberGenerator);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        ScaledLongFieldValueSource otherSource = (ScaledLongFieldValueSource) obj;
+        return inclusiveUpperLimit == otherSource.inclusiveUpperLimit &&
+            inclusiveLowerLimit == otherSource.inclusiveLowerLimit &&
+            Arrays.equals(blacklist, otherSource.blacklist) &&
+            scale == otherSource.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * Long.hashCode(inclusiveLowerLimit) + Long.hashCode(inclusiveUpperLimit))
+            + Arrays.hashCode(blacklist)) + scale;
+    }
+
+    private boolean isBlacklisted(long value) {
+        return blacklist.length != 0 && Arrays.binarySearch(blacklist, value) >= 0;
+    }
+
+    private BigDecimal toBigDecimal(long value) {
+        return BigDecimal.valueOf(value, scale);
+    }
+
+    /**
+     * The scaled value which {@link RandomNumberGenerator#nextBigDecimal} gives for the same unit random number, i.e.
+     * lower + (upper - lower) * unit rounded half up, worked out exactly with 128 bit arithmetic
+     */
+    private long scaledValueFor(double unit) {
+        long numerator = (long) (unit * UNIT_DOUBLE_SCALE);
+        long span = inclusiveUpperLimit - inclusiveLowerLimit;
+
+        long numeratorHigh = numerator >>> 32;
+        long numeratorLow = numerator & 0xFFFFFFFFL;
+        long spanHigh = span >>> 32;
+        long spanLow = span & 0xFFFFFFFFL;
+        long lowLow = numeratorLow * spanLow;
+        long lowHigh = numeratorLow * spanHigh;
+        long highLow = numeratorHigh * spanLow;
+        long middle = (lowLow >>> 32) + (lowHigh & 0xFFFFFFFFL) + (highLow & 0xFFFFFFFFL);
+        long productLow = (middle << 32) | (lowLow & 0xFFFFFFFFL);
+        long productHigh = numeratorHigh * spanHigh + (lowHigh >>> 32) + (highLow >>> 32) + (middle >>> 32);
+
+        long wholePart = (productHigh << 11) | (productLow >>> 53);
+        long fraction = productLow & FRACTION_MASK;
+        long value = inclusiveLowerLimit + wholePart;
+
+        // rounding half up goes away from zero, so a negative value exactly half way rounds down
+        if (fraction > HALF || (fraction == HALF && value >= 0)) {
+            value++;
+        }
+        return value;
+    }
+
+    private class ScaledLongIterator implements Iterator<Object> {
+        private long nextValue;
+
+        ScaledLongIterator(long startingPoint) {
+            nextValue = Math.max(startingPoint, inclusiveLowerLimit);
+
+            if (isBlacklisted(nextValue)) {
+                next();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextValue <= inclusiveUpperLimit;
+        }
+
+        @Override
+        public Object next() {
+            long currentValue = nextValue;
+
+            do {
+                nextValue++;
+            } while (isBlacklisted(nextValue));
+
+            return toBigDecimal(currentValue);
+        }
+    }
+
+    /* draws one value ahead, as filtering the random values does for RealNumberFieldValueSource, so that each value
+    * comes from the same random number */
+    private class RandomScaledLongIterator implements Iterator<Object> {
+        private final RandomNumberGenerator randomNumberGenerator;
+        private long nextValue;
+
+        RandomScaledLongIterator(RandomNumberGenerator randomNumberGenerator) {
+            this.randomNumberGenerator = randomNumberGenerator;
+            drawNextValue();
+        }
+
+        private void drawNextValue() {
+            do {
+                nextValue = scaledValueFor(randomNumberGenerator.nextDouble(0, 1));
+            } while (isBlacklisted(nextValue));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            long currentValue = nextValue;
+            drawNextValue();
+            return toBigDecimal(currentValue);
+        }
+    }
+
+    private Stream<Object> streamOf(Iterable<Object> iterable){
+        return StreamSupport.stream(iterable.spliterator(), false);
+    }
+}
@@ -18,6 +18,8 @@ package com.scottlogic.deg.generator.guice;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.scottlogic.deg.common.ValidationException;
+import com.scottlogic.deg.generator.config.detail.CombinationStrategyType;
 import com.scottlogic.deg.generator.config.detail.DataGenerationType;
 import com.scottlogic.deg.generator.config.detail.TreeWalkerType;
 import com.scottlogic.deg.generator.generation.GenerationConfigSource;
@@ -43,6 +45,15 @@ public class CombinationStrategyProvider  implements Provider<CombinationStrateg
             return new ReductiveCombinationStrategy();
         }
 
+        if (config.getCombinationStrategyType() != CombinationStrategyType.EXHAUSTIVE && !config.getShard().isWhole()) {
+            // Shards divide the values of the first partition and combine them with every row of the others, which
+            // only adds up to a single run when that run is every combination of the partitions' rows.
+            throw new ValidationException(
+                "Sharding a " + config.getGenerationType() + " run requires the EXHAUSTIVE combination strategy " +
+                    "or the REDUCTIVE walker, with " + config.getCombinationStrategyType() + " the shards " +
+                    "would not generate the same rows as a single run");
+        }
+
         switch(config.getCombinationStrategyType()){
             case EXHAUSTIVE: return new ExhaustiveCombinationStrategy();
             case PINNING: return new PinningCombinationStrategy();
@@ -18,6 +18,7 @@ package com.scottlogic.deg.generator.guice;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.scottlogic.deg.generator.decisiontree.CostBasedDecisionTreeOptimiser;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeOptimiser;
 import com.scottlogic.deg.generator.decisiontree.MostProlificConstraintOptimiser;
 import com.scottlogic.deg.generator.decisiontree.NoopDecisionTreeOptimiser;
@@ -25,10 +26,14 @@ import com.scottlogic.deg.generator.generation.GenerationConfigSource;
 
 public class DecisionTreeOptimiserProvider implements Provider<DecisionTreeOptimiser> {
     private final GenerationConfigSource configSource;
+    private final CostBasedDecisionTreeOptimiser costBasedOptimiser;
 
     @Inject
-    public DecisionTreeOptimiserProvider(GenerationConfigSource configSource) {
+    public DecisionTreeOptimiserProvider(
+        GenerationConfigSource configSource,
+        CostBasedDecisionTreeOptimiser costBasedOptimiser) {
         this.configSource = configSource;
+        this.costBasedOptimiser = costBasedOptimiser;
     }
 
     @Override
@@ -36,6 +41,14 @@ public class DecisionTreeOptimiserProvider implements Provider<DecisionTreeOptim
         if(configSource.dontOptimise()) {
             return new NoopDecisionTreeOptimiser();
         }
-        return new MostProlificConstraintOptimiser();
+
+        switch (configSource.getOptimiserType()) {
+            case COST_BASED:
+                return costBasedOptimiser;
+
+            case MOST_PROLIFIC:
+            default:
+                return new MostProlificConstraintOptimiser();
+        }
     }
 }
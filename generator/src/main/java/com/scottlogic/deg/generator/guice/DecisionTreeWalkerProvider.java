@@ -21,6 +21,7 @@ import com.google.inject.Provider;
 import com.scottlogic.deg.common.ValidationException;
 import com.scottlogic.deg.generator.config.detail.DataGenerationType;
 import com.scottlogic.deg.generator.generation.GenerationConfigSource;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
 import com.scottlogic.deg.generator.walker.*;
 import com.scottlogic.deg.generator.walker.rowspec.RandomRowSpecDecisionTreeWalker;
 import com.scottlogic.deg.generator.walker.rowspec.RowSpecDecisionTreeWalker;
@@ -30,6 +31,7 @@ public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker>
     private final RandomReductiveDecisionTreeWalker randomReductiveDecisionTreeWalker;
     private final RowSpecDecisionTreeWalker rowSpecDecisionTreeWalker;
     private final RandomRowSpecDecisionTreeWalker randomRowSpecDecisionTreeWalker;
+    private final RowKeyedRandomNumberGenerator randomNumberGenerator;
     private final GenerationConfigSource configSource;
 
     @Inject
@@ -38,11 +40,13 @@ public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker>
         RowSpecDecisionTreeWalker rowSpecDecisionTreeWalker,
         RandomReductiveDecisionTreeWalker randomReductiveDecisionTreeWalker,
         RandomRowSpecDecisionTreeWalker randomRowSpecDecisionTreeWalker,
+        RowKeyedRandomNumberGenerator randomNumberGenerator,
         GenerationConfigSource configSource) {
         this.reductiveDecisionTreeWalker = reductiveDecisionTreeWalker;
         this.rowSpecDecisionTreeWalker = rowSpecDecisionTreeWalker;
         this.randomReductiveDecisionTreeWalker = randomReductiveDecisionTreeWalker;
         this.randomRowSpecDecisionTreeWalker = randomRowSpecDecisionTreeWalker;
+        this.randomNumberGenerator = randomNumberGenerator;
         this.configSource = configSource;
     }
 
@@ -52,12 +56,12 @@ public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker>
               case CARTESIAN_PRODUCT:
               case DECISION_BASED:
                   if (configSource.getGenerationType() == DataGenerationType.RANDOM)
-                      return randomRowSpecDecisionTreeWalker;
+                      return inParallelIfRequested(randomRowSpecDecisionTreeWalker);
                   return rowSpecDecisionTreeWalker;
 
               case REDUCTIVE:
                   if (configSource.getGenerationType() == DataGenerationType.RANDOM)
-                      return randomReductiveDecisionTreeWalker;
+                      return inParallelIfRequested(randomReductiveDecisionTreeWalker);
 
                   return reductiveDecisionTreeWalker;
 
@@ -65,4 +69,12 @@ public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker>
                   throw new ValidationException("no WalkerType selected");
         }
     }
+
+    private DecisionTreeWalker inParallelIfRequested(DecisionTreeWalker randomWalker) {
+        if (configSource.getThreads() <= 1) {
+            return randomWalker;
+        }
+
+        return new ParallelRandomDecisionTreeWalker(randomWalker, randomNumberGenerator, configSource.getThreads());
+    }
 }
@@ -20,17 +20,23 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Singleton;
 import com.google.inject.name.Names;
 import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeOptimiser;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeFactory;
+import com.scottlogic.deg.generator.decisiontree.HashConsingNodeFactory;
 import com.scottlogic.deg.generator.decisiontree.treepartitioning.TreePartitioner;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.generation.*;
 import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
 import com.scottlogic.deg.generator.inputs.validation.ProfileValidator;
-import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
 import com.scottlogic.deg.generator.walker.decisionbased.OptionPicker;
 import com.scottlogic.deg.generator.walker.DecisionTreeWalker;
+import com.scottlogic.deg.generator.walker.LubyRestartSchedule;
 import com.scottlogic.deg.generator.walker.ReductiveWalkerRetryChecker;
 import com.scottlogic.deg.generator.walker.reductive.IterationVisualiser;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveTreePruner;
 import com.scottlogic.deg.generator.walker.rowspec.RowSpecTreeSolver;
 
 import java.time.OffsetDateTime;
@@ -64,18 +70,35 @@ public class GeneratorModule extends AbstractModule {
 
         // bind config directly
         bind(DataGenerationType.class).toInstance(generationConfigSource.getGenerationType());
+        bind(Shard.class).toInstance(generationConfigSource.getShard());
 
         bind(long.class)
             .annotatedWith(Names.named("config:maxRows"))
             .toInstance(generationConfigSource.getMaxRows());
 
+        bind(boolean.class)
+            .annotatedWith(Names.named("config:parallelPartitions"))
+            .toInstance(generationConfigSource.walkPartitionsInParallel());
+
+        bind(boolean.class)
+            .annotatedWith(Names.named("config:forwardChecking"))
+            .toInstance(generationConfigSource.useForwardChecking());
+
         // Bind known implementations - no user input required
         bind(DataGeneratorMonitor.class).to(ReductiveDataGeneratorMonitor.class);
         bind(DataGenerator.class).to(DecisionTreeDataGenerator.class);
         bind(FieldValueSourceEvaluator.class).to(StandardFieldValueSourceEvaluator.class);
+        bind(FieldSpecMerger.class).in(Singleton.class);
+        bind(HashConsingNodeFactory.class).in(Singleton.class);
+        // one pruning cache for the whole run, whose metrics the monitor reports
+        bind(ReductiveTreePruner.class).in(Singleton.class);
         bind(ReductiveWalkerRetryChecker.class).toInstance(new ReductiveWalkerRetryChecker(10000));
+        bind(LubyRestartSchedule.class).toInstance(new LubyRestartSchedule(100, 10000));
 
-        bind(JavaUtilRandomNumberGenerator.class)
-            .toInstance(new JavaUtilRandomNumberGenerator(OffsetDateTime.now().getNano()));
+        Long seed = generationConfigSource.getSeed();
+        RowKeyedRandomNumberGenerator randomNumberGenerator = new RowKeyedRandomNumberGenerator(
+            seed != null ? seed : OffsetDateTime.now().getNano());
+        bind(RowKeyedRandomNumberGenerator.class).toInstance(randomNumberGenerator);
+        bind(RandomNumberGenerator.class).toInstance(randomNumberGenerator);
     }
 }
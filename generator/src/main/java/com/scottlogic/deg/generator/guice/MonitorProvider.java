@@ -18,18 +18,26 @@ package com.scottlogic.deg.generator.guice;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.generation.*;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveTreePruner;
 
 import java.io.PrintWriter;
 
 public class MonitorProvider implements Provider<ReductiveDataGeneratorMonitor>  {
     private GenerationConfigSource commandLine;
+    private FieldSpecMerger fieldSpecMerger;
+    private ReductiveTreePruner treePruner;
 
     @Inject
     MonitorProvider(
-        GenerationConfigSource commandLine) {
+        GenerationConfigSource commandLine,
+        FieldSpecMerger fieldSpecMerger,
+        ReductiveTreePruner treePruner) {
 
         this.commandLine = commandLine;
+        this.fieldSpecMerger = fieldSpecMerger;
+        this.treePruner = treePruner;
     }
 
     @Override
@@ -37,7 +45,9 @@ public class MonitorProvider implements Provider<ReductiveDataGeneratorMonitor>
         switch (commandLine.getMonitorType()) {
             case VERBOSE:
                 return new MessagePrintingDataGeneratorMonitor(
-                    new PrintWriter(System.err, true));
+                    new PrintWriter(System.err, true),
+                    fieldSpecMerger,
+                    treePruner);
 
             case QUIET:
                 return new NoopDataGeneratorMonitor();
@@ -19,8 +19,8 @@ package com.scottlogic.deg.generator.guice;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.scottlogic.deg.generator.decisiontree.treepartitioning.NoopTreePartitioner;
-import com.scottlogic.deg.generator.decisiontree.treepartitioning.RelatedFieldTreePartitioner;
 import com.scottlogic.deg.generator.decisiontree.treepartitioning.TreePartitioner;
+import com.scottlogic.deg.generator.decisiontree.treepartitioning.UnionFindTreePartitioner;
 import com.scottlogic.deg.generator.generation.GenerationConfigSource;
 
 public class TreePartitioningProvider implements Provider<TreePartitioner> {
@@ -34,7 +34,7 @@ public class TreePartitioningProvider implements Provider<TreePartitioner> {
     @Override
     public TreePartitioner get() {
         if (configSource.shouldDoPartitioning()){
-            return new RelatedFieldTreePartitioner();
+            return new UnionFindTreePartitioner();
         }
         return new NoopTreePartitioner();
     }
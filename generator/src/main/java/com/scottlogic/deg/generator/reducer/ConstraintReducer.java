@@ -49,21 +49,13 @@ public class ConstraintReducer {
     }
 
     public Optional<RowSpec> reduceConstraintsToRowSpec(ProfileFields fields, ConstraintNode node) {
-        Collection<AtomicConstraint> constraints = node.getAtomicConstraints();
         Collection<DelayedAtomicConstraint> delayedConstraints = node.getDelayedAtomicConstraints();
 
-        final Map<Field, List<AtomicConstraint>> fieldToConstraints = constraints.stream()
-            .collect(
-                Collectors.groupingBy(
-                    AtomicConstraint::getField,
-                    Collectors.mapping(Function.identity(),
-                        Collectors.toList())));
-
         final Map<Field, Optional<FieldSpec>> fieldToFieldSpec = fields.stream()
             .collect(
                 Collectors.toMap(
                     Function.identity(),
-                    field -> reduceConstraintsToFieldSpec(fieldToConstraints.get(field))));
+                    field -> reduceConstraintsToFieldSpec(node, field)));
 
         final Optional<Map<Field, FieldSpec>> optionalMap = Optional.of(fieldToFieldSpec)
             .filter(map -> map.values().stream().allMatch(Optional::isPresent))
@@ -86,6 +78,14 @@ public class ConstraintReducer {
                 relations));
     }
 
+    /**
+     * Reduce the node's atomic constraints for the given field; the result is remembered by the node so each node
+     * and field is only reduced once.
+     */
+    public Optional<FieldSpec> reduceConstraintsToFieldSpec(ConstraintNode node, Field field) {
+        return node.getOrReduceFieldSpec(field, this::reduceConstraintsToFieldSpec);
+    }
+
     public Optional<FieldSpec> reduceConstraintsToFieldSpec(Iterable<AtomicConstraint> constraints) {
         return constraints == null
             ? Optional.of(FieldSpec.Empty)
@@ -86,12 +86,13 @@ public class DateTimeRestrictions extends AbstractTypedRestrictions {
         if (o == null || getClass() != o.getClass()) return false;
         DateTimeRestrictions that = (DateTimeRestrictions) o;
         return Objects.equals(min, that.min) &&
-            Objects.equals(max, that.max);
+            Objects.equals(max, that.max) &&
+            granularity == that.granularity;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(min, max);
+        return Objects.hash(min, max, granularity);
     }
 
     public static class DateTimeLimit {
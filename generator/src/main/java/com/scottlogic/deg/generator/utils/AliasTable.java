@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Picks indices at random in proportion to fixed weights, in constant time per pick, using Vose's alias method.
+ * <p>
+ * Each index owns a column of equal height, filled partly by its own weight and topped up by one other index (its
+ * alias). A pick chooses a column uniformly, then the index or its alias according to how much of the column is the
+ * index's own.
+ */
+public class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+
+    public AliasTable(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Weights must not be negative: " + weight);
+            }
+            total += weight;
+        }
+        if (!(total > 0) || Double.isInfinite(total)) {
+            throw new IllegalArgumentException("Weights must have a positive, finite total");
+        }
+
+        int size = weights.length;
+        probability = new double[size];
+        alias = new int[size];
+
+        double[] scaled = new double[size];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int index = 0; index < size; index++) {
+            scaled[index] = weights[index] * size / total;
+            (scaled[index] < 1 ? small : large).push(index);
+        }
+
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int under = small.pop();
+            int over = large.pop();
+            probability[under] = scaled[under];
+            alias[under] = over;
+            scaled[over] -= 1 - scaled[under];
+            (scaled[over] < 1 ? small : large).push(over);
+        }
+
+        // whatever is left is full up to rounding error
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1;
+        }
+    }
+
+    public int size() {
+        return probability.length;
+    }
+
+    public int sample(RandomNumberGenerator random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble(0, 1) < probability[column] ? column : alias[column];
+    }
+}
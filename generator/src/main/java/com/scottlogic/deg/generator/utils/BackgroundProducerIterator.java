@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Iterator whose items are produced by draining a stream on a dedicated background thread.
+ * The producer is held back by a bounded queue so at most {@code capacity} items are buffered ahead of the consumer.
+ * Any exception thrown by the producer is rethrown to the consumer once the items produced before it have been read.
+ */
+public class BackgroundProducerIterator<T> implements Iterator<T>, AutoCloseable {
+    private static final Object END_OF_STREAM = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private final Thread producer;
+    private volatile boolean closed;
+    private Object next;
+
+    public BackgroundProducerIterator(Supplier<Stream<T>> source, int capacity, String threadName) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.producer = new Thread(() -> produce(source), threadName);
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = take();
+        }
+
+        if (next instanceof ProducerFailure) {
+            RuntimeException exception = ((ProducerFailure) next).exception;
+            next = END_OF_STREAM;
+            throw exception;
+        }
+
+        return next != END_OF_STREAM;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        T item = (T) next;
+        next = null;
+        return item;
+    }
+
+    /**
+     * Stop the producer thread; any items it has already buffered are discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        producer.interrupt();
+    }
+
+    private void produce(Supplier<Stream<T>> source) {
+        try {
+            Iterator<T> iterator = source.get().iterator();
+            while (!closed && iterator.hasNext()) {
+                queue.put(iterator.next());
+            }
+            queue.put(END_OF_STREAM);
+        } catch (InterruptedException e) {
+            // the consumer has closed the iterator, nothing is waiting for further items
+        } catch (RuntimeException e) {
+            offerFailure(e);
+        } catch (Error e) {
+            offerFailure(new RuntimeException(e));
+        }
+    }
+
+    private void offerFailure(RuntimeException exception) {
+        try {
+            queue.put(new ProducerFailure(exception));
+        } catch (InterruptedException e) {
+            // the consumer has closed the iterator, the failure can no longer be observed
+        }
+    }
+
+    private Object take() {
+        if (closed) {
+            return END_OF_STREAM;
+        }
+
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted whilst waiting for " + producer.getName(), e);
+        }
+    }
+
+    private static class ProducerFailure {
+        private final RuntimeException exception;
+
+        ProducerFailure(RuntimeException exception) {
+            this.exception = exception;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A counter-based random number generator: the n-th number drawn for row k is a pure function of (seed, k, n), where
+ * the key k of a row may have several parts, e.g. (partition, row index, attempt).
+ *
+ * Unlike a sequential generator there is no state carried from one row to the next, so the numbers for any row can be
+ * reproduced without first drawing the numbers for all of the rows before it. Each value is produced by passing the
+ * counter through the SplitMix64 finalising mix, which is cheap and passes BigCrush when used this way.
+ *
+ * An instance is positioned on a single row and is not thread safe; create one per row with {@link #forRow} or
+ * {@link #forKey}.
+ */
+public class CounterBasedRandomNumberGenerator implements RandomNumberGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private final long seed;
+    private final long rowKey;
+    private long counter;
+
+    public CounterBasedRandomNumberGenerator(long seed, long row) {
+        this(seed, new long[] { row });
+    }
+
+    private CounterBasedRandomNumberGenerator(long seed, long[] key) {
+        long rowKey = seed;
+        for (long part : key) {
+            rowKey = mix64(rowKey + mix64(part) * GOLDEN_GAMMA);
+        }
+
+        this.seed = seed;
+        this.rowKey = rowKey;
+    }
+
+    public static CounterBasedRandomNumberGenerator forKey(long seed, long... key) {
+        return new CounterBasedRandomNumberGenerator(seed, key);
+    }
+
+    public CounterBasedRandomNumberGenerator forRow(long row) {
+        return new CounterBasedRandomNumberGenerator(seed, row);
+    }
+
+    public long nextLong() {
+        counter++;
+        return mix64(rowKey + counter * GOLDEN_GAMMA);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+
+        // rejection sampling, as per Random::nextInt(int), to avoid bias towards the lower values
+        int bits = (int) (nextLong() >>> 33);
+        int maxValue = bound - 1;
+        if ((bound & maxValue) == 0) {
+            return (int) ((bound * (long) bits) >> 31);
+        }
+
+        int value = bits % bound;
+        while (bits - value + maxValue < 0) {
+            bits = (int) (nextLong() >>> 33);
+            value = bits % bound;
+        }
+        return value;
+    }
+
+    @Override
+    public int nextInt(int lowerInclusive, int upperExclusive) {
+        if (lowerInclusive >= upperExclusive) {
+            return nextInt();
+        }
+
+        int n = upperExclusive - lowerInclusive;
+        if (n > 0) {
+            return nextInt(n) + lowerInclusive;
+        }
+
+        // range not representable as int
+        int r;
+        do {
+            r = nextInt();
+        } while (r < lowerInclusive || r >= upperExclusive);
+        return r;
+    }
+
+    @Override
+    public double nextDouble(double lowerInclusive, double upperExclusive) {
+        return nextUnitDouble() * (upperExclusive - lowerInclusive) + lowerInclusive;
+    }
+
+    @Override
+    public BigDecimal nextBigDecimal(BigDecimal lowerInclusive, BigDecimal upperExclusive, int scale) {
+        return new BigDecimal(nextUnitDouble())
+            .multiply(upperExclusive.subtract(lowerInclusive))
+            .add(lowerInclusive)
+            .setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    private double nextUnitDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
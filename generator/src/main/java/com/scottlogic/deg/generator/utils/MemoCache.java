@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Thread safe cache of the results of a pure function, holding at most {@code capacity} results.
+ * <p>
+ * Results are kept in two generations: new results go into the current generation, and when that fills up it
+ * replaces the previous generation, whose results are dropped. Results found in the previous generation are copied
+ * into the current one, so anything in regular use survives; this approximates least-recently-used eviction without
+ * any locking on reads.
+ * <p>
+ * A result may occasionally be computed more than once when several threads miss on the same key at the same time.
+ */
+public class MemoCache<K, V> {
+    private final int generationCapacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile ConcurrentHashMap<K, V> current = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<K, V> previous = new ConcurrentHashMap<>();
+
+    public MemoCache(int capacity) {
+        this.generationCapacity = Math.max(1, capacity / 2);
+    }
+
+    public V computeIfAbsent(K key, Function<K, V> compute) {
+        V value = current.get(key);
+        if (value == null) {
+            value = previous.get(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+
+        misses.increment();
+        value = compute.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return current.size() + previous.size();
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(getHits(), getMisses(), size());
+    }
+
+    private void put(K key, V value) {
+        ConcurrentHashMap<K, V> generation = current;
+        generation.put(key, value);
+
+        if (generation.size() >= generationCapacity) {
+            synchronized (this) {
+                if (current == generation) {
+                    previous = generation;
+                    current = new ConcurrentHashMap<>();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getMetrics().toString();
+    }
+
+    /** A snapshot of how well a cache is doing, and how many results it is holding on to. */
+    public static class Metrics {
+        private final long hits;
+        private final long misses;
+        private final int size;
+
+        Metrics(long hits, long misses, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d hits, %d misses (%.1f%% hit rate), %d cached",
+                hits,
+                misses,
+                getHitRate() * 100,
+                size);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import java.math.BigDecimal;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Random number generator which gives every generated row its own random stream, keyed on the row's partition and its
+ * index among the rows of that partition.
+ *
+ * The rows of a walk are keyed with {@link #keyRows}: before each row is taken from the walk the current thread is
+ * moved on to the next row of a {@link RowSequence}, and every number drawn on that thread while the row is produced
+ * comes from a {@link CounterBasedRandomNumberGenerator} for (seed, partition, row index). A walker which abandons a
+ * row and starts it again calls {@link #restartRow}, each attempt having its own stream. So long as the numbers for a
+ * row are only drawn while that row is produced, the row is a function of the seed and its key alone, and any row can
+ * be regenerated, or the rows split between threads and processes, without replaying the rows before it.
+ *
+ * Numbers drawn on a thread which is not producing a keyed row come from a stream seeded with the seed.
+ */
+public class RowKeyedRandomNumberGenerator implements RandomNumberGenerator {
+    private final long seed;
+    private final RandomNumberGenerator sharedStream;
+    private final ThreadLocal<RowCursor> cursor = new ThreadLocal<>();
+
+    public RowKeyedRandomNumberGenerator(long seed) {
+        this.seed = seed;
+        this.sharedStream = new JavaUtilRandomNumberGenerator(seed);
+    }
+
+    /**
+     * Key the rows of a walk on the given row sequence. The walk is only started when its first row is taken, so any
+     * numbers drawn in starting it belong to the first row.
+     */
+    public <T> Stream<T> keyRows(RowSequence rows, Supplier<Stream<T>> walk) {
+        KeyedRowSpliterator<T> keyedRows = new KeyedRowSpliterator<>(rows, walk);
+        return StreamSupport.stream(keyedRows, false)
+            .onClose(keyedRows::close);
+    }
+
+    /**
+     * Abandon the current thread's attempt at its row, numbers drawn from now on come from the stream for the next
+     * attempt.
+     */
+    public void restartRow() {
+        RowCursor current = cursor.get();
+        if (current != null) {
+            cursor.set(new RowCursor(current.rows, current.row, current.attempt + 1));
+        }
+    }
+
+    /**
+     * Divide the rows from the current thread's row onwards between a number of workers, interleaving their rows.
+     * @return the rows for the worker at the given index
+     */
+    public RowSequence rowsForWorker(int workerIndex, int workers) {
+        RowCursor current = cursor.get();
+        RowSequence rows = current != null ? current.rows : new RowSequence(0, 0, 1);
+        long firstRow = current != null ? current.row : rows.firstRow;
+        return new RowSequence(rows.partition, firstRow + workerIndex * rows.stride, rows.stride * workers);
+    }
+
+    @Override
+    public int nextInt() {
+        return currentStream().nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return currentStream().nextInt(bound);
+    }
+
+    @Override
+    public int nextInt(int lowerInclusive, int upperExclusive) {
+        return currentStream().nextInt(lowerInclusive, upperExclusive);
+    }
+
+    @Override
+    public double nextDouble(double lowerInclusive, double upperExclusive) {
+        return currentStream().nextDouble(lowerInclusive, upperExclusive);
+    }
+
+    @Override
+    public BigDecimal nextBigDecimal(BigDecimal lowerInclusive, BigDecimal upperExclusive, int scale) {
+        return currentStream().nextBigDecimal(lowerInclusive, upperExclusive, scale);
+    }
+
+    private RandomNumberGenerator currentStream() {
+        RowCursor current = cursor.get();
+        return current != null ? current.stream : sharedStream;
+    }
+
+    /**
+     * The row indices firstRow, firstRow + stride, firstRow + 2 * stride, ... of a partition
+     */
+    public static class RowSequence {
+        private final int partition;
+        private final long firstRow;
+        private final long stride;
+
+        public RowSequence(int partition, long firstRow, long stride) {
+            this.partition = partition;
+            this.firstRow = firstRow;
+            this.stride = stride;
+        }
+    }
+
+    private class RowCursor {
+        private final RowSequence rows;
+        private final long row;
+        private final int attempt;
+        private final RandomNumberGenerator stream;
+
+        RowCursor(RowSequence rows, long row, int attempt) {
+            this.rows = rows;
+            this.row = row;
+            this.attempt = attempt;
+            this.stream = CounterBasedRandomNumberGenerator.forKey(seed, rows.partition, row, attempt);
+        }
+    }
+
+    /* moves the thread on to the next row for each row taken, restoring the thread's previous row afterwards so that
+    * the walks of several partitions can be interleaved on one thread */
+    private class KeyedRowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final RowSequence rows;
+        private final Supplier<Stream<T>> walk;
+        private Stream<T> walkStream;
+        private Spliterator<T> walkRows;
+        private long nextRow;
+        private T row;
+
+        KeyedRowSpliterator(RowSequence rows, Supplier<Stream<T>> walk) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.rows = rows;
+            this.walk = walk;
+            this.nextRow = rows.firstRow;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            RowCursor previous = cursor.get();
+            cursor.set(new RowCursor(rows, nextRow, 0));
+            boolean advanced;
+            try {
+                if (walkRows == null) {
+                    walkStream = walk.get();
+                    walkRows = walkStream.spliterator();
+                }
+
+                nextRow += rows.stride;
+                advanced = walkRows.tryAdvance(taken -> row = taken);
+            } finally {
+                cursor.set(previous);
+            }
+
+            if (advanced) {
+                action.accept(row);
+                row = null;
+            }
+            return advanced;
+        }
+
+        void close() {
+            if (walkStream != null) {
+                walkStream.close();
+            }
+        }
+    }
+}
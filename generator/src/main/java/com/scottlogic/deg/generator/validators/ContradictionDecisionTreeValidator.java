@@ -48,7 +48,7 @@ public class ContradictionDecisionTreeValidator {
     }
 
     private ConstraintNode markContradictions(ConstraintNode node, RowSpec accumulatedSpec, ProfileFields profileFields){
-        final Optional<RowSpec> nominalRowSpec = node.getOrCreateRowSpec(() -> constraintReducer.reduceConstraintsToRowSpec(
+        final Optional<RowSpec> nominalRowSpec = node.getOrCreateRowSpec(profileFields, () -> constraintReducer.reduceConstraintsToRowSpec(
             profileFields,
             node
         ));
@@ -16,6 +16,7 @@
 
 package com.scottlogic.deg.generator.walker;
 
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
 
@@ -23,4 +24,13 @@ import java.util.stream.Stream;
 
 public interface DecisionTreeWalker {
     Stream<DataBag> walk(DecisionTree tree);
+
+    /**
+     * Walk one shard's slice of the tree, the slices of all the shards of a count are disjoint and together make up
+     * the whole walk. Walkers that can divide their enumeration between the shards should do so, rather than every
+     * shard walking the whole tree as this default does.
+     */
+    default Stream<DataBag> walk(DecisionTree tree, Shard shard) {
+        return shard.selectRows(walk(tree));
+    }
 }
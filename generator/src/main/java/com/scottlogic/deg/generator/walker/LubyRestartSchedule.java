@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker;
+
+/**
+ * How many failed attempts to fix a field each try at a row is allowed before the row is started again, and how many
+ * failed attempts the row is allowed in total before the walker gives up on it.
+ * <p>
+ * The attempts allowed follow the Luby sequence (1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ...) multiplied by a unit, so most
+ * tries are abandoned quickly, but now and then one is given long enough to work through a hard part of the tree.
+ */
+public class LubyRestartSchedule {
+    private final int unit;
+    private final int maxRetries;
+
+    public LubyRestartSchedule(int unit, int maxRetries) {
+        this.unit = unit;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * @return the number of failed attempts to fix a field allowed across all the tries at a row
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @param restart how many times the row has been restarted so far, from 0
+     * @return the number of failed attempts to fix a field allowed before restarting the row again
+     */
+    public int getRetryLimit(int restart) {
+        return (int) Math.min(Integer.MAX_VALUE, unit * luby(restart + 1L));
+    }
+
+    static long luby(long index) {
+        while (true) {
+            int power = 1;
+            while ((1L << power) - 1 < index) {
+                power++;
+            }
+
+            if (index == (1L << power) - 1) {
+                return 1L << (power - 1);
+            }
+            index -= (1L << (power - 1)) - 1;
+        }
+    }
+}
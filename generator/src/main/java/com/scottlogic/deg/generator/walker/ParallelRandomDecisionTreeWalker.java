@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker;
+
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.utils.BackgroundProducerIterator;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator.RowSequence;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs several independent copies of a random walker, each on its own thread, and merges their rows round-robin.
+ *
+ * The indices of the rows being walked are interleaved between the threads, each thread keying its rows' random
+ * numbers on their indices, so for a given seed the merged rows are the same as those of a single threaded walk.
+ */
+public class ParallelRandomDecisionTreeWalker implements DecisionTreeWalker {
+    private static final int WORKER_QUEUE_CAPACITY = 1000;
+
+    private final DecisionTreeWalker underlyingWalker;
+    private final RowKeyedRandomNumberGenerator randomNumberGenerator;
+    private final int threads;
+
+    public ParallelRandomDecisionTreeWalker(
+        DecisionTreeWalker underlyingWalker,
+        RowKeyedRandomNumberGenerator randomNumberGenerator,
+        int threads) {
+        this.underlyingWalker = underlyingWalker;
+        this.randomNumberGenerator = randomNumberGenerator;
+        this.threads = threads;
+    }
+
+    @Override
+    public Stream<DataBag> walk(DecisionTree tree) {
+        List<BackgroundProducerIterator<DataBag>> workers = new ArrayList<>();
+        for (int index = 0; index < threads; index++) {
+            RowSequence rows = randomNumberGenerator.rowsForWorker(index, threads);
+            workers.add(new BackgroundProducerIterator<>(
+                () -> randomNumberGenerator.keyRows(rows, () -> underlyingWalker.walk(tree)),
+                WORKER_QUEUE_CAPACITY,
+                "random-walker-" + index));
+        }
+
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(new RoundRobinIterator(workers), Spliterator.ORDERED),
+            false)
+            .onClose(() -> workers.forEach(BackgroundProducerIterator::close));
+    }
+
+    private static class RoundRobinIterator implements Iterator<DataBag> {
+        private final List<Iterator<DataBag>> iterators;
+        private int current;
+
+        RoundRobinIterator(List<? extends Iterator<DataBag>> iterators) {
+            this.iterators = new ArrayList<>(iterators);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!iterators.isEmpty()) {
+                if (iterators.get(current).hasNext()) {
+                    return true;
+                }
+
+                iterators.remove(current);
+                if (current >= iterators.size()) {
+                    current = 0;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public DataBag next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            DataBag next = iterators.get(current).next();
+            current = (current + 1) % iterators.size();
+            return next;
+        }
+    }
+}
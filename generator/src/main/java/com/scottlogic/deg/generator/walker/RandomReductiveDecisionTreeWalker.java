@@ -21,6 +21,7 @@ import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.fieldspecs.RowSpec;
 import com.scottlogic.deg.generator.generation.DataGeneratorMonitor;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
 
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -28,11 +29,19 @@ import java.util.stream.Stream;
 public class RandomReductiveDecisionTreeWalker implements DecisionTreeWalker {
     private final ReductiveDecisionTreeWalker underlyingWalker;
     private final DataGeneratorMonitor monitor;
+    private final RowKeyedRandomNumberGenerator randomNumberGenerator;
+    private final LubyRestartSchedule restartSchedule;
 
     @Inject
-    RandomReductiveDecisionTreeWalker(ReductiveDecisionTreeWalker underlyingWalker, DataGeneratorMonitor monitor) {
+    RandomReductiveDecisionTreeWalker(
+        ReductiveDecisionTreeWalker underlyingWalker,
+        DataGeneratorMonitor monitor,
+        RowKeyedRandomNumberGenerator randomNumberGenerator,
+        LubyRestartSchedule restartSchedule) {
         this.underlyingWalker = underlyingWalker;
         this.monitor = monitor;
+        this.randomNumberGenerator = randomNumberGenerator;
+        this.restartSchedule = restartSchedule;
     }
 
     @Override
@@ -51,17 +60,27 @@ public class RandomReductiveDecisionTreeWalker implements DecisionTreeWalker {
                     .map(Optional::get));
     }
 
+    /* restart the row on the Luby schedule until it is found, or the row's retry limit is used up between the tries */
     private Optional<DataBag> getFirstRowSpecFromRandomisingIteration(DecisionTree tree) {
-        try {
-            return underlyingWalker.walk(tree)
-                .findFirst();
-        } catch (RetryLimitReachedException ex) {
-            monitor.addLineToPrintAtEndOfGeneration("");
-            monitor.addLineToPrintAtEndOfGeneration("The retry limit for generating data has been hit.");
-            monitor.addLineToPrintAtEndOfGeneration("This may mean that a lot or all of the profile is contradictory.");
-            monitor.addLineToPrintAtEndOfGeneration("Either fix the profile, or try running the same command again.");
-            return Optional.empty();
+        int retriesLeft = restartSchedule.getMaxRetries();
+        for (int restart = 0; retriesLeft > 0; restart++) {
+            // each restart of the row draws from its own random stream, so takes a different path
+            if (restart > 0) {
+                randomNumberGenerator.restartRow();
+            }
+            int retryLimit = Math.min(restartSchedule.getRetryLimit(restart), retriesLeft);
+            retriesLeft -= retryLimit;
+            try {
+                return underlyingWalker.walk(tree, retryLimit)
+                    .findFirst();
+            } catch (RetryLimitReachedException ignored) {
+            }
         }
 
+        monitor.addLineToPrintAtEndOfGeneration("");
+        monitor.addLineToPrintAtEndOfGeneration("The retry limit for generating data has been hit.");
+        monitor.addLineToPrintAtEndOfGeneration("This may mean that a lot or all of the profile is contradictory.");
+        monitor.addLineToPrintAtEndOfGeneration("Either fix the profile, or try running the same command again.");
+        return Optional.empty();
     }
 }
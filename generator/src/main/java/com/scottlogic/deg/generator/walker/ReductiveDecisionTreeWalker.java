@@ -17,8 +17,9 @@
 package com.scottlogic.deg.generator.walker;
 
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.common.util.FlatMappingSpliterator;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
@@ -31,8 +32,10 @@ import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixF
 import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategyFactory;
 
 import java.io.IOException;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
     private final ReductiveTreePruner treePruner;
@@ -42,6 +45,9 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
     private final FieldSpecValueGenerator fieldSpecValueGenerator;
     private final FixFieldStrategyFactory fixFieldStrategyFactory;
     private ReductiveWalkerRetryChecker retryChecker;
+    private final boolean forwardChecking;
+    private final Map<DecisionTree, ConflictLearner> conflictLearners =
+        Collections.synchronizedMap(new WeakHashMap<>());
 
     @Inject
     public ReductiveDecisionTreeWalker(
@@ -51,7 +57,8 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
         ReductiveTreePruner treePruner,
         FieldSpecValueGenerator fieldSpecValueGenerator,
         FixFieldStrategyFactory fixFieldStrategyFactory,
-        ReductiveWalkerRetryChecker retryChecker) {
+        ReductiveWalkerRetryChecker retryChecker,
+        @Named("config:forwardChecking") boolean forwardChecking) {
         this.iterationVisualiser = iterationVisualiser;
         this.reductiveFieldSpecBuilder = reductiveFieldSpecBuilder;
         this.monitor = monitor;
@@ -59,62 +66,233 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
         this.fieldSpecValueGenerator = fieldSpecValueGenerator;
         this.fixFieldStrategyFactory = fixFieldStrategyFactory;
         this.retryChecker = retryChecker;
+        this.forwardChecking = forwardChecking;
     }
 
     /* initialise the walker with a set (ReductiveState) of unfixed fields */
     @Override
     public Stream<DataBag> walk(DecisionTree tree) {
+        return walk(tree, retryChecker::reset, Shard.WHOLE);
+    }
+
+    /* only the shard's share of the values of the first field fixed are tried, so the shards divide the walk */
+    @Override
+    public Stream<DataBag> walk(DecisionTree tree, Shard shard) {
+        return walk(tree, retryChecker::reset, shard);
+    }
+
+    /* walk the tree, giving up once the given number of attempts to fix a field have failed */
+    Stream<DataBag> walk(DecisionTree tree, int retryLimit) {
+        return walk(tree, () -> retryChecker.reset(retryLimit), Shard.WHOLE);
+    }
+
+    private Stream<DataBag> walk(DecisionTree tree, Runnable resetRetryChecker, Shard shard) {
         ReductiveState initialState = new ReductiveState(tree.fields);
         visualise(tree.getRootNode(), initialState);
         FixFieldStrategy fixFieldStrategy = fixFieldStrategyFactory.create(tree.getRootNode());
-        retryChecker.reset();
-        return fixNextField(tree.getRootNode(), initialState, fixFieldStrategy);
+        // the field relations are worked out once for the tree, but a random walk only learns nogoods from itself, so
+        // that the row it finds depends on nothing but its random stream
+        ConflictLearner treeConflictLearner =
+            conflictLearners.computeIfAbsent(tree, t -> new ConflictLearner(t.getRootNode()));
+        ConflictLearner conflictLearner = fieldSpecValueGenerator.isRandom()
+            ? treeConflictLearner.withoutNogoods()
+            : treeConflictLearner;
+        resetRetryChecker.run();
+        return new Walk(fixFieldStrategy, conflictLearner, shard).fixNextField(tree.getRootNode(), initialState);
     }
 
-    private Stream<DataBag> fixNextField(ConstraintNode tree, ReductiveState reductiveState, FixFieldStrategy fixFieldStrategy) {
-        Field fieldToFix = fixFieldStrategy.getNextFieldToFix(reductiveState);
-        Set<FieldSpec> nextFieldSpecs = reductiveFieldSpecBuilder.getDecisionFieldSpecs(tree, fieldToFix);
+    /**
+     * The fields fixed so far on one walk of the tree, so that when a field can't be fixed the walk can jump straight
+     * back to the most recently fixed field which caused it, rather than trying every value of the fields fixed since.
+     */
+    private class Walk {
+        private static final int NOT_BACKJUMPING = Integer.MAX_VALUE;
 
-        if (nextFieldSpecs.isEmpty()){
-            monitor.noValuesForField(reductiveState, fieldToFix);
-            return Stream.empty();
+        private final FixFieldStrategy fixFieldStrategy;
+        private final ConflictLearner conflictLearner;
+        private final Shard shard;
+        private final List<FieldLevel> levels = new ArrayList<>();
+        private int backjumpTo = NOT_BACKJUMPING;
+
+        Walk(FixFieldStrategy fixFieldStrategy, ConflictLearner conflictLearner, Shard shard) {
+            this.fixFieldStrategy = fixFieldStrategy;
+            this.conflictLearner = conflictLearner;
+            this.shard = shard;
         }
 
-        Stream<DataBagValue> values = fieldSpecValueGenerator.generate(nextFieldSpecs);
+        Stream<DataBag> fixNextField(ConstraintNode tree, ReductiveState reductiveState) {
+            Field fieldToFix = fixFieldStrategy.getNextFieldToFix(reductiveState, tree);
+            Set<FieldSpec> nextFieldSpecs = reductiveFieldSpecBuilder.getDecisionFieldSpecs(tree, fieldToFix);
 
-        return FlatMappingSpliterator.flatMap(
-            values,
-            dataBagValue -> pruneTreeForNextValue(tree, reductiveState, fixFieldStrategy, fieldToFix, dataBagValue));
-    }
+            if (nextFieldSpecs.isEmpty()){
+                monitor.noValuesForField(reductiveState, fieldToFix);
+                backjump(conflictLearner.getConflictingFields(fieldToFix, reductiveState), reductiveState);
+                return Stream.empty();
+            }
+
+            Stream<DataBagValue> allValues = fieldSpecValueGenerator.generate(nextFieldSpecs);
+            Iterator<DataBagValue> values = reductiveState.getFieldValues().isEmpty()
+                ? shard.selectRows(allValues).iterator()
+                : allValues.iterator();
+            FieldLevel level = new FieldLevel(tree, reductiveState, fieldToFix, values, valuesCanRecur(nextFieldSpecs));
+            if (level.depth < levels.size()) {
+                levels.set(level.depth, level);
+            } else {
+                levels.add(level);
+            }
+
+            return StreamSupport.stream(level, false);
+        }
+
+        private Stream<DataBag> pruneTreeForNextValue(FieldLevel level, DataBagValue fieldValue) {
+            Optional<Set<Field>> nogood = conflictLearner.findNogood(level.field, fieldValue, level.reductiveState);
+            if (nogood.isPresent()) {
+                level.conflictingFields.addAll(nogood.get());
+                return rejectValue(level);
+            }
+
+            Merged<ConstraintNode> reducedTree =
+                treePruner.pruneConstraintNode(level.tree, level.field, fieldValue, level.valuesCanRecur);
+
+            if (reducedTree.isContradictory()){
+                //yielding an empty stream will cause back-tracking
+                Set<Field> conflictingFields = conflictLearner.getConflictingFields(level.field, level.reductiveState);
+                return rejectValue(level, fieldValue, conflictingFields);
+            }
 
-    private Stream<DataBag> pruneTreeForNextValue(
-        ConstraintNode tree,
-        ReductiveState reductiveState,
-        FixFieldStrategy fixFieldStrategy,
-        Field field,
-        DataBagValue fieldValue){
+            ReductiveState newReductiveState =
+                level.reductiveState.withFixedFieldValue(level.field, fieldValue);
 
-        Merged<ConstraintNode> reducedTree = treePruner.pruneConstraintNode(tree, field, fieldValue);
+            if (forwardChecking) {
+                Optional<Field> fieldWithNoValues = findFieldWithNoValues(reducedTree.get(), newReductiveState);
+                if (fieldWithNoValues.isPresent()) {
+                    monitor.noValuesForField(newReductiveState, fieldWithNoValues.get());
+                    Set<Field> conflictingFields = conflictLearner.getConflictingFields(level.field, level.reductiveState);
+                    conflictingFields.addAll(
+                        conflictLearner.getConflictingFields(fieldWithNoValues.get(), newReductiveState));
+                    conflictingFields.remove(level.field);
+                    return rejectValue(level, fieldValue, conflictingFields);
+                }
+            }
 
-        if (reducedTree.isContradictory()){
-            //yielding an empty stream will cause back-tracking
-            this.monitor.unableToStepFurther(reductiveState);
+            monitor.fieldFixedToValue(level.field, fieldValue.getFormattedValue());
+            visualise(reducedTree.get(), newReductiveState);
+
+            if (newReductiveState.allFieldsAreFixed()) {
+                retryChecker.retrySuccessful();
+                return Stream.of(newReductiveState.asDataBag());
+            }
+
+            return fixNextField(reducedTree.get(), newReductiveState);
+        }
+
+        private Stream<DataBag> rejectValue(FieldLevel level, DataBagValue fieldValue, Set<Field> conflictingFields) {
+            level.conflictingFields.addAll(conflictingFields);
+            conflictLearner.learnNogood(level.field, fieldValue, conflictingFields, level.reductiveState);
+            return rejectValue(level);
+        }
+
+        private Stream<DataBag> rejectValue(FieldLevel level) {
+            monitor.unableToStepFurther(level.reductiveState);
             retryChecker.retryUnsuccessful();
             return Stream.empty();
         }
 
-        monitor.fieldFixedToValue(field, fieldValue.getFormattedValue());
+        /* look ahead for any field the value leaves with nothing to fix it to, so the value can be rejected now rather
+        * than after fixing all the fields in between */
+        private Optional<Field> findFieldWithNoValues(ConstraintNode tree, ReductiveState reductiveState) {
+            return tree.getFieldsInSubtree().stream()
+                .filter(field -> !reductiveState.isFieldFixed(field))
+                .filter(field -> reductiveFieldSpecBuilder.getDecisionFieldSpecs(tree, field).isEmpty())
+                .findFirst();
+        }
+
+        /* a random walk draws values afresh each time, which only come round again when they're from a set of values;
+        * any other walk tries the same values at the same node whenever it reaches it down a different path */
+        private boolean valuesCanRecur(Set<FieldSpec> fieldSpecs) {
+            return !fieldSpecValueGenerator.isRandom()
+                || fieldSpecs.stream().allMatch(fieldSpec -> fieldSpec.getWhitelist() != null);
+        }
+
+        /* abandon every field fixed after the most recent of the conflicting fields, and learn that its value can't be
+        * used with the values of the others. With no conflicting fields fixed, no more rows can be produced. */
+        private void backjump(Set<Field> conflictingFields, ReductiveState reductiveState) {
+            int target = reductiveState.getFieldValues().size() - 1;
+            while (target >= 0 && !conflictingFields.contains(levels.get(target).field)) {
+                target--;
+            }
 
-        ReductiveState newReductiveState =
-            reductiveState.withFixedFieldValue(field, fieldValue);
-        visualise(reducedTree.get(), newReductiveState);
+            backjumpTo = target;
+            if (target < 0) {
+                return;
+            }
 
-        if (newReductiveState.allFieldsAreFixed()) {
-            retryChecker.retrySuccessful();
-            return Stream.of(newReductiveState.asDataBag());
+            FieldLevel culprit = levels.get(target);
+            Set<Field> otherConflictingFields = new HashSet<>(conflictingFields);
+            otherConflictingFields.remove(culprit.field);
+            culprit.conflictingFields.addAll(otherConflictingFields);
+            conflictLearner.learnNogood(
+                culprit.field,
+                culprit.currentValue,
+                otherConflictingFields,
+                culprit.reductiveState);
         }
 
-        return fixNextField(reducedTree.get(), newReductiveState, fixFieldStrategy);
+        /**
+         * The rows produced by fixing one field to each of its values in turn
+         */
+        private class FieldLevel extends Spliterators.AbstractSpliterator<DataBag> {
+            private final ConstraintNode tree;
+            private final ReductiveState reductiveState;
+            private final Field field;
+            private final Iterator<DataBagValue> values;
+            private final int depth;
+            private final boolean valuesCanRecur;
+            private final Set<Field> conflictingFields = new HashSet<>();
+            private DataBagValue currentValue;
+            private Spliterator<DataBag> rowsForCurrentValue = Spliterators.emptySpliterator();
+            private boolean producedRows;
+
+            FieldLevel(
+                ConstraintNode tree,
+                ReductiveState reductiveState,
+                Field field,
+                Iterator<DataBagValue> values,
+                boolean valuesCanRecur) {
+                super(Long.MAX_VALUE, Spliterator.ORDERED);
+                this.tree = tree;
+                this.reductiveState = reductiveState;
+                this.field = field;
+                this.values = values;
+                this.depth = reductiveState.getFieldValues().size();
+                this.valuesCanRecur = valuesCanRecur;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super DataBag> action) {
+                while (true) {
+                    if (rowsForCurrentValue.tryAdvance(action)) {
+                        producedRows = true;
+                        return true;
+                    }
+
+                    if (backjumpTo < depth) {
+                        return false;
+                    }
+                    backjumpTo = NOT_BACKJUMPING;
+
+                    if (!values.hasNext()) {
+                        if (!producedRows) {
+                            backjump(conflictingFields, reductiveState);
+                        }
+                        return false;
+                    }
+
+                    currentValue = values.next();
+                    rowsForCurrentValue = pruneTreeForNextValue(this, currentValue).spliterator();
+                }
+            }
+        }
     }
 
     private void visualise(ConstraintNode rootNode, ReductiveState reductiveState){
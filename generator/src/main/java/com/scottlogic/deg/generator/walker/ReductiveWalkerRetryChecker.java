@@ -1,25 +1,33 @@
 package com.scottlogic.deg.generator.walker;
 
 public class ReductiveWalkerRetryChecker {
-    private int numRetriesSoFar = 0;
+    private final ThreadLocal<Integer> numRetriesSoFar = ThreadLocal.withInitial(() -> 0);
+    private final ThreadLocal<Integer> retryLimitForWalk;
     private int retryLimit;
 
     public ReductiveWalkerRetryChecker(int retryLimit) {
         this.retryLimit = retryLimit;
+        this.retryLimitForWalk = ThreadLocal.withInitial(() -> this.retryLimit);
     }
 
     void retrySuccessful() {
-        numRetriesSoFar = 0;
+        numRetriesSoFar.set(0);
     }
 
     void retryUnsuccessful() {
-        numRetriesSoFar++;
-        if (numRetriesSoFar > retryLimit) {
+        int retries = numRetriesSoFar.get() + 1;
+        numRetriesSoFar.set(retries);
+        if (retries > retryLimitForWalk.get()) {
             throw new RetryLimitReachedException();
         }
     }
 
     void reset() {
-        numRetriesSoFar = 0;
+        reset(retryLimit);
+    }
+
+    void reset(int retryLimitForWalk) {
+        numRetriesSoFar.set(0);
+        this.retryLimitForWalk.set(retryLimitForWalk);
     }
 }
@@ -4,17 +4,19 @@ import com.google.inject.Inject;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionNode;
 
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Stream;
 
 public class RandomOptionPicker implements OptionPicker {
-    private final Random random;
+    private final RandomNumberGenerator random;
 
-    public RandomOptionPicker() {
-        this.random = new Random();
+    @Inject
+    public RandomOptionPicker(RandomNumberGenerator random) {
+        this.random = random;
     }
 
     @Override
@@ -27,7 +29,9 @@ public class RandomOptionPicker implements OptionPicker {
     @Override
     public Stream<ConstraintNode> streamOptions(DecisionNode decisionNode) {
         List<ConstraintNode> options = new ArrayList<>(decisionNode.getOptions());
-        Collections.shuffle(options);
+        for (int index = options.size() - 1; index > 0; index--) {
+            Collections.swap(options, index, random.nextInt(index + 1));
+        }
         return options.stream();
     }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.constraints.delayed.DelayedAtomicConstraint;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.decisiontree.DecisionNode;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Works out which fixed fields are to blame when a field can't be fixed, and remembers combinations of values which
+ * can't be fixed together (nogoods), so that the walker doesn't try them again.
+ * <p>
+ * Fields are related when they are constrained within the same decision, or by the same relational constraint. A
+ * field's values can only be restricted by the fixed fields related to it, or related to an unfixed field which is
+ * itself related to it, as pruning for one value can pull the constraints on unfixed fields up to the root of the tree.
+ * Fixing any other field can't change whether the field can be fixed.
+ * <p>
+ * Learnt for a tree, and safe to share between walks of it on any number of threads. The field relations only depend
+ * on the tree, so are worked out once for it; {@link #withoutNogoods} gives a learner for a walk that must only learn
+ * from itself.
+ */
+public class ConflictLearner {
+    private static final int MAX_LEARNT_VALUES = 65536;
+    private static final int MAX_NOGOODS_PER_VALUE = 8;
+
+    private final Map<Field, Set<Field>> relatedFields;
+    private final Map<FieldValue, List<Map<Field, DataBagValue>>> nogoods = new ConcurrentHashMap<>();
+
+    public ConflictLearner(ConstraintNode rootNode) {
+        this.relatedFields = new HashMap<>();
+        for (DelayedAtomicConstraint constraint : rootNode.getDelayedAtomicConstraints()) {
+            relate(Arrays.asList(constraint.underlyingConstraint().getField(), constraint.field()));
+        }
+
+        for (DecisionNode decision : rootNode.getDecisions()) {
+            Set<Field> fieldsInDecision = new HashSet<>();
+            addFields(decision, fieldsInDecision);
+            relate(fieldsInDecision);
+        }
+    }
+
+    private ConflictLearner(Map<Field, Set<Field>> relatedFields) {
+        this.relatedFields = relatedFields;
+    }
+
+    /**
+     * @return a learner for the same tree which hasn't learnt any nogoods, sharing this learner's field relations
+     * rather than working them out from the tree again
+     */
+    public ConflictLearner withoutNogoods() {
+        return new ConflictLearner(relatedFields);
+    }
+
+    /**
+     * @return the fixed fields which could have caused the given field to have no values, or the given value to
+     * contradict the tree
+     */
+    public Set<Field> getConflictingFields(Field field, ReductiveState reductiveState) {
+        Set<Field> conflictingFields = new HashSet<>();
+        Set<Field> visited = new HashSet<>(Collections.singleton(field));
+        Deque<Field> unfixedFields = new ArrayDeque<>(visited);
+
+        while (!unfixedFields.isEmpty()) {
+            for (Field related : relatedFields.getOrDefault(unfixedFields.pop(), Collections.emptySet())) {
+                if (!visited.add(related)) {
+                    continue;
+                }
+
+                if (reductiveState.isFieldFixed(related)) {
+                    conflictingFields.add(related);
+                } else {
+                    unfixedFields.push(related);
+                }
+            }
+        }
+        return conflictingFields;
+    }
+
+    /**
+     * Remember that the field can't be fixed to the value while the conflicting fields have their current values
+     */
+    public void learnNogood(Field field, DataBagValue value, Set<Field> conflictingFields, ReductiveState reductiveState) {
+        FieldValue fieldValue = new FieldValue(field, value);
+        List<Map<Field, DataBagValue>> nogoodsForValue = nogoods.get(fieldValue);
+        if (nogoodsForValue == null) {
+            if (nogoods.size() >= MAX_LEARNT_VALUES) {
+                return;
+            }
+            nogoodsForValue = nogoods.computeIfAbsent(fieldValue, key -> new CopyOnWriteArrayList<>());
+        }
+
+        if (nogoodsForValue.size() < MAX_NOGOODS_PER_VALUE) {
+            Map<Field, DataBagValue> conflictingValues = new HashMap<>();
+            for (Field conflictingField : conflictingFields) {
+                conflictingValues.put(conflictingField, reductiveState.getFieldValues().get(conflictingField));
+            }
+            nogoodsForValue.add(conflictingValues);
+        }
+    }
+
+    /**
+     * @return the fields whose current values have been found to stop the field being fixed to the value, if any
+     */
+    public Optional<Set<Field>> findNogood(Field field, DataBagValue value, ReductiveState reductiveState) {
+        List<Map<Field, DataBagValue>> nogoodsForValue = nogoods.get(new FieldValue(field, value));
+        if (nogoodsForValue == null) {
+            return Optional.empty();
+        }
+
+        Map<Field, DataBagValue> fieldValues = reductiveState.getFieldValues();
+        return nogoodsForValue.stream()
+            .filter(nogood -> nogood.entrySet().stream()
+                .allMatch(conflict -> conflict.getValue().equals(fieldValues.get(conflict.getKey()))))
+            .findFirst()
+            .map(Map::keySet);
+    }
+
+    private void addFields(DecisionNode decision, Set<Field> fields) {
+        for (ConstraintNode option : decision.getOptions()) {
+            fields.addAll(option.getFieldsWithAtomicConstraints());
+            for (DelayedAtomicConstraint constraint : option.getDelayedAtomicConstraints()) {
+                fields.add(constraint.underlyingConstraint().getField());
+                fields.add(constraint.field());
+            }
+            for (DecisionNode nestedDecision : option.getDecisions()) {
+                addFields(nestedDecision, fields);
+            }
+        }
+    }
+
+    private void relate(Collection<Field> fields) {
+        for (Field field : fields) {
+            relatedFields.computeIfAbsent(field, f -> new HashSet<>()).addAll(fields);
+        }
+    }
+
+    private static class FieldValue {
+        private final Field field;
+        private final DataBagValue value;
+
+        FieldValue(Field field, DataBagValue value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FieldValue that = (FieldValue) o;
+            return Objects.equals(field, that.field) && Objects.equals(value, that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(field, value);
+        }
+    }
+}
@@ -17,15 +17,12 @@
 package com.scottlogic.deg.generator.walker.reductive;
 
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
-import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraintsHelper;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.visualisation.BaseVisitor;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
 import com.scottlogic.deg.generator.reducer.ConstraintReducer;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Optional;
 
 public class FieldSpecExtractionVisitor extends BaseVisitor {
@@ -41,13 +38,10 @@ public class FieldSpecExtractionVisitor extends BaseVisitor {
 
     @Override
     public ConstraintNode visit(ConstraintNode constraintNode) {
-        List<AtomicConstraint> atomicConstraintsForField =
-            AtomicConstraintsHelper.getConstraintsForField(constraintNode.getAtomicConstraints(), field);
-
         Optional<FieldSpec> fieldSpec =
-            atomicConstraintsForField.isEmpty()
+            constraintNode.getAtomicConstraintsForField(field).isEmpty()
                 ? Optional.empty()
-                : constraintReducer.reduceConstraintsToFieldSpec(atomicConstraintsForField);
+                : constraintReducer.reduceConstraintsToFieldSpec(constraintNode, field);
 
         if (fieldSpec.isPresent()) {
             fieldSpecs.add(fieldSpec.get());
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive;
+
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+
+/**
+ * The result of pruning a whole tree; a tree that had contradictory branches pruned from it was partially
+ * contradictory
+ */
+public class PrunedTree {
+    private final Merged<ConstraintNode> prunedNode;
+    private final boolean hadContradictionsPruned;
+
+    public PrunedTree(Merged<ConstraintNode> prunedNode, boolean hadContradictionsPruned) {
+        this.prunedNode = prunedNode;
+        this.hadContradictionsPruned = hadContradictionsPruned;
+    }
+
+    public Merged<ConstraintNode> getPrunedNode() {
+        return prunedNode;
+    }
+
+    public boolean hadContradictionsPruned() {
+        return hadContradictionsPruned;
+    }
+}
@@ -18,8 +18,6 @@ package com.scottlogic.deg.generator.walker.reductive;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
-import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraintsHelper;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
@@ -47,10 +45,7 @@ public class ReductiveFieldSpecBuilder {
      * @return fieldSpec with mustContains restriction if not contradictory, otherwise Optional.empty()
      */
     public Set<FieldSpec> getDecisionFieldSpecs(ConstraintNode rootNode, Field field){
-        List<AtomicConstraint> constraintsForRootNode =
-            AtomicConstraintsHelper.getConstraintsForField(rootNode.getAtomicConstraints(), field);
-
-        Optional<FieldSpec> rootOptional = constraintReducer.reduceConstraintsToFieldSpec(constraintsForRootNode);
+        Optional<FieldSpec> rootOptional = constraintReducer.reduceConstraintsToFieldSpec(rootNode, field);
         if (!rootOptional.isPresent()){
             return Collections.emptySet();
         }
@@ -76,8 +71,10 @@ public class ReductiveFieldSpecBuilder {
         FieldSpecExtractionVisitor visitor = new FieldSpecExtractionVisitor(field, constraintReducer);
 
         //ignore the root node, pass the visitor into any option of a decision below the root node.
+        //options which don't mention the field anywhere have nothing to contribute, so aren't visited.
         rootNode.getDecisions()
-            .forEach(d -> d.getOptions()
+            .forEach(d -> d.getOptions().stream()
+                .filter(o -> o.getFieldsInSubtree().contains(field))
                 .forEach(o -> o.accept(visitor)));
 
         return visitor.fieldSpecs;
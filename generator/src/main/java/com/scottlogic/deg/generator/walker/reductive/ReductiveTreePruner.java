@@ -18,27 +18,42 @@ package com.scottlogic.deg.generator.walker.reductive;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
 import com.scottlogic.deg.generator.decisiontree.*;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpecHelper;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.generation.databags.DataBagValue;
 import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.utils.MemoCache;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 
 public class ReductiveTreePruner {
+    private static final int PRUNING_CACHE_CAPACITY = 4096;
 
     private final FieldSpecMerger merger;
     private final ConstraintReducer constraintReducer;
     private final FieldSpecHelper fieldSpecHelper;
+    private final HashConsingNodeFactory nodeFactory;
+
+    // the same node tends to be pruned for the same values over and over, especially when each random row starts
+    // again from the root; as pruned trees are cached too, repeated walks find each step down the tree cached. Pruned
+    // trees are shared, so a walk reaching an identical copy of a node finds its steps cached as well
+    private final MemoCache<PruningKey, Merged<ConstraintNode>> pruningCache = new MemoCache<>(PRUNING_CACHE_CAPACITY);
 
     @Inject
-    public ReductiveTreePruner(FieldSpecMerger merger, ConstraintReducer constraintReducer, FieldSpecHelper fieldSpecHelper) {
+    public ReductiveTreePruner(
+        FieldSpecMerger merger,
+        ConstraintReducer constraintReducer,
+        FieldSpecHelper fieldSpecHelper,
+        HashConsingNodeFactory nodeFactory) {
         this.merger = merger;
         this.constraintReducer = constraintReducer;
         this.fieldSpecHelper = fieldSpecHelper;
+        this.nodeFactory = nodeFactory;
     }
 
     /**
@@ -48,12 +63,69 @@ public class ReductiveTreePruner {
      * @return A pruned tree if the new tree is valid, Merged.contradictory otherwise
      */
     public Merged<ConstraintNode> pruneConstraintNode(ConstraintNode constraintNode, Field field, DataBagValue value) {
+        return pruneConstraintNode(constraintNode, field, value, true);
+    }
+
+    /**
+     * Prunes a tree of any branches that are contradictory to the value of the nextFixedField
+     * @param constraintNode The Tree to be pruned
+     * @param value the field and value to prune for.
+     * @param valueCanRecur whether the field may be fixed to the same value at this node again, e.g. on a later row.
+     *                      Only then is the pruned tree cached and shared, as it can't otherwise be asked for again
+     * @return A pruned tree if the new tree is valid, Merged.contradictory otherwise
+     */
+    public Merged<ConstraintNode> pruneConstraintNode(
+        ConstraintNode constraintNode,
+        Field field,
+        DataBagValue value,
+        boolean valueCanRecur) {
+        if (!valueCanRecur) {
+            return pruneConstraintNode(constraintNode, fieldSpecsFor(field, fieldSpecHelper.getFieldSpecForValue(value)));
+        }
+
+        return pruningCache.computeIfAbsent(
+            new PruningKey(constraintNode, field, fieldSpecHelper.getFieldSpecForValue(value)),
+            key -> {
+                Merged<ConstraintNode> prunedNode = pruneConstraintNode(key.node, fieldSpecsFor(key.field, key.fieldSpec));
+                return prunedNode.isContradictory() ? prunedNode : Merged.of(nodeFactory.share(prunedNode.get()));
+            });
+    }
+
+    private static Map<Field, FieldSpec> fieldSpecsFor(Field field, FieldSpec fieldSpec) {
         Map<Field, FieldSpec> fieldToSpec = new HashMap<>();
-        fieldToSpec.put(field, fieldSpecHelper.getFieldSpecForValue(value));
-        return pruneConstraintNode(constraintNode, fieldToSpec);
+        fieldToSpec.put(field, fieldSpec);
+        return fieldToSpec;
+    }
+
+    public MemoCache.Metrics getPruningCacheMetrics() {
+        return pruningCache.getMetrics();
     }
 
     public Merged<ConstraintNode> pruneConstraintNode(ConstraintNode constraintNode, Map<Field, FieldSpec> fieldSpecs) {
+        return pruneConstraintNode(constraintNode, fieldSpecs, new PruningPass(false));
+    }
+
+    /**
+     * Prunes the whole tree before generation starts, pruning the options of each decision in parallel
+     * @param rootNode The Tree to be pruned
+     * @param fieldSpecs a FieldSpec for every field in the profile
+     * @return the pruned tree, and whether any contradictory branches were pruned from it
+     */
+    public PrunedTree pruneTree(ConstraintNode rootNode, Map<Field, FieldSpec> fieldSpecs) {
+        PruningPass pass = new PruningPass(true);
+        Merged<ConstraintNode> prunedNode = ForkJoinPool.commonPool().invoke(
+            ForkJoinTask.adapt(() -> pruneConstraintNode(rootNode, fieldSpecs, pass)));
+
+        return new PrunedTree(prunedNode, pass.removedContradictions);
+    }
+
+    private Merged<ConstraintNode> pruneConstraintNode(ConstraintNode constraintNode, Map<Field, FieldSpec> fieldSpecs, PruningPass pass) {
+        // nothing beneath this node can contradict the given fields; the tree is otherwise already pruned, as the
+        // whole tree is pruned upfront
+        if (Collections.disjoint(constraintNode.getFieldsInSubtree(), fieldSpecs.keySet())) {
+            return Merged.of(constraintNode);
+        }
+
         Merged<Map<Field, FieldSpec>> newFieldSpecs = combineConstraintsWithParent(constraintNode, fieldSpecs);
         if (newFieldSpecs.isContradictory()){
             return Merged.contradictory();
@@ -62,7 +134,7 @@ public class ReductiveTreePruner {
         PrunedConstraintState state = new PrunedConstraintState(constraintNode);
         for (DecisionNode decision : constraintNode.getDecisions()) {
 
-            Merged<DecisionNode> prunedDecisionNode = pruneDecisionNode(decision, newFieldSpecs.get());
+            Merged<DecisionNode> prunedDecisionNode = pruneDecisionNode(decision, newFieldSpecs.get(), pass);
             if (prunedDecisionNode.isContradictory()) {
                 return Merged.contradictory();
             }
@@ -73,31 +145,49 @@ public class ReductiveTreePruner {
         if (state.hasPulledUpDecisions()){
             return pruneConstraintNode(
                 state.getNewConstraintNode(),
-                state.addPulledUpFieldsToMap(fieldSpecs));
+                state.addPulledUpFieldsToMap(fieldSpecs),
+                pass);
         }
 
         return Merged.of(state.getNewConstraintNode());
     }
 
-    private Merged<DecisionNode> pruneDecisionNode(DecisionNode decisionNode,  Map<Field, FieldSpec> fieldSpecs) {
+    private Merged<DecisionNode> pruneDecisionNode(DecisionNode decisionNode, Map<Field, FieldSpec> fieldSpecs, PruningPass pass) {
         Collection<ConstraintNode> newConstraintNodes = new ArrayList<>();
 
-        for (ConstraintNode constraintNode : decisionNode.getOptions()) {
-            pruneConstraintNode(constraintNode, fieldSpecs).ifPresent(newConstraintNodes::add);
+        for (Merged<ConstraintNode> prunedOption : pruneOptions(decisionNode.getOptions(), fieldSpecs, pass)) {
+            prunedOption.ifPresent(newConstraintNodes::add);
         }
 
         if (newConstraintNodes.isEmpty()) {
             return Merged.contradictory();
         }
 
+        if (newConstraintNodes.size() < decisionNode.getOptions().size()) {
+            pass.removedContradictions = true;
+        }
+
         return Merged.of(new DecisionNode(newConstraintNodes));
     }
 
-    private Merged<Map<Field, FieldSpec>> combineConstraintsWithParent(ConstraintNode constraintNode, Map<Field, FieldSpec> parentFieldSpecs) {
-        Map<Field, Collection<AtomicConstraint>> relevantConstraints =
-            getRelevantConstraints(constraintNode.getAtomicConstraints(), parentFieldSpecs.keySet());
+    private List<Merged<ConstraintNode>> pruneOptions(Collection<ConstraintNode> options, Map<Field, FieldSpec> fieldSpecs, PruningPass pass) {
+        if (!pass.forkOptions || options.size() < 2) {
+            return options.stream()
+                .map(option -> pruneConstraintNode(option, fieldSpecs, pass))
+                .collect(Collectors.toList());
+        }
 
-        Merged<Map<Field, FieldSpec>> relevantFieldSpecs = createFieldSpecMap(relevantConstraints);
+        List<ForkJoinTask<Merged<ConstraintNode>>> tasks = options.stream()
+            .map(option -> ForkJoinTask.adapt(() -> pruneConstraintNode(option, fieldSpecs, pass)))
+            .collect(Collectors.toList());
+
+        return ForkJoinTask.invokeAll(tasks).stream()
+            .map(ForkJoinTask::join)
+            .collect(Collectors.toList());
+    }
+
+    private Merged<Map<Field, FieldSpec>> combineConstraintsWithParent(ConstraintNode constraintNode, Map<Field, FieldSpec> parentFieldSpecs) {
+        Merged<Map<Field, FieldSpec>> relevantFieldSpecs = createFieldSpecMap(constraintNode, parentFieldSpecs.keySet());
         if (relevantFieldSpecs.isContradictory()){
             return Merged.contradictory();
         }
@@ -105,23 +195,18 @@ public class ReductiveTreePruner {
         return mergeFieldSpecMaps(parentFieldSpecs, relevantFieldSpecs.get());
     }
 
-    private Map<Field, Collection<AtomicConstraint>> getRelevantConstraints(Collection<AtomicConstraint> pulledUpAtomicConstraints, Set<Field> relevantFields) {
-        Map<Field, Collection<AtomicConstraint>> map = new HashMap<>();
-        pulledUpAtomicConstraints.stream()
-            .filter(constraint -> relevantFields.contains(constraint.getField()))
-            .forEach(constraint -> addToConstraintsMap(map, constraint));
-        return map;
-    }
-
-    private Merged<Map<Field, FieldSpec>> createFieldSpecMap(Map<Field, Collection<AtomicConstraint>> relevantConstraints){
+    private Merged<Map<Field, FieldSpec>> createFieldSpecMap(ConstraintNode constraintNode, Set<Field> relevantFields){
         Map<Field, FieldSpec> newFieldSpecs = new HashMap<>();
-        for (Map.Entry<Field, Collection<AtomicConstraint>> fieldToConstraints : relevantConstraints.entrySet()) {
+        for (Field field : constraintNode.getFieldsWithAtomicConstraints()) {
+            if (!relevantFields.contains(field)) {
+                continue;
+            }
 
-            Optional<FieldSpec> fieldSpec = constraintReducer.reduceConstraintsToFieldSpec(fieldToConstraints.getValue());
+            Optional<FieldSpec> fieldSpec = constraintReducer.reduceConstraintsToFieldSpec(constraintNode, field);
             if (!fieldSpec.isPresent()){
                 return Merged.contradictory();
             }
-            newFieldSpecs.put(fieldToConstraints.getKey(), fieldSpec.get());
+            newFieldSpecs.put(field, fieldSpec.get());
         }
 
         return Merged.of(newFieldSpecs);
@@ -143,12 +228,40 @@ public class ReductiveTreePruner {
         return Merged.of(newMap);
     }
 
-    private void addToConstraintsMap(Map<Field, Collection<AtomicConstraint>> map, AtomicConstraint constraint) {
-        if (!map.containsKey(constraint.getField())) {
-            map.put(constraint.getField(), new ArrayList<>());
+    private static class PruningPass {
+        private final boolean forkOptions;
+        private volatile boolean removedContradictions;
+
+        PruningPass(boolean forkOptions) {
+            this.forkOptions = forkOptions;
+        }
+    }
+
+    /** Identifies a node by reference, as nodes are compared structurally which would be as costly as pruning them. */
+    private static class PruningKey {
+        private final ConstraintNode node;
+        private final Field field;
+        private final FieldSpec fieldSpec;
+
+        PruningKey(ConstraintNode node, Field field, FieldSpec fieldSpec) {
+            this.node = node;
+            this.field = field;
+            this.fieldSpec = fieldSpec;
         }
 
-        map.get(constraint.getField())
-            .add(constraint);
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PruningKey that = (PruningKey) o;
+            return node == that.node
+                && Objects.equals(field, that.field)
+                && Objects.equals(fieldSpec, that.fieldSpec);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(node), field, fieldSpec);
+        }
     }
 }
@@ -39,7 +39,7 @@ public class FieldAppearanceFixingStrategy implements FixFieldStrategy {
             .collect(Collectors.toList());
     }
     @Override
-    public Field getNextFieldToFix(ReductiveState reductiveState) {
+    public Field getNextFieldToFix(ReductiveState reductiveState, ConstraintNode rootNode) {
         return fieldsInFixingOrder.stream()
             .filter(field -> !reductiveState.isFieldFixed(field) && reductiveState.getFields().stream().anyMatch(pf -> pf.equals(field)))
             .findFirst()
@@ -17,8 +17,14 @@
 package com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy;
 
 import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.walker.reductive.ReductiveState;
 
 public interface FixFieldStrategy {
-    Field getNextFieldToFix(ReductiveState reductiveState);
+    /**
+     * @param reductiveState the fields fixed so far
+     * @param rootNode the tree, pruned for the fields fixed so far
+     * @return the next field to fix
+     */
+    Field getNextFieldToFix(ReductiveState reductiveState, ConstraintNode rootNode);
 }
@@ -16,10 +16,29 @@
 
 package com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy;
 
+import com.google.inject.Inject;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.generation.GenerationConfigSource;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
 
 public class FixFieldStrategyFactory {
+    private final GenerationConfigSource configSource;
+    private final ConstraintReducer constraintReducer;
+
+    @Inject
+    public FixFieldStrategyFactory(GenerationConfigSource configSource, ConstraintReducer constraintReducer) {
+        this.configSource = configSource;
+        this.constraintReducer = constraintReducer;
+    }
+
     public FixFieldStrategy create(ConstraintNode rootNode){
-        return new FieldAppearanceFixingStrategy(rootNode);
+        switch (configSource.getFieldFixingStrategyType()) {
+            case MOST_CONSTRAINED:
+                return new MostConstrainedFieldFixingStrategy(constraintReducer);
+
+            case FIELD_APPEARANCE:
+            default:
+                return new FieldAppearanceFixingStrategy(rootNode);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.decisiontree.ValueSpaceEstimator;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveState;
+
+import java.util.Map;
+
+/**
+ * Picks the next field to fix from the tree as it has been pruned so far, rather than from the original tree. Fixes
+ * the field with the fewest values left open to it first, then the field constrained by the most options still in the
+ * tree, so that contradictions are found as early in the walk as they can be.
+ */
+public class MostConstrainedFieldFixingStrategy implements FixFieldStrategy {
+    private final ConstraintReducer constraintReducer;
+    private final ValueSpaceEstimator estimator;
+
+    public MostConstrainedFieldFixingStrategy(ConstraintReducer constraintReducer) {
+        this.constraintReducer = constraintReducer;
+        this.estimator = new ValueSpaceEstimator(constraintReducer);
+    }
+
+    @Override
+    public Field getNextFieldToFix(ReductiveState reductiveState, ConstraintNode rootNode) {
+        Map<Field, Integer> optionCounts = rootNode.getOptionCountsByField();
+
+        Field mostConstrainedField = null;
+        double fewestValues = Double.POSITIVE_INFINITY;
+        int mostOptions = -1;
+        for (Field field : reductiveState.getFields()) {
+            if (reductiveState.isFieldFixed(field)) {
+                continue;
+            }
+
+            double values = estimateRemainingValues(rootNode, field);
+            int options = optionCounts.getOrDefault(field, 0);
+            if (values < fewestValues || (values == fewestValues && options > mostOptions)) {
+                mostConstrainedField = field;
+                fewestValues = values;
+                mostOptions = options;
+            }
+        }
+        return mostConstrainedField;
+    }
+
+    private double estimateRemainingValues(ConstraintNode rootNode, Field field) {
+        if (!rootNode.getFieldsWithAtomicConstraints().contains(field)) {
+            return ValueSpaceEstimator.UNBOUNDED;
+        }
+
+        return constraintReducer.reduceConstraintsToFieldSpec(rootNode, field)
+            .map(estimator::estimateValueSpace)
+            .orElse(Double.NEGATIVE_INFINITY);
+    }
+}
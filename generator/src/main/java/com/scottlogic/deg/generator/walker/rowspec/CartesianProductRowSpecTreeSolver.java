@@ -76,7 +76,7 @@ public class CartesianProductRowSpecTreeSolver implements RowSpecTreeSolver {
         }
 
         public Stream<RowSpec> walk(ConstraintNode option, RowSpec accumulatedSpec) {
-            final Optional<RowSpec> nominalRowSpec = option.getOrCreateRowSpec(() -> constraintReducer.reduceConstraintsToRowSpec(
+            final Optional<RowSpec> nominalRowSpec = option.getOrCreateRowSpec(profileFields, () -> constraintReducer.reduceConstraintsToRowSpec(
                     profileFields,
                     option
                 ));
@@ -2,22 +2,42 @@ package com.scottlogic.deg.generator.walker.rowspec;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.decisiontree.ValueSpaceEstimator;
 import com.scottlogic.deg.generator.fieldspecs.RowSpec;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
 import com.scottlogic.deg.generator.generation.databags.RowSpecDataBagGenerator;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.utils.AliasTable;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
 import com.scottlogic.deg.generator.walker.DecisionTreeWalker;
 
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class RandomRowSpecDecisionTreeWalker implements DecisionTreeWalker {
+    private static final int MAX_ROW_SPECS_TO_SAMPLE = 1000;
+    private static final double MIN_RELATIVE_WEIGHT = 1e-3;
+
     private final RowSpecTreeSolver rowSpecTreeSolver;
     private final RowSpecDataBagGenerator rowSpecDataBagGenerator;
+    private final RowKeyedRandomNumberGenerator randomNumberGenerator;
+    private final ValueSpaceEstimator estimator;
+    private final Map<DecisionTree, Optional<RowSpecSampler>> samplers =
+        Collections.synchronizedMap(new WeakHashMap<>());
 
     @Inject
-    public RandomRowSpecDecisionTreeWalker(RowSpecTreeSolver rowSpecTreeSolver, RowSpecDataBagGenerator rowSpecDataBagGenerator) {
+    public RandomRowSpecDecisionTreeWalker(
+        RowSpecTreeSolver rowSpecTreeSolver,
+        RowSpecDataBagGenerator rowSpecDataBagGenerator,
+        RowKeyedRandomNumberGenerator randomNumberGenerator,
+        ConstraintReducer constraintReducer) {
         this.rowSpecTreeSolver = rowSpecTreeSolver;
         this.rowSpecDataBagGenerator = rowSpecDataBagGenerator;
+        this.randomNumberGenerator = randomNumberGenerator;
+        this.estimator = new ValueSpaceEstimator(constraintReducer);
     }
 
     @Override
@@ -26,13 +46,75 @@ public class RandomRowSpecDecisionTreeWalker implements DecisionTreeWalker {
             return generateWithoutRestarting(tree);
         }
 
+        Optional<RowSpecSampler> sampler = samplers.computeIfAbsent(tree, this::createSampler);
+        if (sampler.isPresent()) {
+            return generateFromSampledRowSpecs(sampler.get());
+        }
+
         return getRowSpecAndRestart(tree)
             .map(this::createDataBag);
     }
 
+    /**
+     * Without any decisions there is only one row spec, so it is only solved once rather than for each row, and its
+     * value sources are only created once. Each row only draws its values, from the random stream for that row.
+     */
     private Stream<DataBag> generateWithoutRestarting(DecisionTree tree) {
         RowSpec rowSpec = getFirstRowSpec(tree).get();
-        return rowSpecDataBagGenerator.createDataBags(rowSpec);
+        Optional<DataBag> firstDataBag = rowSpecDataBagGenerator.createDataBags(rowSpec).findFirst();
+        //noinspection OptionalIsPresent
+        if (!firstDataBag.isPresent()) {
+            return Stream.empty();
+        }
+
+        return Stream.concat(
+            Stream.of(firstDataBag.get()),
+            Stream.generate(rowSpecDataBagGenerator.createRandomDataBags(rowSpec)));
+    }
+
+    /**
+     * With few enough row specs to list, each row picks one in proportion to the number of rows it could produce,
+     * rather than solving the tree again, then draws its row from that row spec.
+     */
+    private Stream<DataBag> generateFromSampledRowSpecs(RowSpecSampler sampler) {
+        return Stream.generate(() -> sampler.createDataBag(sampler.aliasTable.sample(randomNumberGenerator)));
+    }
+
+    /**
+     * List the row specs once for the tree, in a stable order so that the picks for each row don't depend on the
+     * order the solver happened to produce them in.
+     *
+     * Each row spec is weighted by the number of values it permits, but the value space of an unbounded field is
+     * only nominal ({@link ValueSpaceEstimator#UNBOUNDED}), so a row spec which pins a field to a few values would
+     * otherwise hardly ever be picked next to one leaving that field unbounded. Every row spec that permits any value
+     * is given at least {@link #MIN_RELATIVE_WEIGHT} of the weight of the most prolific one.
+     */
+    private Optional<RowSpecSampler> createSampler(DecisionTree tree) {
+        List<RowSpec> rowSpecs = rowSpecTreeSolver.createRowSpecs(tree)
+            .limit(MAX_ROW_SPECS_TO_SAMPLE + 1)
+            .collect(Collectors.toList());
+        if (rowSpecs.isEmpty() || rowSpecs.size() > MAX_ROW_SPECS_TO_SAMPLE) {
+            return Optional.empty();
+        }
+        rowSpecs.sort(Comparator.comparing(RowSpec::toString));
+
+        double[] logVolumes = rowSpecs.stream()
+            .mapToDouble(rowSpec -> rowSpec.getFields().stream()
+                .mapToDouble(field -> estimator.estimateValueSpace(rowSpec.getSpecForField(field)))
+                .sum())
+            .toArray();
+        double largestLogVolume = Arrays.stream(logVolumes).max().getAsDouble();
+        double[] weights = Arrays.stream(logVolumes)
+            .map(logVolume -> Double.isInfinite(largestLogVolume) ? 1 : relativeWeight(logVolume - largestLogVolume))
+            .toArray();
+
+        return Optional.of(new RowSpecSampler(rowSpecs, new AliasTable(weights)));
+    }
+
+    private static double relativeWeight(double logRelativeVolume) {
+        return logRelativeVolume == Double.NEGATIVE_INFINITY
+            ? 0
+            : Math.max(Math.pow(10, logRelativeVolume), MIN_RELATIVE_WEIGHT);
     }
 
     private Stream<RowSpec> getRowSpecAndRestart(DecisionTree tree) {
@@ -41,8 +123,10 @@ public class RandomRowSpecDecisionTreeWalker implements DecisionTreeWalker {
             return Stream.empty();
         }
 
-        return Stream.generate(() -> getFirstRowSpec(tree))
-            .map(Optional::get);
+        return Stream.concat(
+            Stream.of(firstRowSpecOpt.get()),
+            Stream.generate(() -> getFirstRowSpec(tree))
+                .map(Optional::get));
     }
 
     private Optional<RowSpec> getFirstRowSpec(DecisionTree tree) {
@@ -52,4 +136,27 @@ public class RandomRowSpecDecisionTreeWalker implements DecisionTreeWalker {
     private DataBag createDataBag(RowSpec rowSpec) {
         return rowSpecDataBagGenerator.createDataBags(rowSpec).findFirst().get();
     }
+
+    /* the row specs of a tree and their weights, along with the data bag source for each row spec once it has been
+    * picked; a source may be created more than once by rows racing to use it first, which is harmless */
+    private class RowSpecSampler {
+        private final List<RowSpec> rowSpecs;
+        private final AliasTable aliasTable;
+        private final AtomicReferenceArray<Supplier<DataBag>> dataBagSources;
+
+        RowSpecSampler(List<RowSpec> rowSpecs, AliasTable aliasTable) {
+            this.rowSpecs = rowSpecs;
+            this.aliasTable = aliasTable;
+            this.dataBagSources = new AtomicReferenceArray<>(rowSpecs.size());
+        }
+
+        DataBag createDataBag(int rowSpecIndex) {
+            Supplier<DataBag> dataBags = dataBagSources.get(rowSpecIndex);
+            if (dataBags == null) {
+                dataBags = rowSpecDataBagGenerator.createRandomDataBags(rowSpecs.get(rowSpecIndex));
+                dataBagSources.set(rowSpecIndex, dataBags);
+            }
+            return dataBags.get();
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.scottlogic.deg.generator.walker.rowspec;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.util.FlatMappingSpliterator;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
 import com.scottlogic.deg.generator.generation.databags.RowSpecDataBagGenerator;
@@ -26,4 +27,11 @@ public class RowSpecDecisionTreeWalker implements DecisionTreeWalker {
             rowSpecTreeSolver.createRowSpecs(tree),
             rowSpecDataBagGenerator::createDataBags);
     }
+
+    @Override
+    public Stream<DataBag> walk(DecisionTree tree, Shard shard) {
+        return FlatMappingSpliterator.flatMap(
+            rowSpecTreeSolver.createRowSpecs(tree),
+            rowSpec -> rowSpecDataBagGenerator.createDataBags(rowSpec, shard));
+    }
 }
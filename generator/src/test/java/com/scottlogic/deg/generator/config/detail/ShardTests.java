@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.config.detail;
+
+import com.scottlogic.deg.common.ValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ShardTests {
+    @Test
+    void parse_withIndexAndCount_shouldCreateShard() {
+        assertThat(Shard.parse("3/16").toString(), equalTo("3/16"));
+    }
+
+    @Test
+    void parse_withIndexOutOfRange_shouldThrow() {
+        Assertions.assertThrows(ValidationException.class, () -> Shard.parse("16/16"));
+    }
+
+    @Test
+    void parse_withMalformedShard_shouldThrow() {
+        Assertions.assertThrows(ValidationException.class, () -> Shard.parse("3 of 16"));
+    }
+
+    @Test
+    void parse_withIndexTooLargeForAnInt_shouldThrow() {
+        Assertions.assertThrows(ValidationException.class, () -> Shard.parse("3/99999999999"));
+    }
+
+    @Test
+    void selectRows_forEveryShard_shouldPartitionTheRows() {
+        List<Integer> allRows = IntStream.range(0, 3)
+            .mapToObj(index -> new Shard(index, 3))
+            .flatMap(shard -> shard.selectRows(IntStream.range(0, 10).boxed()))
+            .sorted()
+            .collect(Collectors.toList());
+
+        assertThat(allRows, equalTo(IntStream.range(0, 10).boxed().collect(Collectors.toList())));
+    }
+
+    @Test
+    void rowsInShard_forEveryShard_shouldAddUpToTheTotal() {
+        long total = LongStream.range(0, 16)
+            .map(index -> new Shard((int) index, 16).rowsInShard(1000))
+            .sum();
+
+        assertThat(total, equalTo(1000L));
+    }
+}
@@ -41,7 +41,10 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -154,6 +157,26 @@ class CartesianProductRowSpecTreeSolverTests {
         Assert.assertThat(rowSpecs, notNullValue());
     }
 
+    @Test
+    void createRowSpecs_forPartitionsSharingTheirRootNode_createsRowSpecsForEachPartitionsFields() {
+        HashConsingNodeFactory nodeFactory = new HashConsingNodeFactory();
+        ProfileFields firstFields = new ProfileFields(Collections.singletonList(new Field("first")));
+        ProfileFields secondFields = new ProfileFields(Collections.singletonList(new Field("second")));
+        DecisionTree firstPartition = nodeFactory.share(
+            new DecisionTree(new ConstraintNodeBuilder().build(), firstFields));
+        DecisionTree secondPartition = nodeFactory.share(
+            new DecisionTree(new ConstraintNodeBuilder().build(), secondFields));
+
+        List<RowSpec> firstRowSpecs = dTreeWalker.createRowSpecs(firstPartition).collect(Collectors.toList());
+        List<RowSpec> secondRowSpecs = dTreeWalker.createRowSpecs(secondPartition).collect(Collectors.toList());
+
+        Assert.assertThat(secondPartition.getRootNode(), sameInstance(firstPartition.getRootNode()));
+        Assert.assertThat(firstRowSpecs, hasSize(1));
+        Assert.assertThat(firstRowSpecs.get(0).getFields(), equalTo(firstFields));
+        Assert.assertThat(secondRowSpecs, hasSize(1));
+        Assert.assertThat(secondRowSpecs.get(0).getFields(), equalTo(secondFields));
+    }
+
     private static RuleInformation rule(String description){
         return new RuleInformation(description);
     }
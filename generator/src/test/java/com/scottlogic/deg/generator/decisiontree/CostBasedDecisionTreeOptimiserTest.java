@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.decisiontree;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecFactory;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.restrictions.StringRestrictionsFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.scottlogic.deg.generator.builders.TestConstraintNodeBuilder.constraintNode;
+import static com.shazam.shazamcrest.MatcherAssert.assertThat;
+import static com.scottlogic.deg.generator.helpers.CachedFieldsHelper.cachedFields;
+import static com.shazam.shazamcrest.matcher.Matchers.sameBeanAs;
+
+class CostBasedDecisionTreeOptimiserTest {
+
+    CostBasedDecisionTreeOptimiser optimiser = new CostBasedDecisionTreeOptimiser(
+        new ConstraintReducer(
+            new FieldSpecFactory(new StringRestrictionsFactory()),
+            new FieldSpecMerger()));
+    Field A = new Field("A");
+    Field B = new Field("B");
+
+    @Test
+    public void optimise_ordersOptionsMostSelectiveFirst() {
+        ConstraintNode original = constraintNode()
+            .withDecision(
+                constraintNode()
+                    .where(A).isNotNull(),
+                constraintNode()
+                    .where(A).isInSet("a1", "a2", "a3"),
+                constraintNode()
+                    .where(A).isInSet("a1"))
+            .build();
+
+        ConstraintNode actual = optimise(original);
+
+        ConstraintNode expected = constraintNode()
+            .withDecision(
+                constraintNode()
+                    .where(A).isInSet("a1"),
+                constraintNode()
+                    .where(A).isInSet("a1", "a2", "a3"),
+                constraintNode()
+                    .where(A).isNotNull())
+            .build();
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
+    }
+
+    @Test
+    public void optimise_ordersDecisionsWithFewestOptionsFirst() {
+        ConstraintNode original = constraintNode()
+            .withDecision(
+                constraintNode()
+                    .where(A).isInSet("a1"),
+                constraintNode()
+                    .where(A).isInSet("a2"),
+                constraintNode()
+                    .where(A).isInSet("a3"))
+            .withDecision(
+                constraintNode()
+                    .where(B).isInSet("b1"),
+                constraintNode()
+                    .where(B).isInSet("b2"))
+            .build();
+
+        ConstraintNode actual = optimise(original);
+
+        ConstraintNode expected = constraintNode()
+            .withDecision(
+                constraintNode()
+                    .where(B).isInSet("b1"),
+                constraintNode()
+                    .where(B).isInSet("b2"))
+            .withDecision(
+                constraintNode()
+                    .where(A).isInSet("a1"),
+                constraintNode()
+                    .where(A).isInSet("a2"),
+                constraintNode()
+                    .where(A).isInSet("a3"))
+            .build();
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
+    }
+
+    @Test
+    public void optimise_ordersOptionsByTheValuesPermittedBeneathThem() {
+        ConstraintNode original = constraintNode()
+            .withDecision(
+                constraintNode()
+                    .where(A).isInSet("a1")
+                    .withDecision(
+                        constraintNode()
+                            .where(B).isNotNull(),
+                        constraintNode()
+                            .where(B).isNull()),
+                constraintNode()
+                    .where(A).isInSet("a2")
+                    .where(B).isInSet("b1"))
+            .build();
+
+        ConstraintNode actual = optimise(original);
+
+        ConstraintNode expected = constraintNode()
+            .withDecision(
+                constraintNode()
+                    .where(A).isInSet("a2")
+                    .where(B).isInSet("b1"),
+                constraintNode()
+                    .where(A).isInSet("a1")
+                    .withDecision(
+                        constraintNode()
+                            .where(B).isNull(),
+                        constraintNode()
+                            .where(B).isNotNull()))
+            .build();
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
+    }
+
+    private ConstraintNode optimise(ConstraintNode rootNode) {
+        return optimiser.optimiseTree(new DecisionTree(rootNode, new ProfileFields(Arrays.asList(A, B))))
+            .getRootNode();
+    }
+}
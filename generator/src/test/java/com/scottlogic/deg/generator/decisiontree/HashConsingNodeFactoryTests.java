@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.decisiontree;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsNullConstraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.ViolatedAtomicConstraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class HashConsingNodeFactoryTests {
+    private final HashConsingNodeFactory nodeFactory = new HashConsingNodeFactory();
+    private final Field fieldA = new Field("a");
+    private final Field fieldB = new Field("b");
+
+    @Test
+    void share_withIdenticalConstraints_returnsTheSameNode() {
+        ConstraintNode first = nodeFactory.share(
+            new ConstraintNodeBuilder().addAtomicConstraints(new IsNullConstraint(fieldA)).build());
+        ConstraintNode second = nodeFactory.share(
+            new ConstraintNodeBuilder().addAtomicConstraints(new IsNullConstraint(fieldA)).build());
+
+        assertThat(second, sameInstance(first));
+    }
+
+    @Test
+    void share_withIdenticalDecisions_sharesTheWholeSubtree() {
+        ConstraintNode first = nodeFactory.share(ifANullThenBNull());
+        ConstraintNode second = nodeFactory.share(ifANullThenBNull());
+
+        assertThat(second, sameInstance(first));
+        assertThat(second.getDecisions().iterator().next(), sameInstance(first.getDecisions().iterator().next()));
+    }
+
+    @Test
+    void share_withIdenticalSubtreesInOneTree_sharesThem() {
+        ConstraintNode node = nodeFactory.share(new ConstraintNodeBuilder()
+            .addDecision(new DecisionNode(ifANullThenBNull(), new ConstraintNodeBuilder().build()))
+            .addDecision(new DecisionNode(ifANullThenBNull(), new ConstraintNodeBuilder().build()))
+            .build());
+
+        assertThat(node.getDecisions(), hasSize(1));
+    }
+
+    @Test
+    void share_withANodeNotYetShared_returnsTheNodeItself() {
+        ConstraintNode node = new ConstraintNodeBuilder().addAtomicConstraints(new IsNullConstraint(fieldA)).build();
+
+        assertThat(nodeFactory.share(node), sameInstance(node));
+    }
+
+    @Test
+    void share_withASharedNodeRebuiltAboveItsSubtree_keepsTheSharedSubtree() {
+        ConstraintNode shared = nodeFactory.share(ifANullThenBNull());
+        DecisionNode sharedDecision = shared.getDecisions().iterator().next();
+
+        ConstraintNode rebuilt = nodeFactory.share(shared.builder()
+            .addAtomicConstraints(new IsNullConstraint(fieldB))
+            .build());
+
+        assertThat(nodeFactory.share(shared), sameInstance(shared));
+        assertThat(rebuilt, not(sameInstance(shared)));
+        assertThat(rebuilt.getDecisions().iterator().next(), sameInstance(sharedDecision));
+    }
+
+    @Test
+    void share_withDifferentConstraints_returnsDifferentNodes() {
+        ConstraintNode first = nodeFactory.share(
+            new ConstraintNodeBuilder().addAtomicConstraints(new IsNullConstraint(fieldA)).build());
+        ConstraintNode second = nodeFactory.share(
+            new ConstraintNodeBuilder().addAtomicConstraints(new IsNullConstraint(fieldB)).build());
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    void share_withViolatedConstraintEqualToAnotherNodesConstraint_doesNotShareTheNode() {
+        IsNullConstraint constraint = new IsNullConstraint(fieldA);
+        ConstraintNode plain = nodeFactory.share(new ConstraintNodeBuilder().addAtomicConstraints(constraint).build());
+        ConstraintNode violated = nodeFactory.share(new ConstraintNodeBuilder()
+            .addAtomicConstraints(new ViolatedAtomicConstraint(constraint))
+            .build());
+
+        assertThat(violated, not(sameInstance(plain)));
+        assertThat(violated.getAtomicConstraints().iterator().next(), instanceOf(ViolatedAtomicConstraint.class));
+    }
+
+    @Test
+    void share_withTheSameDecisionTwice_keepsItOnce() {
+        ConstraintNode option = new ConstraintNodeBuilder().addAtomicConstraints(new IsNullConstraint(fieldA)).build();
+
+        ConstraintNode node = nodeFactory.share(new ConstraintNodeBuilder()
+            .setDecisions(Arrays.asList(new DecisionNode(option), new DecisionNode(option)))
+            .build());
+
+        assertThat(node.getDecisions(), hasSize(1));
+    }
+
+    @Test
+    void share_withADifferentFactory_doesNotShareTheNode() {
+        ConstraintNode first = nodeFactory.share(ifANullThenBNull());
+        ConstraintNode second = new HashConsingNodeFactory().share(ifANullThenBNull());
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    private ConstraintNode ifANullThenBNull() {
+        return new ConstraintNodeBuilder()
+            .addDecision(new DecisionNode(
+                new ConstraintNodeBuilder()
+                    .addAtomicConstraints(new IsNullConstraint(fieldA), new IsNullConstraint(fieldB))
+                    .build(),
+                new ConstraintNodeBuilder()
+                    .addAtomicConstraints(new IsNullConstraint(fieldA).negate())
+                    .build()))
+            .build();
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Collections;
 
 import static com.scottlogic.deg.generator.builders.TestConstraintNodeBuilder.constraintNode;
 import static com.shazam.shazamcrest.MatcherAssert.assertThat;
+import static com.scottlogic.deg.generator.helpers.CachedFieldsHelper.cachedFields;
 import static com.shazam.shazamcrest.matcher.Matchers.sameBeanAs;
 
 class MostProlificConstraintOptimiserTest {
@@ -57,7 +58,7 @@ class MostProlificConstraintOptimiserTest {
         ConstraintNode actual = optimiser.optimiseTree(new DecisionTree(original, new ProfileFields(Collections.EMPTY_LIST)))
             .getRootNode();
 
-        assertThat(actual, sameBeanAs(original));
+        assertThat(actual, sameBeanAs(original).ignoring(cachedFields()));
     }
 
     @Test
@@ -90,7 +91,7 @@ class MostProlificConstraintOptimiserTest {
         ConstraintNode actual = optimiser.optimiseTree(new DecisionTree(original, new ProfileFields(Collections.EMPTY_LIST)))
             .getRootNode();
 
-        assertThat(actual, sameBeanAs(original));
+        assertThat(actual, sameBeanAs(original).ignoring(cachedFields()));
     }
 
     @Test
@@ -164,6 +165,6 @@ class MostProlificConstraintOptimiserTest {
                     .where(A).isNotInSet("a1")
             ).build();
 
-        assertThat(actual, sameBeanAs(expected));
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
     }
 }
\ No newline at end of file
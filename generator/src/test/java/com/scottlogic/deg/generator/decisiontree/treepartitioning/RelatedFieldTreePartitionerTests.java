@@ -309,8 +309,12 @@ class RelatedFieldTreePartitionerTests {
         this.decisionTree = decisionTree;
     }
 
+    TreePartitioner createPartitioner() {
+        return new RelatedFieldTreePartitioner();
+    }
+
     private void partitionTrees() {
-        partitionedTrees = new RelatedFieldTreePartitioner()
+        partitionedTrees = createPartitioner()
             .splitTreeIntoPartitions(decisionTree)
             .collect(Collectors.toList());
     }
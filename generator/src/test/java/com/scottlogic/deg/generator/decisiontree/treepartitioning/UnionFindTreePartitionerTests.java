@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.decisiontree.treepartitioning;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsNullConstraint;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNodeBuilder;
+import com.scottlogic.deg.generator.decisiontree.DecisionNode;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs the partitioning cases of {@link RelatedFieldTreePartitionerTests} against the union-find partitioner
+ */
+class UnionFindTreePartitionerTests extends RelatedFieldTreePartitionerTests {
+    @Override
+    TreePartitioner createPartitioner() {
+        return new UnionFindTreePartitioner();
+    }
+
+    @Test
+    void splitTreeIntoPartitions_withChainOfDecisionsAcrossWideProfile_returnsOnePartitionInFieldOrder() {
+        List<Field> fields = IntStream.range(0, 3000)
+            .mapToObj(index -> new Field("field" + index))
+            .collect(Collectors.toList());
+        List<DecisionNode> chain = IntStream.range(0, 2000)
+            .mapToObj(index -> new DecisionNode(
+                new ConstraintNodeBuilder().addAtomicConstraints(new IsNullConstraint(fields.get(index))).build(),
+                new ConstraintNodeBuilder().addAtomicConstraints(new IsNullConstraint(fields.get(index + 1))).build()))
+            .collect(Collectors.toList());
+        DecisionTree tree = new DecisionTree(
+            new ConstraintNodeBuilder().setDecisions(chain).build(),
+            new ProfileFields(fields));
+
+        List<DecisionTree> partitions = createPartitioner().splitTreeIntoPartitions(tree).collect(Collectors.toList());
+
+        assertThat(partitions.size(), equalTo(1000));
+        assertThat(partitions.get(0).getFields().asList(), equalTo(fields.subList(0, 2001)));
+        assertThat(partitions.get(0).getRootNode().getDecisions().size(), equalTo(2000));
+        assertThat(partitions.get(1).getFields().asList(), equalTo(fields.subList(2001, 2002)));
+    }
+}
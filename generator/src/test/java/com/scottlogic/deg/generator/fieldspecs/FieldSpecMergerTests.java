@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.fieldspecs;
+
+import com.scottlogic.deg.generator.fieldspecs.whitelist.FrequencyDistributedSet;
+import com.scottlogic.deg.generator.restrictions.TypeRestrictions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class FieldSpecMergerTests {
+    private final FieldSpecMerger merger = new FieldSpecMerger();
+
+    @Test
+    void merge_calledTwiceWithEqualFieldSpecs_returnsTheCachedResult() {
+        Optional<FieldSpec> first = merger.merge(notNull(), whitelistOfA());
+        Optional<FieldSpec> second = merger.merge(notNull(), whitelistOfA());
+
+        assertThat(second.get(), sameInstance(first.get()));
+        assertThat(merger.getMergeCacheMetrics().getHits(), equalTo(1L));
+        assertThat(merger.getMergeCacheMetrics().getMisses(), equalTo(1L));
+    }
+
+    @Test
+    void merge_withDifferentPairsGivingEqualResults_returnsTheInternedFieldSpec() {
+        FieldSpec whitelist = whitelistOfA();
+
+        FieldSpec first = merger.merge(notNull(), whitelist).get();
+        FieldSpec second = merger.merge(whitelist, notNull()).get();
+
+        assertThat(second, sameInstance(first));
+        assertThat(merger.getInternedFieldSpecMetrics().getHits(), equalTo(1L));
+    }
+
+    @Test
+    void merge_withContradictoryFieldSpecs_cachesTheContradiction() {
+        merger.merge(FieldSpec.NullOnly, notNull());
+
+        Optional<FieldSpec> merged = merger.merge(FieldSpec.NullOnly, notNull());
+
+        assertThat(merged, equalTo(Optional.empty()));
+        assertThat(merger.getMergeCacheMetrics().getHits(), equalTo(1L));
+    }
+
+    @Test
+    void merge_withNulls_mergesAsIfEmpty() {
+        Optional<FieldSpec> merged = merger.merge(null, notNull());
+
+        assertThat(merged, equalTo(Optional.of(notNull())));
+    }
+
+    private static FieldSpec notNull() {
+        return FieldSpec.Empty.withNotNull().withTypeRestrictions(TypeRestrictions.ALL_TYPES_PERMITTED);
+    }
+
+    private static FieldSpec whitelistOfA() {
+        return FieldSpec.Empty.withWhitelist(FrequencyDistributedSet.singleton("a"));
+    }
+}
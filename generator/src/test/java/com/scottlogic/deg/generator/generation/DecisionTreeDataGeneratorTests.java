@@ -18,23 +18,32 @@ package com.scottlogic.deg.generator.generation;
 
 import com.scottlogic.deg.common.output.GeneratedObject;
 import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeFactory;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeOptimiser;
+import com.scottlogic.deg.generator.decisiontree.HashConsingNodeFactory;
 import com.scottlogic.deg.generator.decisiontree.treepartitioning.TreePartitioner;
 import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
 import com.scottlogic.deg.generator.walker.DecisionTreeWalker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 
@@ -47,6 +56,7 @@ public class DecisionTreeDataGeneratorTests {
     private DecisionTreeOptimiser optimiser;
     private DecisionTreeWalker treeWalker;
     private UpfrontTreePruner upfrontTreePruner;
+    private HashConsingNodeFactory nodeFactory;
     @BeforeEach
     public void setup() {
         factory = Mockito.mock(DecisionTreeFactory.class);
@@ -56,6 +66,8 @@ public class DecisionTreeDataGeneratorTests {
         monitor = Mockito.mock(DataGeneratorMonitor.class);
         combinationStrategy = Mockito.mock(CombinationStrategy.class);
         upfrontTreePruner = Mockito.mock(UpfrontTreePruner.class);
+        nodeFactory = Mockito.mock(HashConsingNodeFactory.class);
+        Mockito.when(nodeFactory.share(any(DecisionTree.class))).thenAnswer(returnsFirstArg());
         long maxRows = 10;
         generator = new DecisionTreeDataGenerator(
             factory,
@@ -65,7 +77,12 @@ public class DecisionTreeDataGeneratorTests {
             monitor,
             combinationStrategy,
             upfrontTreePruner,
-            maxRows
+            maxRows,
+            false,
+            DataGenerationType.FULL_SEQUENTIAL,
+            Shard.WHOLE,
+            new RowKeyedRandomNumberGenerator(0),
+            nodeFactory
         );
     }
 
@@ -116,4 +133,142 @@ public class DecisionTreeDataGeneratorTests {
             assertNotEquals(0, actual.count());
         }
     }
+
+    @Nested
+    public class parallelPartitionWalking {
+        @Test
+        public void generateData_withParallelPartitions_combinesRowsFromEveryPartition() {
+            //Arrange
+            DecisionTree tree = Mockito.mock(DecisionTree.class);
+            DecisionTree firstPartition = Mockito.mock(DecisionTree.class);
+            DecisionTree secondPartition = Mockito.mock(DecisionTree.class);
+            Profile profile = Mockito.mock(Profile.class);
+            DataBag firstBag = Mockito.mock(DataBag.class);
+            DataBag secondBag = Mockito.mock(DataBag.class);
+
+            Mockito.when(tree.getRootNode()).thenReturn(Mockito.mock(ConstraintNode.class));
+            Mockito.when(factory.analyse(profile)).thenReturn(tree);
+            Mockito.when(upfrontTreePruner.runUpfrontPrune(eq(tree), any())).thenReturn(tree);
+            Mockito.when(treePartitioner.splitTreeIntoPartitions(tree)).thenReturn(Stream.of(firstPartition, secondPartition));
+            Mockito.when(optimiser.optimiseTree(firstPartition)).thenReturn(firstPartition);
+            Mockito.when(optimiser.optimiseTree(secondPartition)).thenReturn(secondPartition);
+            Mockito.when(treeWalker.walk(firstPartition)).thenReturn(Stream.of(firstBag));
+            Mockito.when(treeWalker.walk(secondPartition)).thenReturn(Stream.of(secondBag));
+            Mockito.when(combinationStrategy.permute(any())).thenAnswer(invocation ->
+                ((Stream<Stream<DataBag>>) invocation.getArguments()[0]).flatMap(partition -> partition));
+
+            DecisionTreeDataGenerator parallelGenerator = new DecisionTreeDataGenerator(
+                factory,
+                treeWalker,
+                treePartitioner,
+                optimiser,
+                monitor,
+                combinationStrategy,
+                upfrontTreePruner,
+                10,
+                true,
+                DataGenerationType.FULL_SEQUENTIAL,
+                Shard.WHOLE,
+                new RowKeyedRandomNumberGenerator(0),
+                nodeFactory
+            );
+
+            //Act
+            List<GeneratedObject> actual = parallelGenerator.generateData(profile).collect(Collectors.toList());
+
+            //Assert
+            assertEquals(Arrays.asList(firstBag, secondBag), actual);
+        }
+    }
+
+    @Nested
+    public class sharding {
+        private Profile profile;
+
+        @BeforeEach
+        public void setup() {
+            DecisionTree tree = Mockito.mock(DecisionTree.class);
+            profile = Mockito.mock(Profile.class);
+
+            Mockito.when(tree.getRootNode()).thenReturn(Mockito.mock(ConstraintNode.class));
+            Mockito.when(factory.analyse(profile)).thenReturn(tree);
+            Mockito.when(upfrontTreePruner.runUpfrontPrune(eq(tree), any())).thenReturn(tree);
+            Mockito.when(treePartitioner.splitTreeIntoPartitions(tree)).thenAnswer(invocation -> Stream.of(tree));
+            Mockito.when(optimiser.optimiseTree(tree)).thenReturn(tree);
+            Mockito.when(combinationStrategy.permute(any())).thenAnswer(invocation ->
+                Stream.generate(() -> Mockito.mock(DataBag.class)));
+        }
+
+        @Test
+        public void generateData_withAShardOfAFullSequentialRun_emitsUpToMaxRows() {
+            //Arrange
+            DecisionTreeDataGenerator shardedGenerator = shardedGenerator(DataGenerationType.FULL_SEQUENTIAL);
+
+            //Act
+            long actual = shardedGenerator.generateData(profile).count();
+
+            //Assert
+            assertEquals(10, actual);
+        }
+
+        @Test
+        public void generateData_withAShardOfARandomRun_emitsItsShareOfMaxRows() {
+            //Arrange
+            DecisionTreeDataGenerator shardedGenerator = shardedGenerator(DataGenerationType.RANDOM);
+
+            //Act
+            long actual = shardedGenerator.generateData(profile).count();
+
+            //Assert
+            assertEquals(3, actual);
+        }
+
+        @Test
+        public void generateData_resumingARandomShard_drawsTheSameNumbersAsTheRowsOfTheWholeRun() {
+            //Arrange
+            RowKeyedRandomNumberGenerator randomNumberGenerator = new RowKeyedRandomNumberGenerator(0);
+            List<Integer> drawn = new ArrayList<>();
+            Mockito.when(treeWalker.walk(any(DecisionTree.class))).thenAnswer(invocation -> Stream.generate(() -> {
+                drawn.add(randomNumberGenerator.nextInt());
+                return Mockito.mock(DataBag.class);
+            }));
+            Mockito.when(combinationStrategy.permute(any())).thenAnswer(invocation ->
+                ((Stream<Stream<DataBag>>) invocation.getArguments()[0]).flatMap(partition -> partition));
+            DecisionTreeDataGenerator shardedGenerator = shardedGenerator(DataGenerationType.RANDOM, randomNumberGenerator);
+            shardedGenerator.generateData(profile).count();
+            List<Integer> wholeRun = new ArrayList<>(drawn);
+            drawn.clear();
+
+            //Act
+            long actual = shardedGenerator.generateData(profile, 1).count();
+
+            //Assert
+            assertEquals(2, actual);
+            assertEquals(wholeRun.subList(1, 3), drawn);
+        }
+
+        private DecisionTreeDataGenerator shardedGenerator(DataGenerationType generationType) {
+            return shardedGenerator(generationType, new RowKeyedRandomNumberGenerator(0));
+        }
+
+        private DecisionTreeDataGenerator shardedGenerator(
+            DataGenerationType generationType,
+            RowKeyedRandomNumberGenerator randomNumberGenerator) {
+            return new DecisionTreeDataGenerator(
+                factory,
+                treeWalker,
+                treePartitioner,
+                optimiser,
+                monitor,
+                combinationStrategy,
+                upfrontTreePruner,
+                10,
+                false,
+                generationType,
+                new Shard(1, 3),
+                randomNumberGenerator,
+                nodeFactory
+            );
+        }
+    }
 }
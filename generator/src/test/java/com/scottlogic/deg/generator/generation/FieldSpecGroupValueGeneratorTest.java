@@ -3,6 +3,7 @@ package com.scottlogic.deg.generator.generation;
 import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpecGroup;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.fieldspecs.relations.FieldSpecRelations;
 import com.scottlogic.deg.generator.fieldspecs.whitelist.DistributedSet;
 import com.scottlogic.deg.generator.fieldspecs.whitelist.FrequencyDistributedSet;
@@ -34,7 +35,7 @@ class FieldSpecGroupValueGeneratorTest {
         DataBagValue firstValue = new DataBagValue(result);
         when(underlyingGenerator.generate(firstSpec)).thenReturn(Stream.of(firstValue));
 
-        FieldSpecGroupValueGenerator generator = new FieldSpecGroupValueGenerator(underlyingGenerator);
+        FieldSpecGroupValueGenerator generator = new FieldSpecGroupValueGenerator(underlyingGenerator, new FieldSpecMerger());
 
         FieldSpecGroup group = new FieldSpecGroup(specMap, Collections.emptyList());
 
@@ -78,7 +79,7 @@ class FieldSpecGroupValueGeneratorTest {
 
         FieldSpecGroup group = new FieldSpecGroup(specMap, Collections.singleton(relation));
 
-        FieldSpecGroupValueGenerator generator = new FieldSpecGroupValueGenerator(underlyingGenerator);
+        FieldSpecGroupValueGenerator generator = new FieldSpecGroupValueGenerator(underlyingGenerator, new FieldSpecMerger());
         Stream<DataBag> stream = generator.generate(group);
 
         Map<Field, DataBagValue> dataBag = new HashMap<>();
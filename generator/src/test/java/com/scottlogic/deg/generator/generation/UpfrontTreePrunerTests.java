@@ -20,14 +20,13 @@ import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.generator.builders.TestConstraintNodeBuilder;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
-import com.scottlogic.deg.generator.decisiontree.ConstraintNodeBuilder;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
-import com.scottlogic.deg.generator.decisiontree.NodeMarking;
+import com.scottlogic.deg.generator.decisiontree.HashConsingNodeFactory;
 import com.scottlogic.deg.generator.fieldspecs.*;
 import com.scottlogic.deg.generator.reducer.ConstraintReducer;
 import com.scottlogic.deg.generator.restrictions.StringRestrictionsFactory;
-import com.scottlogic.deg.generator.validators.ContradictionDecisionTreeValidator;
 import com.scottlogic.deg.generator.walker.reductive.Merged;
+import com.scottlogic.deg.generator.walker.reductive.PrunedTree;
 import com.scottlogic.deg.generator.walker.reductive.ReductiveTreePruner;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
@@ -49,8 +48,7 @@ class UpfrontTreePrunerTests {
     class unit_tests {
         private DataGeneratorMonitor monitor = Mockito.mock(DataGeneratorMonitor.class);
         private ReductiveTreePruner reductiveTreePruner = Mockito.mock(ReductiveTreePruner.class);
-        private ContradictionDecisionTreeValidator contradictionValidator = Mockito.mock(ContradictionDecisionTreeValidator.class);
-        private UpfrontTreePruner upfrontTreePruner = new UpfrontTreePruner(reductiveTreePruner, contradictionValidator);
+        private UpfrontTreePruner upfrontTreePruner = new UpfrontTreePruner(reductiveTreePruner);
         private Field fieldA = new Field("A");
         private Field fieldB = new Field("B");
 
@@ -64,12 +62,8 @@ class UpfrontTreePrunerTests {
 
             ConstraintNode unPrunedRoot = Mockito.mock(ConstraintNode.class);
             DecisionTree tree = new DecisionTree(unPrunedRoot, new ProfileFields(fields));
-            DecisionTree treeMarkedWithContradictions = new DecisionTree(
-                new ConstraintNodeBuilder().build().builder().markNode(NodeMarking.CONTRADICTORY).build(),
-                new ProfileFields(fields));
 
-            Mockito.when(reductiveTreePruner.pruneConstraintNode(unPrunedRoot, fieldSpecs)).thenReturn(Merged.of(prunedRoot));
-            Mockito.when(contradictionValidator.markContradictions(tree)).thenReturn(treeMarkedWithContradictions);
+            Mockito.when(reductiveTreePruner.pruneTree(unPrunedRoot, fieldSpecs)).thenReturn(new PrunedTree(Merged.of(prunedRoot), false));
 
             //Act
             DecisionTree actual = upfrontTreePruner.runUpfrontPrune(tree, monitor);
@@ -90,12 +84,8 @@ class UpfrontTreePrunerTests {
             ConstraintNode unPrunedRoot = Mockito.mock(ConstraintNode.class);
             DecisionTree tree = new DecisionTree(unPrunedRoot, new ProfileFields(fields));
 
-            DecisionTree treeMarkedWithContradictions = new DecisionTree(
-                new ConstraintNodeBuilder().build().builder().markNode(NodeMarking.CONTRADICTORY).build(),
-                new ProfileFields(fields));
 
-            Mockito.when(reductiveTreePruner.pruneConstraintNode(unPrunedRoot, fieldSpecs)).thenReturn(Merged.of(prunedRoot));
-            Mockito.when(contradictionValidator.markContradictions(tree)).thenReturn(treeMarkedWithContradictions);
+            Mockito.when(reductiveTreePruner.pruneTree(unPrunedRoot, fieldSpecs)).thenReturn(new PrunedTree(Merged.of(prunedRoot), false));
 
             //Act
             DecisionTree actual = upfrontTreePruner.runUpfrontPrune(tree, monitor);
@@ -115,7 +105,7 @@ class UpfrontTreePrunerTests {
             DecisionTree tree = new DecisionTree(unPrunedRoot, new ProfileFields(fields));
 
             //Act
-            Mockito.when(reductiveTreePruner.pruneConstraintNode(unPrunedRoot, fieldSpecs)).thenReturn(Merged.contradictory());
+            Mockito.when(reductiveTreePruner.pruneTree(unPrunedRoot, fieldSpecs)).thenReturn(new PrunedTree(Merged.contradictory(), false));
 
             DecisionTree actual = upfrontTreePruner.runUpfrontPrune(tree, monitor);
 
@@ -132,13 +122,9 @@ class UpfrontTreePrunerTests {
 
             ConstraintNode unPrunedRoot = Mockito.mock(ConstraintNode.class);
             DecisionTree tree = new DecisionTree(unPrunedRoot, new ProfileFields(fields));
-            DecisionTree completelyUnmarkedTree = new DecisionTree(
-                new ConstraintNodeBuilder().build(),
-                new ProfileFields(fields));
 
             //Act
-            Mockito.when(reductiveTreePruner.pruneConstraintNode(unPrunedRoot, fieldSpecs)).thenReturn(Merged.of(unPrunedRoot));
-            Mockito.when(contradictionValidator.markContradictions(tree)).thenReturn(completelyUnmarkedTree);
+            Mockito.when(reductiveTreePruner.pruneTree(unPrunedRoot, fieldSpecs)).thenReturn(new PrunedTree(Merged.of(unPrunedRoot), false));
 
             upfrontTreePruner.runUpfrontPrune(tree, monitor);
 
@@ -155,16 +141,10 @@ class UpfrontTreePrunerTests {
 
             ConstraintNode unPrunedRoot = Mockito.mock(ConstraintNode.class);
             DecisionTree tree = new DecisionTree(unPrunedRoot, new ProfileFields(fields));
-            ConstraintNode root = constraintNode()
-                .withDecision(
-                    constraintNode().markNode(NodeMarking.CONTRADICTORY)).build();
-            DecisionTree treeMarkedWithContradictions = new DecisionTree(
-                root,
-                new ProfileFields(fields));
+            ConstraintNode prunedRoot = Mockito.mock(ConstraintNode.class);
 
             //Act
-            Mockito.when(reductiveTreePruner.pruneConstraintNode(unPrunedRoot, fieldSpecs)).thenReturn(Merged.of(root));
-            Mockito.when(contradictionValidator.markContradictions(tree)).thenReturn(treeMarkedWithContradictions);
+            Mockito.when(reductiveTreePruner.pruneTree(unPrunedRoot, fieldSpecs)).thenReturn(new PrunedTree(Merged.of(prunedRoot), true));
 
             upfrontTreePruner.runUpfrontPrune(tree, monitor);
 
@@ -183,13 +163,9 @@ class UpfrontTreePrunerTests {
 
             ConstraintNode unPrunedRoot = Mockito.mock(ConstraintNode.class);
             DecisionTree tree = new DecisionTree(unPrunedRoot, new ProfileFields(fields));
-            DecisionTree treeMarkedWithContradictions = new DecisionTree(
-                new ConstraintNodeBuilder().build().builder().markNode(NodeMarking.CONTRADICTORY).build(),
-                new ProfileFields(fields));
 
             //Act
-            Mockito.when(reductiveTreePruner.pruneConstraintNode(unPrunedRoot, fieldSpecs)).thenReturn(Merged.contradictory());
-            Mockito.when(contradictionValidator.markContradictions(tree)).thenReturn(treeMarkedWithContradictions);
+            Mockito.when(reductiveTreePruner.pruneTree(unPrunedRoot, fieldSpecs)).thenReturn(new PrunedTree(Merged.contradictory(), false));
 
             upfrontTreePruner.runUpfrontPrune(tree, monitor);
 
@@ -210,12 +186,9 @@ class UpfrontTreePrunerTests {
         private ReductiveTreePruner treePruner = new ReductiveTreePruner(
             new FieldSpecMerger(),
             constraintReducer,
-            new FieldSpecHelper());
-        private ContradictionDecisionTreeValidator validator = new ContradictionDecisionTreeValidator(
-            new RowSpecMerger(
-                new FieldSpecMerger()),
-            constraintReducer);
-        private UpfrontTreePruner upfrontPruner = new UpfrontTreePruner(treePruner, validator);
+            new FieldSpecHelper(),
+            new HashConsingNodeFactory());
+        private UpfrontTreePruner upfrontPruner = new UpfrontTreePruner(treePruner);
 
         @Test
         public void runUpfrontPrune_forNonContradictoryTreeWithOneNode_reportsNoContradictions() {
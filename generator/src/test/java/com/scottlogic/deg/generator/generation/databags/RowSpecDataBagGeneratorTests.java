@@ -19,7 +19,9 @@ package com.scottlogic.deg.generator.generation.databags;
 import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.generator.builders.DataBagBuilder;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.fieldspecs.RowSpec;
 import com.scottlogic.deg.generator.generation.FieldSpecValueGenerator;
 import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
@@ -27,6 +29,7 @@ import com.scottlogic.deg.generator.generation.combinationstrategies.ExhaustiveC
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -55,7 +58,7 @@ class RowSpecDataBagGeneratorTests {
     @Test
     void shouldCreateValuesForEachFieldSpecInRowSpec() {
         RowSpecDataBagGenerator factory =
-            new RowSpecDataBagGenerator(mockGeneratorFactory, exhaustiveCombinationStrategy);
+            new RowSpecDataBagGenerator(mockGeneratorFactory, exhaustiveCombinationStrategy, new FieldSpecMerger());
         Map<Field, FieldSpec> map = new HashMap<Field, FieldSpec>() {{ put(field, fieldSpec); }};
         RowSpec rowSpec = new RowSpec(fields, map, Collections.emptyList());
 
@@ -74,7 +77,7 @@ class RowSpecDataBagGeneratorTests {
     @Test
     void factoryIsCalledForEachField() {
         RowSpecDataBagGenerator factory =
-            new RowSpecDataBagGenerator(mockGeneratorFactory, exhaustiveCombinationStrategy);
+            new RowSpecDataBagGenerator(mockGeneratorFactory, exhaustiveCombinationStrategy, new FieldSpecMerger());
         Map<Field, FieldSpec> map = new HashMap<Field, FieldSpec>() {{
             put(field, fieldSpec);
             put(field2, fieldSpec2);
@@ -95,10 +98,68 @@ class RowSpecDataBagGeneratorTests {
         verify(mockGeneratorFactory, times(1)).generate(fieldSpec);
     }
 
+    @Test
+    void createDataBags_withShard_onlyCreatesTheShardsValuesOfTheFirstField() {
+        RowSpecDataBagGenerator factory =
+            new RowSpecDataBagGenerator(mockGeneratorFactory, exhaustiveCombinationStrategy, new FieldSpecMerger());
+        Map<Field, FieldSpec> map = new HashMap<Field, FieldSpec>() {{
+            put(field, fieldSpec);
+            put(field2, fieldSpec2); }};
+        RowSpec rowSpec = new RowSpec(
+            new ProfileFields(Arrays.asList(field, field2)),
+            map,
+            Collections.emptyList());
+        DataBagValue first = new DataBagValue("first");
+        DataBagValue second = new DataBagValue("second");
+        DataBagValue third = new DataBagValue("third");
+
+        when(mockGeneratorFactory.generate(fieldSpec)).thenReturn(Stream.of(first, second, third));
+        when(mockGeneratorFactory.generate(fieldSpec2)).thenAnswer(invocation -> Stream.of(dataBagValue1, dataBagValue2));
+
+        List<DataBag> actual = factory.createDataBags(rowSpec, new Shard(1, 2))
+            .collect(Collectors.toList());
+
+        List<DataBag> expected = Arrays.asList(
+            new DataBagBuilder().set(field, second).set(field2, dataBagValue1).build(),
+            new DataBagBuilder().set(field, second).set(field2, dataBagValue2).build());
+
+        assertThat(actual, sameBeanAs(expected));
+    }
+
+    @Test
+    void createRandomDataBags_createsEachFieldsValueSourcesOnceAndDrawsValuesForEachDataBag() {
+        RowSpecDataBagGenerator factory =
+            new RowSpecDataBagGenerator(mockGeneratorFactory, mockCombinationStrategy, new FieldSpecMerger());
+        Map<Field, FieldSpec> map = new HashMap<Field, FieldSpec>() {{
+            put(field, fieldSpec);
+            put(field2, fieldSpec2); }};
+        RowSpec rowSpec = new RowSpec(
+            new ProfileFields(Arrays.asList(field, field2)),
+            map,
+            Collections.emptyList());
+        Iterator<DataBagValue> values = Arrays.asList(dataBagValue, dataBagValue1).iterator();
+        Iterator<DataBagValue> values2 = Arrays.asList(dataBagValue2, dataBagValue).iterator();
+
+        when(mockGeneratorFactory.randomValues(fieldSpec)).thenReturn(values::next);
+        when(mockGeneratorFactory.randomValues(fieldSpec2)).thenReturn(values2::next);
+
+        Supplier<DataBag> dataBags = factory.createRandomDataBags(rowSpec);
+        List<DataBag> actual = Arrays.asList(dataBags.get(), dataBags.get());
+
+        verify(mockGeneratorFactory, times(1)).randomValues(fieldSpec);
+        verify(mockGeneratorFactory, times(1)).randomValues(fieldSpec2);
+
+        List<DataBag> expected = Arrays.asList(
+            new DataBagBuilder().set(field, dataBagValue).set(field2, dataBagValue2).build(),
+            new DataBagBuilder().set(field, dataBagValue1).set(field2, dataBagValue).build());
+
+        assertThat(actual, sameBeanAs(expected));
+    }
+
     @Test
     void combinationStrategyIsCalled() {
         RowSpecDataBagGenerator factory =
-            new RowSpecDataBagGenerator(mockGeneratorFactory, mockCombinationStrategy);
+            new RowSpecDataBagGenerator(mockGeneratorFactory, mockCombinationStrategy, new FieldSpecMerger());
         Map<Field, FieldSpec> map = new HashMap<Field, FieldSpec>() {{ put(field, fieldSpec); }};
         RowSpec rowSpec = new RowSpec(fields, map, Collections.emptyList());
 
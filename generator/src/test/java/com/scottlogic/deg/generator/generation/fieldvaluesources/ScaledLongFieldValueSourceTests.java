@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation.fieldvaluesources;
+
+import com.scottlogic.deg.generator.restrictions.NumericLimit;
+import com.scottlogic.deg.generator.restrictions.NumericRestrictions;
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ScaledLongFieldValueSourceTests {
+    @ParameterizedTest
+    @CsvSource({
+        "-1,      1,        1, ",
+        "0.65,    1.1,      1, 0.8;1.1",
+        "-4,      5,        0, -4;0;4",
+        "10,      40,      -1, 20",
+        "-0.0001, 0.0003,   4, 0",
+        "3,       3,        0, ",
+        "-50.25,  -10.5,    2, -50.25;-10.51;-20"
+    })
+    void shouldProduceTheSameValuesAsRealNumberSource(BigDecimal lower, BigDecimal upper, int scale, String blacklist) {
+        RealNumberFieldValueSource realNumberSource = realNumberSource(lower, upper, scale, blacklist);
+        FieldValueSource scaledLongSource = ScaledLongFieldValueSource.from(realNumberSource).get();
+
+        assertThat(values(scaledLongSource.generateAllValues(), 1000), equalTo(values(realNumberSource.generateAllValues(), 1000)));
+        assertThat(
+            values(scaledLongSource.generateInterestingValues(), 1000),
+            equalTo(values(realNumberSource.generateInterestingValues(), 1000)));
+        assertThat(
+            values(scaledLongSource.generateRandomValues(new JavaUtilRandomNumberGenerator(13)), 1000),
+            equalTo(values(realNumberSource.generateRandomValues(new JavaUtilRandomNumberGenerator(13)), 1000)));
+    }
+
+    @Test
+    void shouldProduceTheSameRandomValuesAsRealNumberSourceForWideRanges() {
+        RealNumberFieldValueSource realNumberSource = realNumberSource(
+            new BigDecimal("-1000000000000000"), new BigDecimal("1000000000000000"), 3, "0.001");
+        FieldValueSource scaledLongSource = ScaledLongFieldValueSource.from(realNumberSource).get();
+
+        assertThat(
+            values(scaledLongSource.generateRandomValues(new JavaUtilRandomNumberGenerator(7)), 10000),
+            equalTo(values(realNumberSource.generateRandomValues(new JavaUtilRandomNumberGenerator(7)), 10000)));
+    }
+
+    @Test
+    void shouldRoundRandomValuesExactlyHalfWayAwayFromZero() {
+        RealNumberFieldValueSource negativeSource = realNumberSource(new BigDecimal(-3), BigDecimal.ZERO, 0, null);
+        RealNumberFieldValueSource positiveSource = realNumberSource(BigDecimal.ZERO, new BigDecimal(3), 0, null);
+
+        assertThat(
+            values(ScaledLongFieldValueSource.from(negativeSource).get().generateRandomValues(halves()), 3),
+            equalTo(values(negativeSource.generateRandomValues(halves()), 3)));
+        assertThat(
+            values(ScaledLongFieldValueSource.from(positiveSource).get().generateRandomValues(halves()), 3),
+            equalTo(values(positiveSource.generateRandomValues(halves()), 3)));
+    }
+
+    @Test
+    void shouldNotApplyToRangesThatDoNotFitInALong() {
+        RealNumberFieldValueSource unboundedSource = realNumberSource(null, null, 0, null);
+        RealNumberFieldValueSource overScaledSource = realNumberSource(BigDecimal.ZERO, BigDecimal.ONE, 19, null);
+
+        assertThat(ScaledLongFieldValueSource.from(unboundedSource).isPresent(), is(false));
+        assertThat(ScaledLongFieldValueSource.from(overScaledSource).isPresent(), is(false));
+    }
+
+    @Test
+    void shouldBeEqualWhenProducedFromEqualSources() {
+        ScaledLongFieldValueSource a = ScaledLongFieldValueSource.from(
+            realNumberSource(BigDecimal.ZERO, BigDecimal.TEN, 1, "5")).get();
+        ScaledLongFieldValueSource b = ScaledLongFieldValueSource.from(
+            realNumberSource(BigDecimal.ZERO, BigDecimal.TEN, 1, "5")).get();
+
+        assertThat(a, equalTo(b));
+        assertThat(a.hashCode(), equalTo(b.hashCode()));
+    }
+
+    private static RealNumberFieldValueSource realNumberSource(BigDecimal lower, BigDecimal upper, int scale, String blacklist) {
+        NumericRestrictions restrictions = new NumericRestrictions(scale);
+        restrictions.min = lower == null ? null : new NumericLimit<>(lower, true);
+        restrictions.max = upper == null ? null : new NumericLimit<>(upper, true);
+
+        Set<Object> blacklistValues = blacklist == null
+            ? Collections.emptySet()
+            : Arrays.stream(blacklist.split(";")).map(BigDecimal::new).collect(Collectors.toSet());
+
+        return new RealNumberFieldValueSource(restrictions, blacklistValues);
+    }
+
+    private static List<Object> values(Iterable<Object> iterable, int limit) {
+        return StreamSupport.stream(iterable.spliterator(), false)
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    private static RandomNumberGenerator halves() {
+        return new RandomNumberGenerator() {
+            @Override
+            public int nextInt() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int nextInt(int bound) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int nextInt(int lowerInclusive, int upperExclusive) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public double nextDouble(double lowerInclusive, double upperExclusive) {
+                return 0.5 * (upperExclusive - lowerInclusive) + lowerInclusive;
+            }
+
+            @Override
+            public BigDecimal nextBigDecimal(BigDecimal lowerInclusive, BigDecimal upperExclusive, int scale) {
+                return new BigDecimal(0.5)
+                    .multiply(upperExclusive.subtract(lowerInclusive))
+                    .add(lowerInclusive)
+                    .setScale(scale, RoundingMode.HALF_UP);
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.scottlogic.deg.generator.helpers;
+
+import org.hamcrest.Matcher;
+
+import static org.hamcrest.Matchers.isOneOf;
+
+public class CachedFieldsHelper {
+
+    private CachedFieldsHelper() {
+    }
+
+    /**
+     * @return a matcher for the names of fields that cache results worked out on demand, such as hash codes and the
+     * FieldSpecs reduced from a tree node, for comparisons of beans to ignore. Whether they are filled in depends on
+     * what has been asked of the object, not on its value.
+     */
+    public static Matcher<String> cachedFields() {
+        return isOneOf("hashCode", "adaptedRowSpec", "reducedFieldSpecs", "optionCountsByField");
+    }
+}
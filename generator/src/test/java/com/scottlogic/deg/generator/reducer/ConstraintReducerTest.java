@@ -34,6 +34,7 @@ import org.hamcrest.core.IsEqual;
 import org.hamcrest.core.IsNull;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -1019,4 +1020,19 @@ class ConstraintReducerTest {
         Assert.assertThat(result.get().getWhitelist().set(), empty());
         Assert.assertTrue(result.get().isNullable());
     }
+
+    @Test
+    void reduceConstraintsToFieldSpec_calledTwiceForTheSameNodeAndField_reducesTheConstraintsOnce() {
+        final Field field = new Field("test0");
+        final FieldSpecFactory fieldSpecFactory = Mockito.spy(new FieldSpecFactory(new StringRestrictionsFactory()));
+        final ConstraintReducer reducer = new ConstraintReducer(fieldSpecFactory, new FieldSpecMerger());
+        final ConstraintNode node = nodeFromConstraints(
+            Collections.singletonList(new IsGreaterThanConstantConstraint(field, 0)));
+
+        Optional<FieldSpec> first = reducer.reduceConstraintsToFieldSpec(node, field);
+        Optional<FieldSpec> second = reducer.reduceConstraintsToFieldSpec(node, field);
+
+        Assert.assertSame(first, second);
+        Mockito.verify(fieldSpecFactory, Mockito.times(1)).construct(Mockito.any(AtomicConstraint.class));
+    }
 }
@@ -48,6 +48,19 @@ class DateTimeRestrictionsTests {
         Assert.assertThat(a.hashCode(), equalTo(b.hashCode()));
     }
 
+    @Test
+    public void shouldBeUnequalIfMinAndMaxMatchButGranularityDoesNot(){
+        DateTimeRestrictions a = new DateTimeRestrictions(Timescale.MILLIS);
+        a.min = new DateTimeRestrictions.DateTimeLimit(MIN, true);
+        a.max = new DateTimeRestrictions.DateTimeLimit(MAX, true);
+        DateTimeRestrictions b = new DateTimeRestrictions(Timescale.DAYS);
+        b.min = new DateTimeRestrictions.DateTimeLimit(MIN, true);
+        b.max = new DateTimeRestrictions.DateTimeLimit(MAX, true);
+
+        Assert.assertThat(a, not(equalTo(b)));
+        Assert.assertThat(a.hashCode(), not(equalTo(b.hashCode())));
+    }
+
     @Test
     public void shouldBeUnequalIfOnlyMinMatches(){
         DateTimeRestrictions a = restrictions(new MockDateTimeLimit(true), new MockDateTimeLimit(false));
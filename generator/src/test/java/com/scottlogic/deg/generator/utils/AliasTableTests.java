@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AliasTableTests {
+    private static final int SAMPLES = 100000;
+
+    @Test
+    void sample_withUnequalWeights_picksEachIndexInProportionToItsWeight() {
+        AliasTable table = new AliasTable(new double[] { 1, 3, 0, 4 });
+        RandomNumberGenerator random = new JavaUtilRandomNumberGenerator(0);
+
+        int[] picks = new int[table.size()];
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            picks[table.sample(random)]++;
+        }
+
+        assertThat(picks[0] / (double) SAMPLES, closeTo(0.125, 0.01));
+        assertThat(picks[1] / (double) SAMPLES, closeTo(0.375, 0.01));
+        assertThat(picks[2], equalTo(0));
+        assertThat(picks[3] / (double) SAMPLES, closeTo(0.5, 0.01));
+    }
+
+    @Test
+    void sample_withOneWeight_alwaysPicksIt() {
+        AliasTable table = new AliasTable(new double[] { 0.5 });
+        RandomNumberGenerator random = new JavaUtilRandomNumberGenerator(0);
+
+        for (int sample = 0; sample < 100; sample++) {
+            assertThat(table.sample(random), equalTo(0));
+        }
+    }
+
+    @Test
+    void construct_withNegativeWeight_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] { 1, -1 }));
+    }
+
+    @Test
+    void construct_withNoPositiveWeight_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] { 0, 0 }));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+    }
+}
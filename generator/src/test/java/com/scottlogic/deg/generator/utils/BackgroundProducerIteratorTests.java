@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class BackgroundProducerIteratorTests {
+    @Test
+    void next_withMoreItemsThanQueueCapacity_shouldReturnAllItemsInOrder() {
+        BackgroundProducerIterator<Integer> iterator = new BackgroundProducerIterator<>(
+            () -> IntStream.range(0, 100).boxed(),
+            5,
+            "test-producer");
+
+        List<Integer> items = new ArrayList<>();
+        iterator.forEachRemaining(items::add);
+
+        assertThat(items.size(), equalTo(100));
+        assertThat(items.get(0), equalTo(0));
+        assertThat(items.get(99), equalTo(99));
+    }
+
+    @Test
+    void hasNext_whenProducerThrows_shouldRethrowAfterPrecedingItems() {
+        BackgroundProducerIterator<String> iterator = new BackgroundProducerIterator<>(
+            () -> Stream.of("a", "b").peek(item -> {
+                if (item.equals("b")) {
+                    throw new IllegalStateException("producer failed");
+                }
+            }),
+            5,
+            "test-producer");
+
+        List<String> items = new ArrayList<>();
+        items.add(iterator.next());
+
+        Assertions.assertThrows(IllegalStateException.class, iterator::hasNext);
+        assertThat(items, contains("a"));
+    }
+
+    @Test
+    void hasNext_afterClose_shouldReturnFalse() {
+        BackgroundProducerIterator<Integer> iterator = new BackgroundProducerIterator<>(
+            () -> Stream.iterate(0, i -> i + 1),
+            5,
+            "test-producer");
+
+        iterator.next();
+        iterator.close();
+
+        Assertions.assertFalse(iterator.hasNext());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class CounterBasedRandomNumberGeneratorTests {
+    @Test
+    void nextInt_forTheSameSeedAndRow_shouldGiveTheSameNumbers() {
+        CounterBasedRandomNumberGenerator first = new CounterBasedRandomNumberGenerator(42, 1_000_000);
+        CounterBasedRandomNumberGenerator second = new CounterBasedRandomNumberGenerator(42, 0).forRow(1_000_000);
+
+        for (int draw = 0; draw < 10; draw++) {
+            assertThat(first.nextInt(), equalTo(second.nextInt()));
+        }
+    }
+
+    @Test
+    void nextInt_forDifferentRows_shouldGiveDifferentNumbers() {
+        Set<Integer> firstDraws = new HashSet<>();
+        for (long row = 0; row < 1000; row++) {
+            firstDraws.add(new CounterBasedRandomNumberGenerator(42, row).nextInt());
+        }
+
+        assertThat(firstDraws.size(), greaterThan(990));
+    }
+
+    @Test
+    void nextInt_withBound_shouldStayWithinBound() {
+        CounterBasedRandomNumberGenerator generator = new CounterBasedRandomNumberGenerator(7, 3);
+
+        for (int draw = 0; draw < 1000; draw++) {
+            assertThat(generator.nextInt(10), both(greaterThanOrEqualTo(0)).and(lessThan(10)));
+        }
+    }
+
+    @Test
+    void nextDouble_shouldStayWithinRange() {
+        CounterBasedRandomNumberGenerator generator = new CounterBasedRandomNumberGenerator(7, 3);
+
+        for (int draw = 0; draw < 1000; draw++) {
+            assertThat(generator.nextDouble(-5, 5), both(greaterThanOrEqualTo(-5.0)).and(lessThan(5.0)));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class MemoCacheTests {
+    @Test
+    void computeIfAbsent_calledTwiceWithTheSameKey_computesTheValueOnce() {
+        MemoCache<String, Integer> cache = new MemoCache<>(10);
+        AtomicInteger computations = new AtomicInteger();
+
+        cache.computeIfAbsent("a", key -> computations.incrementAndGet());
+        Integer value = cache.computeIfAbsent("a", key -> computations.incrementAndGet());
+
+        assertThat(value, equalTo(1));
+        assertThat(computations.get(), equalTo(1));
+        assertThat(cache.getHits(), equalTo(1L));
+        assertThat(cache.getMisses(), equalTo(1L));
+    }
+
+    @Test
+    void computeIfAbsent_withMoreKeysThanTheCapacity_holdsNoMoreThanTheCapacity() {
+        MemoCache<Integer, Integer> cache = new MemoCache<>(10);
+
+        for (int key = 0; key < 100; key++) {
+            cache.computeIfAbsent(key, k -> k);
+        }
+
+        assertThat(cache.size(), lessThanOrEqualTo(10));
+    }
+
+    @Test
+    void computeIfAbsent_withAKeyInRegularUse_keepsItCachedWhileOthersAreEvicted() {
+        MemoCache<Integer, Integer> cache = new MemoCache<>(10);
+        cache.computeIfAbsent(-1, k -> k);
+
+        for (int key = 0; key < 100; key++) {
+            cache.computeIfAbsent(key, k -> k);
+            cache.computeIfAbsent(-1, k -> k);
+        }
+
+        assertThat(cache.getMisses(), equalTo(101L));
+    }
+}
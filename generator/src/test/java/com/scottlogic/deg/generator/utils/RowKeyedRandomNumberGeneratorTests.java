@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator.RowSequence;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RowKeyedRandomNumberGeneratorTests {
+    private final RowKeyedRandomNumberGenerator randomNumberGenerator = new RowKeyedRandomNumberGenerator(42);
+
+    @Test
+    void keyRows_forEveryShard_shouldGiveTheRowsOfAWholeWalk() {
+        List<Integer> wholeWalk = walkRandomIntegers(new RowSequence(0, 0, 1), 9);
+        List<Iterator<Integer>> shards = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            shards.add(walkRandomIntegers(new RowSequence(0, shard, 3), 3).iterator());
+        }
+
+        List<Integer> shardedWalk = new ArrayList<>();
+        for (int row = 0; row < 9; row++) {
+            shardedWalk.add(shards.get(row % 3).next());
+        }
+
+        assertThat(shardedWalk, equalTo(wholeWalk));
+    }
+
+    @Test
+    void keyRows_withInterleavedPartitions_shouldGiveEachPartitionTheSameRowsAsOnItsOwn() {
+        List<Integer> firstPartitionOnItsOwn = walkRandomIntegers(new RowSequence(0, 0, 1), 5);
+
+        Iterator<Integer> firstPartition = walkRandomIntegers(new RowSequence(0, 0, 1)).iterator();
+        Iterator<Integer> secondPartition = walkRandomIntegers(new RowSequence(1, 0, 1)).iterator();
+        List<Integer> firstPartitionInterleaved = new ArrayList<>();
+        List<Integer> secondPartitionInterleaved = new ArrayList<>();
+        for (int row = 0; row < 5; row++) {
+            firstPartitionInterleaved.add(firstPartition.next());
+            secondPartitionInterleaved.add(secondPartition.next());
+        }
+
+        assertThat(firstPartitionInterleaved, equalTo(firstPartitionOnItsOwn));
+        assertThat(secondPartitionInterleaved, not(equalTo(firstPartitionOnItsOwn)));
+    }
+
+    @Test
+    void keyRows_whenEachRowDrawsADifferentAmount_shouldNotAffectTheFollowingRows() {
+        List<Integer> singleDraws = walkRandomIntegers(new RowSequence(0, 0, 1), 5);
+        List<Integer> extraDraws = randomNumberGenerator
+            .keyRows(new RowSequence(0, 0, 1), () -> Stream.generate(() -> {
+                int firstDraw = randomNumberGenerator.nextInt();
+                randomNumberGenerator.nextInt();
+                return firstDraw;
+            }))
+            .limit(5)
+            .collect(Collectors.toList());
+
+        assertThat(extraDraws, equalTo(singleDraws));
+    }
+
+    @Test
+    void restartRow_shouldDrawFromAnotherStreamForTheSameRow() {
+        List<List<Integer>> attempts = randomNumberGenerator
+            .keyRows(new RowSequence(0, 0, 1), () -> Stream.generate(() -> {
+                int firstAttempt = randomNumberGenerator.nextInt();
+                randomNumberGenerator.restartRow();
+                int secondAttempt = randomNumberGenerator.nextInt();
+                List<Integer> draws = new ArrayList<>();
+                draws.add(firstAttempt);
+                draws.add(secondAttempt);
+                return draws;
+            }))
+            .limit(1)
+            .collect(Collectors.toList());
+
+        assertThat(attempts.get(0).get(1), not(equalTo(attempts.get(0).get(0))));
+        assertThat(attempts.get(0).get(0), equalTo(walkRandomIntegers(new RowSequence(0, 0, 1), 1).get(0)));
+    }
+
+    @Test
+    void rowsForWorker_shouldInterleaveTheRowsOfTheCurrentSequence() {
+        List<Integer> wholeWalk = walkRandomIntegers(new RowSequence(0, 3, 2), 4);
+        List<Integer> secondWorker = randomNumberGenerator
+            .keyRows(new RowSequence(0, 3, 2), () -> walkRandomIntegers(randomNumberGenerator.rowsForWorker(1, 2)))
+            .limit(2)
+            .collect(Collectors.toList());
+
+        assertThat(secondWorker, contains(wholeWalk.get(1), wholeWalk.get(3)));
+    }
+
+    private List<Integer> walkRandomIntegers(RowSequence rows, int count) {
+        return walkRandomIntegers(rows)
+            .limit(count)
+            .collect(Collectors.toList());
+    }
+
+    private Stream<Integer> walkRandomIntegers(RowSequence rows) {
+        return randomNumberGenerator.keyRows(rows, () -> Stream.generate(randomNumberGenerator::nextInt));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class LubyRestartScheduleTests {
+    @Test
+    public void getRetryLimit_followsTheLubySequenceMultipliedByTheUnit() {
+        LubyRestartSchedule schedule = new LubyRestartSchedule(100, 15);
+
+        List<Integer> retryLimits = IntStream.range(0, 15)
+            .mapToObj(schedule::getRetryLimit)
+            .collect(Collectors.toList());
+
+        assertThat(
+            retryLimits,
+            equalTo(Arrays.asList(100, 100, 200, 100, 100, 200, 400, 100, 100, 200, 100, 100, 200, 400, 800)));
+    }
+
+    @Test
+    public void getRetryLimit_forVeryLateRestart_doesNotOverflow() {
+        LubyRestartSchedule schedule = new LubyRestartSchedule(Integer.MAX_VALUE, 100);
+
+        assertThat(schedule.getRetryLimit((1 << 30) - 2), equalTo(Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNodeBuilder;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.mock;
+
+class ParallelRandomDecisionTreeWalkerTests {
+    private DecisionTree tree;
+
+    @BeforeEach
+    void beforeEach() {
+        tree = new DecisionTree(
+            new ConstraintNodeBuilder().build(),
+            new ProfileFields(Collections.singletonList(new Field("field1"))));
+    }
+
+    @Test
+    void walk_withMultipleThreads_shouldMergeRowsFromEveryThread() {
+        DataBag row = mock(DataBag.class);
+        DecisionTreeWalker underlyingWalker = tree -> Stream.of(row, row);
+        ParallelRandomDecisionTreeWalker walker = new ParallelRandomDecisionTreeWalker(
+            underlyingWalker,
+            new RowKeyedRandomNumberGenerator(0),
+            3);
+
+        List<DataBag> rows = walker.walk(tree).collect(Collectors.toList());
+
+        assertThat(rows, hasSize(6));
+    }
+
+    @Test
+    void walk_withTheSameMasterSeed_shouldProduceTheSameRows() {
+        List<Object> firstRun = walkRandomIntegers(new RowKeyedRandomNumberGenerator(42));
+        List<Object> secondRun = walkRandomIntegers(new RowKeyedRandomNumberGenerator(42));
+
+        assertThat(firstRun, equalTo(secondRun));
+    }
+
+    @Test
+    void walk_withDifferentNumbersOfThreads_shouldProduceTheSameRows() {
+        List<Object> twoThreads = walkRandomIntegers(new RowKeyedRandomNumberGenerator(42), 2);
+        List<Object> fourThreads = walkRandomIntegers(new RowKeyedRandomNumberGenerator(42), 4);
+
+        assertThat(twoThreads, equalTo(fourThreads));
+    }
+
+    @Test
+    void walk_withMultipleThreads_shouldProduceTheSameRowsAsASingleThread() {
+        List<Object> oneThread = walkRandomIntegers(new RowKeyedRandomNumberGenerator(42), 1);
+        List<Object> fourThreads = walkRandomIntegers(new RowKeyedRandomNumberGenerator(42), 4);
+
+        assertThat(oneThread, equalTo(fourThreads));
+    }
+
+    private List<Object> walkRandomIntegers(RowKeyedRandomNumberGenerator randomNumberGenerator) {
+        return walkRandomIntegers(randomNumberGenerator, 4);
+    }
+
+    private List<Object> walkRandomIntegers(RowKeyedRandomNumberGenerator randomNumberGenerator, int threads) {
+        Field field = tree.fields.iterator().next();
+        DecisionTreeWalker underlyingWalker = tree -> Stream
+            .generate(() -> new DataBag(Collections.singletonMap(
+                field,
+                new DataBagValue(randomNumberGenerator.nextInt()))))
+            .limit(8 / threads);
+
+        return new ParallelRandomDecisionTreeWalker(underlyingWalker, randomNumberGenerator, threads)
+            .walk(tree)
+            .map(row -> row.getFormattedValue(field))
+            .collect(Collectors.toList());
+    }
+}
@@ -22,6 +22,7 @@ import com.scottlogic.deg.generator.decisiontree.ConstraintNodeBuilder;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.generation.DataGeneratorMonitor;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
 import org.junit.Assert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -51,7 +52,11 @@ class RandomReductiveDecisionTreeWalkerTests {
         );
 
         underlyingWalker = mock(ReductiveDecisionTreeWalker.class);
-        walker = new RandomReductiveDecisionTreeWalker(underlyingWalker, monitor);
+        walker = new RandomReductiveDecisionTreeWalker(
+            underlyingWalker,
+            monitor,
+            new RowKeyedRandomNumberGenerator(0),
+            new LubyRestartSchedule(1, 1));
     }
 
     /**
@@ -60,14 +65,14 @@ class RandomReductiveDecisionTreeWalkerTests {
      */
     @Test
     public void shouldProduceTwoRowsOfRandomDataOneRowSpecFromEachIteration() {
-        when(underlyingWalker.walk(tree)).thenReturn(
+        when(underlyingWalker.walk(tree, 1)).thenReturn(
             Stream.of(rowSpec("first-iteration-first-random-row"), rowSpec("first-iteration-second-random-row")),
             Stream.of(rowSpec("second-iteration-first-random-row"), rowSpec("second-iteration-second-random-row"))
         );
 
         List<DataBag> result = walker.walk(tree).limit(2).collect(Collectors.toList());
 
-        verify(underlyingWalker, times(2)).walk(tree);
+        verify(underlyingWalker, times(2)).walk(tree, 1);
         Assert.assertThat(
             result.stream().map(DataBag::toString).collect(Collectors.toList()),
             hasItems("first-iteration-first-random-row", "second-iteration-first-random-row"));
@@ -75,7 +80,7 @@ class RandomReductiveDecisionTreeWalkerTests {
 
     @Test
     public void shouldProduceNoData() {
-        when(underlyingWalker.walk(tree)).thenReturn(
+        when(underlyingWalker.walk(tree, 1)).thenReturn(
             Stream.of(rowSpec("first-iteration-first-random-row"), rowSpec("first-iteration-second-random-row")),
             Stream.empty(),
             Stream.of(rowSpec("third-iteration-first-random-row"), rowSpec("third-iteration-second-random-row"))
@@ -83,7 +88,7 @@ class RandomReductiveDecisionTreeWalkerTests {
 
         List<DataBag> result = walker.walk(tree).limit(2).collect(Collectors.toList());
 
-        verify(underlyingWalker, times(3)).walk(tree);
+        verify(underlyingWalker, times(3)).walk(tree, 1);
         Assert.assertThat(
             result.stream().map(DataBag::toString).collect(Collectors.toList()),
             hasItems("first-iteration-first-random-row", "third-iteration-first-random-row"));
@@ -91,13 +96,13 @@ class RandomReductiveDecisionTreeWalkerTests {
 
     @Test
     public void shouldAccommodateNoDataInSubsequentIteration() {
-        when(underlyingWalker.walk(tree)).thenReturn(
+        when(underlyingWalker.walk(tree, 1)).thenReturn(
             Stream.empty()
         );
 
         List<DataBag> result = walker.walk(tree).limit(2).collect(Collectors.toList());
 
-        verify(underlyingWalker, times(1)).walk(tree);
+        verify(underlyingWalker, times(1)).walk(tree, 1);
         Assert.assertThat(
             result.stream().iterator().hasNext(),
             is(false));
@@ -105,21 +110,21 @@ class RandomReductiveDecisionTreeWalkerTests {
 
     @Test
     public void getFirstRowSpecFromRandomisingIteration_onRetryFail_returnsEmptyStream() {
-        when(underlyingWalker.walk(tree)).thenReturn(
+        when(underlyingWalker.walk(tree, 1)).thenReturn(
             Stream.iterate(new DataBag(new HashMap<>()), dataBag -> {
                 throw new RetryLimitReachedException();
             }).skip(1));
 
         DataBag result = walker.walk(tree).findFirst().orElse(null);
 
-        verify(underlyingWalker, times(1)).walk(tree);
+        verify(underlyingWalker, times(1)).walk(tree, 1);
         assertNull(result);
 
     }
 
     @Test
     public void getFirstRowSpecFromRandomisingIteration_onRetryFail_reportsError() {
-        when(underlyingWalker.walk(tree)).thenReturn(
+        when(underlyingWalker.walk(tree, 1)).thenReturn(
             Stream.iterate(new DataBag(new HashMap<>()), dataBag -> {
                 throw new RetryLimitReachedException();
             }).skip(1));
@@ -129,6 +134,52 @@ class RandomReductiveDecisionTreeWalkerTests {
         verify(monitor, atLeastOnce()).addLineToPrintAtEndOfGeneration(anyString());
     }
 
+    @Test
+    public void getFirstRowSpecFromRandomisingIteration_onRetryFail_restartsWithLubyRetryLimits() {
+        walker = new RandomReductiveDecisionTreeWalker(
+            underlyingWalker,
+            monitor,
+            new RowKeyedRandomNumberGenerator(0),
+            new LubyRestartSchedule(10, 40));
+        when(underlyingWalker.walk(eq(tree), anyInt())).thenReturn(
+            Stream.iterate(new DataBag(new HashMap<>()), dataBag -> {
+                throw new RetryLimitReachedException();
+            }).skip(1),
+            Stream.iterate(new DataBag(new HashMap<>()), dataBag -> {
+                throw new RetryLimitReachedException();
+            }).skip(1),
+            Stream.of(rowSpec("third-attempt-row")));
+
+        DataBag result = walker.walk(tree).findFirst().orElse(null);
+
+        verify(underlyingWalker, times(2)).walk(tree, 10);
+        verify(underlyingWalker).walk(tree, 20);
+        verify(underlyingWalker, never()).walk(tree);
+        verify(monitor, never()).addLineToPrintAtEndOfGeneration(anyString());
+        Assert.assertThat(result.toString(), is("third-attempt-row"));
+    }
+
+    @Test
+    public void getFirstRowSpecFromRandomisingIteration_onRetryFail_givesUpOnceTheRowsRetryLimitIsUsedUp() {
+        walker = new RandomReductiveDecisionTreeWalker(
+            underlyingWalker,
+            monitor,
+            new RowKeyedRandomNumberGenerator(0),
+            new LubyRestartSchedule(10, 25));
+        when(underlyingWalker.walk(eq(tree), anyInt())).thenAnswer(invocation ->
+            Stream.iterate(new DataBag(new HashMap<>()), dataBag -> {
+                throw new RetryLimitReachedException();
+            }).skip(1));
+
+        DataBag result = walker.walk(tree).findFirst().orElse(null);
+
+        verify(underlyingWalker, times(2)).walk(tree, 10);
+        verify(underlyingWalker).walk(tree, 5);
+        verify(underlyingWalker, never()).walk(tree);
+        verify(monitor, atLeastOnce()).addLineToPrintAtEndOfGeneration(anyString());
+        assertNull(result);
+    }
+
     private static DataBag rowSpec(String detail) {
         return mock(DataBag.class, detail);
     }
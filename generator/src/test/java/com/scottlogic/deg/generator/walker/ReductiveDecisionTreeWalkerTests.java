@@ -19,6 +19,7 @@ package com.scottlogic.deg.generator.walker;
 import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.generator.builders.TestConstraintNodeBuilder;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNodeBuilder;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
@@ -31,6 +32,7 @@ import com.scottlogic.deg.generator.generation.databags.DataBagValue;
 import com.scottlogic.deg.generator.walker.reductive.Merged;
 import com.scottlogic.deg.generator.walker.reductive.NoOpIterationVisualiser;
 import com.scottlogic.deg.generator.walker.reductive.ReductiveFieldSpecBuilder;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveState;
 import com.scottlogic.deg.generator.walker.reductive.ReductiveTreePruner;
 import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategy;
 import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategyFactory;
@@ -70,11 +72,11 @@ class ReductiveDecisionTreeWalkerTests {
         reductiveFieldSpecBuilder = mock(ReductiveFieldSpecBuilder.class);
         fieldSpecValueGenerator = mock(FieldSpecValueGenerator.class);
         fixFieldStrategy = mock(FixFieldStrategy.class);
-        when(fixFieldStrategy.getNextFieldToFix(any())).thenReturn(field1, field2);
+        when(fixFieldStrategy.getNextFieldToFix(any(), any())).thenReturn(field1, field2);
         fixFieldStrategyFactory = mock(FixFieldStrategyFactory.class);
         when(fixFieldStrategyFactory.create(any())).thenReturn(fixFieldStrategy);
         treePruner = mock(ReductiveTreePruner.class);
-        when(treePruner.pruneConstraintNode(eq(rootNode), any(), any())).thenReturn(Merged.of(rootNode));
+        when(treePruner.pruneConstraintNode(eq(rootNode), any(), any(), anyBoolean())).thenReturn(Merged.of(rootNode));
 
         walker = new ReductiveDecisionTreeWalker(
             new NoOpIterationVisualiser(),
@@ -83,7 +85,8 @@ class ReductiveDecisionTreeWalkerTests {
             treePruner,
             fieldSpecValueGenerator,
             fixFieldStrategyFactory,
-            retryChecker
+            retryChecker,
+            false
         );
     }
 
@@ -133,11 +136,11 @@ class ReductiveDecisionTreeWalkerTests {
             .build();
         DecisionTree tree = new DecisionTree(root, fields);
         DataBagValue dataBagValue = mock(DataBagValue.class);
-        when(fixFieldStrategy.getNextFieldToFix(any())).thenReturn(field1, field2);
+        when(fixFieldStrategy.getNextFieldToFix(any(), any())).thenReturn(field1, field2);
         when(fixFieldStrategyFactory.create(any())).thenReturn(fixFieldStrategy);
-        when(treePruner.pruneConstraintNode(eq(root), any(), any())).thenReturn(Merged.of(root));
+        when(treePruner.pruneConstraintNode(eq(root), any(), any(), anyBoolean())).thenReturn(Merged.of(root));
         when(reductiveFieldSpecBuilder.getDecisionFieldSpecs(any(), any())).thenReturn(fieldSpecs);
-        when(treePruner.pruneConstraintNode(eq(root), any(), any())).thenReturn(Merged.contradictory());
+        when(treePruner.pruneConstraintNode(eq(root), any(), any(), anyBoolean())).thenReturn(Merged.contradictory());
 
         Stream<DataBagValue> infiniteStream = Stream.iterate(dataBagValue, i -> dataBagValue);
         when(fieldSpecValueGenerator.generate(anySetOf(FieldSpec.class))).thenReturn(infiniteStream);
@@ -146,4 +149,126 @@ class ReductiveDecisionTreeWalkerTests {
             assertThrows(RetryLimitReachedException.class, () -> walker.walk(tree).findFirst());
         });
     }
+
+    /**
+     * If a field cannot be fixed because of the value of a field fixed before the previous one, the walker should
+     * jump straight back to that field rather than trying the other values of the previous one
+     */
+    @Test
+    public void walk_whereFieldCannotBeFixedBecauseOfAnEarlierField_jumpsBackToThatField() {
+        Field field3 = new Field("field3");
+        ConstraintNode root = TestConstraintNodeBuilder.constraintNode()
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(field1).isNull().where(field3).isNull(),
+                TestConstraintNodeBuilder.constraintNode().where(field1).isNotNull())
+            .build();
+        DecisionTree tree = new DecisionTree(root, new ProfileFields(Arrays.asList(field1, field2, field3)));
+        ConstraintNode afterA = TestConstraintNodeBuilder.constraintNode().where(field1).isNull().build();
+        ConstraintNode afterB = TestConstraintNodeBuilder.constraintNode().where(field1).isNotNull().build();
+        DataBagValue a = new DataBagValue("a");
+        DataBagValue b = new DataBagValue("b");
+        DataBagValue x = new DataBagValue("x");
+        DataBagValue y = new DataBagValue("y");
+        DataBagValue z = new DataBagValue("z");
+
+        when(fixFieldStrategy.getNextFieldToFix(any(), any())).thenAnswer(invocation -> {
+            ReductiveState state = (ReductiveState) invocation.getArguments()[0];
+            return Stream.of(field1, field2, field3).filter(field -> !state.isFieldFixed(field)).findFirst().orElse(null);
+        });
+        when(treePruner.pruneConstraintNode(any(), any(), any(), anyBoolean())).thenAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            if (arguments[1].equals(field1)) {
+                return Merged.of(arguments[2].equals(a) ? afterA : afterB);
+            }
+            return Merged.of(arguments[0]);
+        });
+        when(reductiveFieldSpecBuilder.getDecisionFieldSpecs(any(), any())).thenAnswer(invocation ->
+            invocation.getArguments()[0] == afterA && invocation.getArguments()[1].equals(field3)
+                ? Collections.emptySet()
+                : Collections.singleton(FieldSpec.Empty));
+        when(fieldSpecValueGenerator.generate(anySetOf(FieldSpec.class))).thenReturn(
+            Stream.of(a, b),
+            Stream.of(x, y),
+            Stream.of(x, y),
+            Stream.of(z),
+            Stream.of(z));
+
+        List<DataBag> result = walker.walk(tree).collect(Collectors.toList());
+
+        verify(reductiveFieldSpecBuilder, times(1)).getDecisionFieldSpecs(afterA, field3);
+        verify(treePruner, never()).pruneConstraintNode(eq(afterA), eq(field2), eq(y), anyBoolean());
+        assertEquals(2, result.size());
+    }
+
+    /**
+     * A shard should only try its share of the values of the first field fixed, and every value of the later fields
+     */
+    @Test
+    public void walk_withShard_onlyTriesTheShardsValuesOfTheFirstField() {
+        when(fixFieldStrategy.getNextFieldToFix(any(), any())).thenAnswer(invocation -> {
+            ReductiveState state = (ReductiveState) invocation.getArguments()[0];
+            return Stream.of(field1, field2).filter(field -> !state.isFieldFixed(field)).findFirst().orElse(null);
+        });
+        when(treePruner.pruneConstraintNode(any(), any(), any(), anyBoolean())).thenAnswer(invocation ->
+            Merged.of(invocation.getArguments()[0]));
+        when(reductiveFieldSpecBuilder.getDecisionFieldSpecs(any(), any()))
+            .thenReturn(Collections.singleton(FieldSpec.Empty));
+        when(fieldSpecValueGenerator.generate(anySetOf(FieldSpec.class))).thenReturn(
+            Stream.of(new DataBagValue("a"), new DataBagValue("b"), new DataBagValue("c")),
+            Stream.of(new DataBagValue("x"), new DataBagValue("y")));
+
+        List<Object> result = walker.walk(tree, new Shard(1, 2))
+            .map(row -> row.getFormattedValue(field1) + "" + row.getFormattedValue(field2))
+            .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("bx", "by"), result);
+    }
+
+    /**
+     * If forward checking is enabled, a value which leaves a later field without any values should be rejected
+     * before any field in between is fixed
+     */
+    @Test
+    public void walk_withForwardChecking_rejectsValueLeavingAnUnfixedFieldWithNoValues() {
+        Field field3 = new Field("field3");
+        DecisionTree tree = new DecisionTree(rootNode, new ProfileFields(Arrays.asList(field1, field2, field3)));
+        ConstraintNode afterA = TestConstraintNodeBuilder.constraintNode().where(field3).isNull().build();
+        ConstraintNode afterB = TestConstraintNodeBuilder.constraintNode().where(field3).isNotNull().build();
+        DataBagValue a = new DataBagValue("a");
+        DataBagValue b = new DataBagValue("b");
+
+        when(fixFieldStrategy.getNextFieldToFix(any(), any())).thenAnswer(invocation -> {
+            ReductiveState state = (ReductiveState) invocation.getArguments()[0];
+            return Stream.of(field1, field2, field3).filter(field -> !state.isFieldFixed(field)).findFirst().orElse(null);
+        });
+        when(treePruner.pruneConstraintNode(any(), any(), any(), anyBoolean())).thenAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            if (arguments[1].equals(field1)) {
+                return Merged.of(arguments[2].equals(a) ? afterA : afterB);
+            }
+            return Merged.of(arguments[0]);
+        });
+        when(reductiveFieldSpecBuilder.getDecisionFieldSpecs(any(), any())).thenAnswer(invocation ->
+            invocation.getArguments()[0] == afterA && invocation.getArguments()[1].equals(field3)
+                ? Collections.emptySet()
+                : Collections.singleton(FieldSpec.Empty));
+        when(fieldSpecValueGenerator.generate(anySetOf(FieldSpec.class))).thenReturn(
+            Stream.of(a, b),
+            Stream.of(new DataBagValue("x")),
+            Stream.of(new DataBagValue("z")));
+        ReductiveDecisionTreeWalker forwardCheckingWalker = new ReductiveDecisionTreeWalker(
+            new NoOpIterationVisualiser(),
+            reductiveFieldSpecBuilder,
+            new NoopDataGeneratorMonitor(),
+            treePruner,
+            fieldSpecValueGenerator,
+            fixFieldStrategyFactory,
+            retryChecker,
+            true);
+
+        List<DataBag> result = forwardCheckingWalker.walk(tree).collect(Collectors.toList());
+
+        verify(treePruner, never()).pruneConstraintNode(eq(afterA), any(), any(), anyBoolean());
+        assertEquals(1, result.size());
+    }
 }
\ No newline at end of file
@@ -62,4 +62,22 @@ class ReductiveWalkerRetryCheckerTests {
         //Assert
         assertThrows(RetryLimitReachedException.class, retryChecker::retryUnsuccessful);
     }
+
+    @Test
+    public void retryChecker_withFailuresOnAnotherThread_doesNotThrowException() throws InterruptedException {
+        //Arrange
+        ReductiveWalkerRetryChecker retryChecker = new ReductiveWalkerRetryChecker(2);
+
+        //Act
+        Thread otherThread = new Thread(() -> {
+            retryChecker.retryUnsuccessful();
+            retryChecker.retryUnsuccessful();
+        });
+        otherThread.start();
+        otherThread.join();
+        retryChecker.retryUnsuccessful();
+
+        //Assert
+        assertDoesNotThrow(retryChecker::retryUnsuccessful);
+    }
 }
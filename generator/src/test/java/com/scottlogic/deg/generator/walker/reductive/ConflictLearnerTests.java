@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.builders.TestConstraintNodeBuilder;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ConflictLearnerTests {
+    private Field field1 = new Field("field1");
+    private Field field2 = new Field("field2");
+    private Field field3 = new Field("field3");
+    private Field field4 = new Field("field4");
+    private ReductiveState initialState =
+        new ReductiveState(new ProfileFields(Arrays.asList(field1, field2, field3, field4)));
+
+    /* field1 and field2 share a decision, as do field2 and field3; field4 is only constrained on its own */
+    private ConstraintNode root = TestConstraintNodeBuilder.constraintNode()
+        .where(field4).isNull()
+        .withDecision(
+            TestConstraintNodeBuilder.constraintNode().where(field1).isNull().where(field2).isNull(),
+            TestConstraintNodeBuilder.constraintNode().where(field1).isNotNull())
+        .withDecision(
+            TestConstraintNodeBuilder.constraintNode().where(field2).isNotNull().where(field3).isNull(),
+            TestConstraintNodeBuilder.constraintNode().where(field3).isNotNull())
+        .build();
+    private ConflictLearner conflictLearner = new ConflictLearner(root);
+
+    @Test
+    void getConflictingFields_withRelatedFieldFixed_returnsIt() {
+        ReductiveState state = initialState
+            .withFixedFieldValue(field2, new DataBagValue(field2, "a"))
+            .withFixedFieldValue(field4, new DataBagValue(field4, "b"));
+
+        assertThat(conflictingFieldsOf(field3, state), equalTo(Collections.singleton(field2)));
+    }
+
+    @Test
+    void getConflictingFields_withFieldRelatedThroughAnUnfixedField_returnsIt() {
+        ReductiveState state = initialState.withFixedFieldValue(field1, new DataBagValue(field1, "a"));
+
+        assertThat(conflictingFieldsOf(field3, state), equalTo(Collections.singleton(field1)));
+    }
+
+    @Test
+    void getConflictingFields_withFieldRelatedOnlyThroughAFixedField_doesNotReturnIt() {
+        ReductiveState state = initialState
+            .withFixedFieldValue(field1, new DataBagValue(field1, "a"))
+            .withFixedFieldValue(field2, new DataBagValue(field2, "b"));
+
+        assertThat(conflictingFieldsOf(field3, state), equalTo(Collections.singleton(field2)));
+    }
+
+    @Test
+    void getConflictingFields_withNoRelatedFieldsFixed_returnsEmptySet() {
+        ReductiveState state = initialState
+            .withFixedFieldValue(field4, new DataBagValue(field4, "a"));
+
+        assertThat(conflictingFieldsOf(field3, state), empty());
+    }
+
+    @Test
+    void findNogood_whenConflictingFieldsHaveTheLearntValues_returnsThem() {
+        DataBagValue value = new DataBagValue(field3, "c");
+        ReductiveState state = initialState
+            .withFixedFieldValue(field1, new DataBagValue(field1, "a"))
+            .withFixedFieldValue(field4, new DataBagValue(field4, "d"));
+        conflictLearner.learnNogood(field3, value, Collections.singleton(field1), state);
+
+        ReductiveState sameConflictingValue = initialState
+            .withFixedFieldValue(field1, new DataBagValue(field1, "a"))
+            .withFixedFieldValue(field2, new DataBagValue(field2, "b"));
+        Optional<Set<Field>> nogood = conflictLearner.findNogood(field3, value, sameConflictingValue);
+
+        assertThat(nogood, equalTo(Optional.of(Collections.singleton(field1))));
+    }
+
+    @Test
+    void withoutNogoods_keepsTheFieldRelationsButNotTheNogoods() {
+        DataBagValue value = new DataBagValue(field3, "c");
+        ReductiveState state = initialState.withFixedFieldValue(field2, new DataBagValue(field2, "a"));
+        conflictLearner.learnNogood(field3, value, Collections.singleton(field2), state);
+
+        ConflictLearner learnerForAnotherWalk = conflictLearner.withoutNogoods();
+
+        assertThat(learnerForAnotherWalk.findNogood(field3, value, state), equalTo(Optional.empty()));
+        assertThat(learnerForAnotherWalk.getConflictingFields(field3, state), equalTo(Collections.singleton(field2)));
+    }
+
+    @Test
+    void findNogood_whenAConflictingFieldHasAnotherValue_returnsEmpty() {
+        DataBagValue value = new DataBagValue(field3, "c");
+        ReductiveState state = initialState.withFixedFieldValue(field1, new DataBagValue(field1, "a"));
+        conflictLearner.learnNogood(field3, value, Collections.singleton(field1), state);
+
+        ReductiveState otherValue = initialState.withFixedFieldValue(field1, new DataBagValue(field1, "b"));
+
+        assertThat(conflictLearner.findNogood(field3, value, otherValue), equalTo(Optional.empty()));
+        assertThat(conflictLearner.findNogood(field3, new DataBagValue(field3, "d"), state), equalTo(Optional.empty()));
+    }
+
+    private Set<Field> conflictingFieldsOf(Field field, ReductiveState state) {
+        return new HashSet<>(conflictLearner.getConflictingFields(field, state));
+    }
+}
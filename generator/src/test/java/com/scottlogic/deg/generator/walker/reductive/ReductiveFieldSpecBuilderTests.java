@@ -42,7 +42,7 @@ class ReductiveFieldSpecBuilderTests {
     @Test
     public void shouldReturnNullWhenAllConstraintsForFieldToFixContradict(){
         ConstraintReducer reducer = mock(ConstraintReducer.class);
-        when(reducer.reduceConstraintsToFieldSpec(any())).thenReturn(Optional.empty());
+        when(reducer.reduceConstraintsToFieldSpec(any(ConstraintNode.class), any(Field.class))).thenReturn(Optional.empty());
         ReductiveFieldSpecBuilder builder = new ReductiveFieldSpecBuilder(reducer, mock(FieldSpecMerger.class));
         Field field1 = new Field("field");
         ConstraintNode rootNode =
@@ -56,7 +56,7 @@ class ReductiveFieldSpecBuilderTests {
     @Test
     public void shouldReturnFixedFieldWhenRootNodeContainsNoContradictions(){
         ConstraintReducer reducer = mock(ConstraintReducer.class);
-        when(reducer.reduceConstraintsToFieldSpec(any())).thenReturn(Optional.of(mock(FieldSpec.class)));
+        when(reducer.reduceConstraintsToFieldSpec(any(ConstraintNode.class), any(Field.class))).thenReturn(Optional.of(mock(FieldSpec.class)));
         FieldSpecValueGenerator valueGenerator = mock(FieldSpecValueGenerator.class);
         ReductiveFieldSpecBuilder builder = new ReductiveFieldSpecBuilder(reducer, mock(FieldSpecMerger.class));
         Field field1 = new Field("field");
@@ -20,6 +20,7 @@ import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.constraints.atomic.IsLessThanConstantConstraint;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNodeBuilder;
+import com.scottlogic.deg.generator.decisiontree.HashConsingNodeFactory;
 import com.scottlogic.deg.generator.fieldspecs.*;
 import com.scottlogic.deg.generator.fieldspecs.whitelist.DistributedSet;
 import com.scottlogic.deg.generator.fieldspecs.whitelist.FrequencyDistributedSet;
@@ -32,8 +33,12 @@ import java.util.*;
 
 import static com.scottlogic.deg.generator.builders.TestConstraintNodeBuilder.*;
 import static com.shazam.shazamcrest.MatcherAssert.assertThat;
+import static com.scottlogic.deg.generator.helpers.CachedFieldsHelper.cachedFields;
 import static com.shazam.shazamcrest.matcher.Matchers.sameBeanAs;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -50,7 +55,8 @@ class ReductiveTreePrunerTests {
         new ConstraintReducer(
             new FieldSpecFactory(new StringRestrictionsFactory()),
             new FieldSpecMerger()),
-        fieldSpecHelper);
+        fieldSpecHelper,
+        new HashConsingNodeFactory());
 
 
     // SINGLE LAYER
@@ -92,7 +98,7 @@ class ReductiveTreePrunerTests {
 
         //Assert
         ConstraintNode expected = tree;
-        assertThat(actual, sameBeanAs(expected));
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
     }
 
     // With a decision -> Decision contradicts
@@ -139,7 +145,7 @@ class ReductiveTreePrunerTests {
 
         //Assert
         ConstraintNode expected = tree;
-        assertThat(actual, sameBeanAs(expected));
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
     }
 
     // With a decision -> One contradiction, one remaining option
@@ -165,7 +171,7 @@ class ReductiveTreePrunerTests {
         ConstraintNode expected = constraintNode()
             .where(field).isInSet("a")
             .build();
-        assertThat(actual, sameBeanAs(expected));
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
     }
 
     // With a decision -> Two or more contradictions, one remaining option
@@ -192,7 +198,7 @@ class ReductiveTreePrunerTests {
         ConstraintNode expected = constraintNode()
             .where(field).isInSet("a")
             .build();
-        assertThat(actual, sameBeanAs(expected));
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
     }
 
     // With a decision -> One contradiction, Two remaining options
@@ -223,7 +229,7 @@ class ReductiveTreePrunerTests {
                 constraintNode().where(field).isInSet("b"))
             .build();
 
-        assertThat(actual, sameBeanAs(expected));
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
     }
 
     // Two decisions, one decision is contradictory
@@ -316,7 +322,7 @@ class ReductiveTreePrunerTests {
                 constraintNode().where(field).isInSet("valid"),
                 constraintNode().where(unrelatedField).isInSet("unrelated2"))
             .build();
-        assertThat(actual, sameBeanAs(expected));
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
     }
 
     // Only one layer has contradiction -> prunes correctly
@@ -406,7 +412,139 @@ class ReductiveTreePrunerTests {
 
         //Assert
         ConstraintNode expected = tree;
-        assertThat(actual, sameBeanAs(expected));
+        assertThat(actual, sameBeanAs(expected).ignoring(cachedFields()));
+    }
+
+    // Option which doesn't mention the fixed field anywhere -> left as it is
+    @Test
+    public void pruneConstraintNode_optionNotMentioningField_returnsSameOption() {
+        //Arrange
+        ConstraintNode tree =
+            constraintNode()
+                .withDecision(
+                    constraintNode().where(field).isInSet("valid"),
+                    constraintNode().where(unrelatedField).isInSet("unrelated1")
+                        .withDecision(
+                            constraintNode().where(unrelatedField).isInSet("unrelated1"),
+                            constraintNode().where(unrelatedField).isInSet("unrelated2")
+                        ))
+                .build();
+        ConstraintNode unrelatedOption = tree.getDecisions().iterator().next().getOptions().stream()
+            .filter(option -> !option.getFieldsInSubtree().contains(field))
+            .findFirst()
+            .get();
+        Set<Object> inputWhitelist = new HashSet<>(Arrays.asList("valid"));
+        FieldSpec inputFieldSpec = notNull.withWhitelist(
+            (FrequencyDistributedSet.uniform(inputWhitelist)));
+
+        when(fieldSpecHelper.getFieldSpecForValue(any())).thenReturn(inputFieldSpec);
+
+        //Act
+        ConstraintNode actual = treePruner.pruneConstraintNode(tree, field, fieldValue()).get();
+
+        //Assert
+        assertTrue(actual.getDecisions().iterator().next().getOptions().stream()
+            .anyMatch(option -> option == unrelatedOption));
+    }
+
+    // CACHING:
+
+    @Test
+    public void pruneConstraintNode_sameNodeAndValueTwice_returnsCachedTree() {
+        //Arrange
+        ConstraintNode tree =
+            constraintNode()
+                .withDecision(
+                    constraintNode().where(field).isInSet("valid"),
+                    constraintNode().where(field).isInSet("invalid"))
+                .build();
+        Set<Object> inputWhitelist = new HashSet<>(Arrays.asList("valid"));
+        FieldSpec inputFieldSpec = notNull.withWhitelist(
+            (FrequencyDistributedSet.uniform(inputWhitelist)));
+
+        when(fieldSpecHelper.getFieldSpecForValue(any())).thenReturn(inputFieldSpec);
+
+        //Act
+        ConstraintNode first = treePruner.pruneConstraintNode(tree, field, fieldValue()).get();
+        ConstraintNode second = treePruner.pruneConstraintNode(tree, field, fieldValue()).get();
+
+        //Assert
+        assertSame(first, second);
+        assertEquals(1, treePruner.getPruningCacheMetrics().getHits());
+        assertEquals(1, treePruner.getPruningCacheMetrics().getMisses());
+    }
+
+    @Test
+    public void pruneConstraintNode_withValueWhichCannotRecur_doesNotCacheThePrunedTree() {
+        //Arrange
+        ConstraintNode tree =
+            constraintNode()
+                .withDecision(
+                    constraintNode().where(field).isInSet("valid"),
+                    constraintNode().where(field).isInSet("invalid"))
+                .build();
+        Set<Object> inputWhitelist = new HashSet<>(Arrays.asList("valid"));
+        FieldSpec inputFieldSpec = notNull.withWhitelist(
+            (FrequencyDistributedSet.uniform(inputWhitelist)));
+
+        when(fieldSpecHelper.getFieldSpecForValue(any())).thenReturn(inputFieldSpec);
+
+        //Act
+        ConstraintNode actual = treePruner.pruneConstraintNode(tree, field, fieldValue(), false).get();
+
+        //Assert
+        assertEquals(0, treePruner.getPruningCacheMetrics().getMisses());
+        assertEquals(0, treePruner.getPruningCacheMetrics().getSize());
+        assertTrue(actual.getDecisions().isEmpty());
+        assertEquals(1, actual.getAtomicConstraints().size());
+    }
+
+    // WHOLE TREE:
+
+    @Test
+    public void pruneTree_withContradictoryOptions_prunesAsSequentialPruningAndReportsContradictions() {
+        //Arrange
+        ConstraintNode tree =
+            constraintNode()
+                .where(field).isNotNull()
+                .withDecision(
+                    constraintNode().where(field).isNull(),
+                    constraintNode().where(unrelatedField).isNull(),
+                    constraintNode().where(unrelatedField).isInSet("a"))
+                .withDecision(
+                    constraintNode().where(field).isInSet("b"),
+                    constraintNode().where(field).isInSet("c"))
+                .build();
+        Map<Field, FieldSpec> fieldSpecs = new HashMap<>();
+        fieldSpecs.put(field, FieldSpec.Empty);
+        fieldSpecs.put(unrelatedField, FieldSpec.Empty);
+
+        //Act
+        PrunedTree actual = treePruner.pruneTree(tree, fieldSpecs);
+
+        //Assert
+        assertTrue(actual.hadContradictionsPruned());
+        assertThat(actual.getPrunedNode(), sameBeanAs(treePruner.pruneConstraintNode(tree, fieldSpecs)).ignoring(cachedFields()));
+    }
+
+    @Test
+    public void pruneTree_withNoContradictoryOptions_reportsNoContradictions() {
+        //Arrange
+        ConstraintNode tree =
+            constraintNode()
+                .withDecision(
+                    constraintNode().where(field).isInSet("b"),
+                    constraintNode().where(field).isInSet("c"))
+                .build();
+        Map<Field, FieldSpec> fieldSpecs = new HashMap<>();
+        fieldSpecs.put(field, FieldSpec.Empty);
+
+        //Act
+        PrunedTree actual = treePruner.pruneTree(tree, fieldSpecs);
+
+        //Assert
+        assertFalse(actual.hadContradictionsPruned());
+        assertThat(actual.getPrunedNode(), sameBeanAs(Merged.of(tree)).ignoring(cachedFields()));
     }
 
     private DataBagValue fieldValue() {
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecFactory;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.restrictions.StringRestrictionsFactory;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveState;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.scottlogic.deg.generator.builders.TestConstraintNodeBuilder.constraintNode;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MostConstrainedFieldFixingStrategyTests {
+    private final MostConstrainedFieldFixingStrategy strategy = new MostConstrainedFieldFixingStrategy(
+        new ConstraintReducer(
+            new FieldSpecFactory(new StringRestrictionsFactory()),
+            new FieldSpecMerger()));
+    private final Field fieldA = new Field("A");
+    private final Field fieldB = new Field("B");
+    private final Field fieldC = new Field("C");
+    private final ReductiveState state = new ReductiveState(new ProfileFields(Arrays.asList(fieldA, fieldB, fieldC)));
+
+    @Test
+    void getNextFieldToFix_withFieldsOfDifferentDomains_returnsFieldWithFewestValues() {
+        ConstraintNode tree = constraintNode()
+            .where(fieldA).isInSet("a1", "a2", "a3")
+            .where(fieldB).isInSet("b1")
+            .build();
+
+        Field actual = strategy.getNextFieldToFix(state, tree);
+
+        assertEquals(fieldB, actual);
+    }
+
+    @Test
+    void getNextFieldToFix_withFieldsOfTheSameDomain_returnsFieldInMostOptions() {
+        ConstraintNode tree = constraintNode()
+            .withDecision(
+                constraintNode().where(fieldA).isInSet("a1").where(fieldC).isNull(),
+                constraintNode().where(fieldA).isInSet("a2"))
+            .withDecision(
+                constraintNode().where(fieldC).isInSet("c1"),
+                constraintNode().where(fieldB).isInSet("b1").where(fieldC).isInSet("c2"))
+            .build();
+
+        Field actual = strategy.getNextFieldToFix(state, tree);
+
+        assertEquals(fieldC, actual);
+    }
+
+    @Test
+    void getNextFieldToFix_withMostConstrainedFieldFixed_returnsNextMostConstrainedField() {
+        ConstraintNode tree = constraintNode()
+            .where(fieldA).isInSet("a1", "a2", "a3")
+            .where(fieldB).isInSet("b1")
+            .build();
+
+        Field actual = strategy.getNextFieldToFix(state.withFixedFieldValue(fieldB, new DataBagValue("b1")), tree);
+
+        assertEquals(fieldA, actual);
+    }
+
+    @Test
+    void getNextFieldToFix_withAllFieldsFixed_returnsNull() {
+        ConstraintNode tree = constraintNode().build();
+        ReductiveState fixedState = state
+            .withFixedFieldValue(fieldA, new DataBagValue("a"))
+            .withFixedFieldValue(fieldB, new DataBagValue("b"))
+            .withFixedFieldValue(fieldC, new DataBagValue("c"));
+
+        Field actual = strategy.getNextFieldToFix(fixedState, tree);
+
+        assertEquals(null, actual);
+    }
+}
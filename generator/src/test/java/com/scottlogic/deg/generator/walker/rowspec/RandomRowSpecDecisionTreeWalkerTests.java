@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.rowspec;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsOfTypeConstraint;
+import com.scottlogic.deg.generator.builders.TestConstraintNodeBuilder;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNodeBuilder;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.fieldspecs.RowSpec;
+import com.scottlogic.deg.generator.fieldspecs.whitelist.FrequencyDistributedSet;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.generation.databags.RowSpecDataBagGenerator;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.restrictions.TypeRestrictions;
+import com.scottlogic.deg.generator.utils.RowKeyedRandomNumberGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+class RandomRowSpecDecisionTreeWalkerTests {
+    private static final int ROWS = 4000;
+
+    private final Field field = new Field("field1");
+    private final ProfileFields fields = new ProfileFields(Collections.singletonList(field));
+    private final DecisionTree treeWithDecisions = new DecisionTree(
+        TestConstraintNodeBuilder.constraintNode()
+            .withDecision(
+                TestConstraintNodeBuilder.constraintNode().where(field).isNull(),
+                TestConstraintNodeBuilder.constraintNode().where(field).isNotNull())
+            .build(),
+        fields);
+    private final RowSpec oneValueRowSpec = rowSpec("a");
+    private final RowSpec threeValueRowSpec = rowSpec("b", "c", "d");
+
+    private RowSpecTreeSolver rowSpecTreeSolver;
+    private RowSpecDataBagGenerator rowSpecDataBagGenerator;
+    private RandomRowSpecDecisionTreeWalker walker;
+
+    @BeforeEach
+    void beforeEach() {
+        rowSpecTreeSolver = mock(RowSpecTreeSolver.class);
+        rowSpecDataBagGenerator = mock(RowSpecDataBagGenerator.class);
+        when(rowSpecDataBagGenerator.createDataBags(any(RowSpec.class))).thenAnswer(invocation ->
+            Stream.of(dataBagFor((RowSpec) invocation.getArguments()[0])));
+        when(rowSpecDataBagGenerator.createRandomDataBags(any(RowSpec.class))).thenAnswer(invocation -> {
+            DataBag dataBag = dataBagFor((RowSpec) invocation.getArguments()[0]);
+            return (Supplier<DataBag>) () -> dataBag;
+        });
+
+        walker = new RandomRowSpecDecisionTreeWalker(
+            rowSpecTreeSolver,
+            rowSpecDataBagGenerator,
+            new RowKeyedRandomNumberGenerator(0),
+            mock(ConstraintReducer.class));
+    }
+
+    @Test
+    void walk_withFewRowSpecs_picksEachInProportionToTheValuesItPermits() {
+        when(rowSpecTreeSolver.createRowSpecs(treeWithDecisions))
+            .thenAnswer(invocation -> Stream.of(oneValueRowSpec, threeValueRowSpec));
+
+        List<DataBag> rows = walker.walk(treeWithDecisions).limit(ROWS).collect(Collectors.toList());
+
+        long threeValueRows = rows.stream().filter(row -> row.equals(dataBagFor(threeValueRowSpec))).count();
+        assertThat(threeValueRows / (double) ROWS, closeTo(0.75, 0.03));
+        assertThat(rows, everyItem(isOneOf(dataBagFor(oneValueRowSpec), dataBagFor(threeValueRowSpec))));
+    }
+
+    @Test
+    void walk_withARowSpecPinningAFieldNextToAnUnboundedOne_stillPicksThePinnedRowSpec() {
+        FieldSpec unboundedStrings = FieldSpec.Empty
+            .withTypeRestrictions(new TypeRestrictions(Collections.singletonList(IsOfTypeConstraint.Types.STRING)));
+        RowSpec unboundedRowSpec = new RowSpec(
+            fields, Collections.singletonMap(field, unboundedStrings), Collections.emptyList());
+        when(rowSpecTreeSolver.createRowSpecs(treeWithDecisions))
+            .thenAnswer(invocation -> Stream.of(oneValueRowSpec, unboundedRowSpec));
+
+        List<DataBag> rows = walker.walk(treeWithDecisions).limit(ROWS * 5).collect(Collectors.toList());
+
+        long oneValueRows = rows.stream().filter(row -> row.equals(dataBagFor(oneValueRowSpec))).count();
+        assertThat(oneValueRows, greaterThan(0L));
+        assertThat(oneValueRows / (double) (ROWS * 5), lessThan(0.01));
+    }
+
+    @Test
+    void walk_withFewRowSpecs_listsTheRowSpecsAndCreatesTheirValueSourcesOnce() {
+        when(rowSpecTreeSolver.createRowSpecs(treeWithDecisions))
+            .thenAnswer(invocation -> Stream.of(oneValueRowSpec, threeValueRowSpec));
+
+        walker.walk(treeWithDecisions).limit(100).collect(Collectors.toList());
+        walker.walk(treeWithDecisions).limit(100).collect(Collectors.toList());
+
+        verify(rowSpecTreeSolver, times(1)).createRowSpecs(treeWithDecisions);
+        verify(rowSpecDataBagGenerator, times(1)).createRandomDataBags(oneValueRowSpec);
+        verify(rowSpecDataBagGenerator, times(1)).createRandomDataBags(threeValueRowSpec);
+        verify(rowSpecDataBagGenerator, never()).createDataBags(any(RowSpec.class));
+    }
+
+    @Test
+    void walk_withTooManyRowSpecsToList_solvesTheTreeForEachRow() {
+        List<RowSpec> manyRowSpecs = IntStream.range(0, 1001)
+            .mapToObj(index -> rowSpec("value" + index))
+            .collect(Collectors.toList());
+        when(rowSpecTreeSolver.createRowSpecs(treeWithDecisions)).thenAnswer(invocation -> manyRowSpecs.stream());
+
+        List<DataBag> rows = walker.walk(treeWithDecisions).limit(3).collect(Collectors.toList());
+
+        assertThat(rows, everyItem(equalTo(dataBagFor(manyRowSpecs.get(0)))));
+        // once when trying to list the row specs, then once for each row
+        verify(rowSpecTreeSolver, times(4)).createRowSpecs(treeWithDecisions);
+    }
+
+    @Test
+    void walk_withNoRowSpecs_producesNoRows() {
+        when(rowSpecTreeSolver.createRowSpecs(treeWithDecisions)).thenAnswer(invocation -> Stream.empty());
+
+        List<DataBag> rows = walker.walk(treeWithDecisions).limit(3).collect(Collectors.toList());
+
+        assertThat(rows, empty());
+        verify(rowSpecDataBagGenerator, never()).createDataBags(any(RowSpec.class));
+    }
+
+    @Test
+    void walk_withoutDecisions_solvesTheTreeAndCreatesItsValueSourcesOnce() {
+        DecisionTree treeWithoutDecisions = new DecisionTree(new ConstraintNodeBuilder().build(), fields);
+        when(rowSpecTreeSolver.createRowSpecs(treeWithoutDecisions))
+            .thenAnswer(invocation -> Stream.of(threeValueRowSpec));
+
+        List<DataBag> rows = walker.walk(treeWithoutDecisions).limit(5).collect(Collectors.toList());
+
+        assertThat(rows, everyItem(equalTo(dataBagFor(threeValueRowSpec))));
+        verify(rowSpecTreeSolver, times(1)).createRowSpecs(treeWithoutDecisions);
+        verify(rowSpecDataBagGenerator, times(1)).createDataBags(threeValueRowSpec);
+        verify(rowSpecDataBagGenerator, times(1)).createRandomDataBags(threeValueRowSpec);
+    }
+
+    private RowSpec rowSpec(String... values) {
+        FieldSpec fieldSpec = FieldSpec.Empty
+            .withWhitelist(FrequencyDistributedSet.uniform(new HashSet<>(Arrays.asList(values))))
+            .withNotNull();
+        return new RowSpec(fields, Collections.singletonMap(field, fieldSpec), Collections.emptyList());
+    }
+
+    private DataBag dataBagFor(RowSpec rowSpec) {
+        return new DataBag(Collections.singletonMap(field, new DataBagValue(rowSpec.toString())));
+    }
+}
@@ -22,10 +22,14 @@ import com.google.inject.Module;
 import com.scottlogic.deg.generator.config.detail.CombinationStrategyType;
 import com.scottlogic.deg.generator.config.detail.DataGenerationType;
 import com.scottlogic.deg.generator.config.detail.MonitorType;
+import com.scottlogic.deg.generator.config.detail.Shard;
+import com.scottlogic.deg.generator.config.detail.FieldFixingStrategyType;
+import com.scottlogic.deg.generator.config.detail.OptimiserType;
 import com.scottlogic.deg.generator.config.detail.TreeWalkerType;
 import com.scottlogic.deg.orchestrator.guice.AllConfigSource;
 import com.scottlogic.deg.orchestrator.guice.AllModule;
 import com.scottlogic.deg.output.guice.OutputFormat;
+import com.scottlogic.deg.output.writer.compression.OutputCompression;
 import picocli.CommandLine;
 
 import java.io.File;
@@ -35,6 +39,8 @@ import java.util.concurrent.Callable;
 import static com.scottlogic.deg.common.util.Defaults.DEFAULT_MAX_ROWS;
 import static com.scottlogic.deg.generator.config.detail.CombinationStrategyType.MINIMAL;
 import static com.scottlogic.deg.generator.config.detail.DataGenerationType.RANDOM;
+import static com.scottlogic.deg.generator.config.detail.FieldFixingStrategyType.FIELD_APPEARANCE;
+import static com.scottlogic.deg.generator.config.detail.OptimiserType.MOST_PROLIFIC;
 import static com.scottlogic.deg.generator.config.detail.TreeWalkerType.DECISION_BASED;
 import static com.scottlogic.deg.generator.config.detail.TreeWalkerType.REDUCTIVE;
 import static com.scottlogic.deg.output.guice.OutputFormat.CSV;
@@ -84,6 +90,11 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         hidden = true)
     boolean dontOptimise;
 
+    @CommandLine.Option(
+        names = {"--optimiser"},
+        description = "Determines how the tree is optimised before it is walked (${COMPLETION-CANDIDATES})")
+    private OptimiserType optimiserType = MOST_PROLIFIC;
+
     @CommandLine.Option(
         names = "--help",
         usageHelp = true,
@@ -120,6 +131,11 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         hidden = true)
     private TreeWalkerType walkerType = DECISION_BASED;
 
+    @CommandLine.Option(names = {"--fixing-strategy"},
+        description = "Determines the order in which the reductive tree walker fixes fields (${COMPLETION-CANDIDATES})",
+        hidden = true)
+    private FieldFixingStrategyType fieldFixingStrategyType = FIELD_APPEARANCE;
+
     @CommandLine.Option(
         names = {"-n", "--max-rows"},
         description = "Defines the maximum number of rows that should be generated")
@@ -151,6 +167,78 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         description = "Remove the need for each field to have at least one compliant typing constraint applied")
     private boolean allowUntypedFields = false;
 
+    @CommandLine.Option(
+        names = {"--parallel-partitions"},
+        description = "Walks each independent partition of the profile on its own thread")
+    private boolean walkPartitionsInParallel = false;
+
+    @CommandLine.Option(
+        names = {"--forward-checking"},
+        description = "Rejects a value as soon as it leaves any unfixed field without values, when using the reductive walker")
+    private boolean useForwardChecking = false;
+
+    @CommandLine.Option(
+        names = {"--threads"},
+        description = "Defines the number of threads used to generate data in RANDOM mode, each with its own random streams split from the seed")
+    private int threads = 1;
+
+    @CommandLine.Option(
+        names = {"--shard"},
+        description = "Generates only the given slice of the data, e.g. 0/16 for the first of 16 shards")
+    private String shard;
+
+    @CommandLine.Option(
+        names = {"--seed"},
+        description = "Seeds the random number generator, so that RANDOM generation can be repeated")
+    private Long seed;
+
+    @CommandLine.Option(
+        names = {"--checkpoint-interval"},
+        description = "Records a checkpoint alongside the output file every given number of rows, so generation can be resumed")
+    private long checkpointInterval = 0;
+
+    @CommandLine.Option(
+        names = {"--resume"},
+        description = "Resumes generation from the last checkpoint of the output file, appending to it; "
+            + "RANDOM runs start at the checkpoint, other runs generate the rows before it again and skip them")
+    private boolean resume = false;
+
+    @CommandLine.Option(
+        names = {"--output-buffer"},
+        description = "Writes the output on a separate thread, buffering up to the given number of rows; 0 writes on the generating thread")
+    private int outputBufferSize = 0;
+
+    @CommandLine.Option(
+        names = {"--compress"},
+        description = "Compresses the output (${COMPLETION-CANDIDATES}), using a thread per processor")
+    private OutputCompression outputCompression = OutputCompression.NONE;
+
+    @CommandLine.Option(
+        names = {"--roll-rows"},
+        description = "Writes the output to a directory of files, starting a new file after the given number of rows")
+    private long rollRows = 0;
+
+    @CommandLine.Option(
+        names = {"--roll-bytes"},
+        description = "Writes the output to a directory of files, starting a new file after roughly the given number of bytes. " +
+            "Bytes are counted after buffering and compression, so files overshoot the limit by up to a buffer or compressed block")
+    private long rollBytes = 0;
+
+    @CommandLine.Option(
+        names = {"--parallel-writers"},
+        description = "Writes the output to a directory of files, writing the given number of files at once on separate threads")
+    private int parallelWriters = 1;
+
+    @CommandLine.Option(
+        names = {"--sql-table"},
+        description = "The table to insert rows into, when the output format is SQL")
+    private String sqlTableName = "data";
+
+    @CommandLine.Option(
+        names = {"--sql-batch-size"},
+        description = "The number of rows inserted by each statement, when the output format is SQL")
+    private int sqlBatchSize = 1000;
+
     @CommandLine.Option(
         names = {"--set-from-file-directory"},
         description = "Custom root for loading sets from file."
@@ -166,6 +254,36 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return this.dontOptimise;
     }
 
+    @Override
+    public OptimiserType getOptimiserType() {
+        return this.optimiserType;
+    }
+
+    @Override
+    public boolean walkPartitionsInParallel() {
+        return this.walkPartitionsInParallel;
+    }
+
+    @Override
+    public boolean useForwardChecking() {
+        return this.useForwardChecking;
+    }
+
+    @Override
+    public int getThreads() {
+        return this.threads;
+    }
+
+    @Override
+    public Shard getShard() {
+        return Shard.parse(this.shard);
+    }
+
+    @Override
+    public Long getSeed() {
+        return this.seed;
+    }
+
     @Override
     public File getProfileFile() {
         return this.profileFile;
@@ -186,6 +304,51 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return outputPath == null;
     }
 
+    @Override
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    @Override
+    public boolean resumeFromCheckpoint() {
+        return resume;
+    }
+
+    @Override
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    @Override
+    public OutputCompression getOutputCompression() {
+        return outputCompression;
+    }
+
+    @Override
+    public long getRollRows() {
+        return rollRows;
+    }
+
+    @Override
+    public long getRollBytes() {
+        return rollBytes;
+    }
+
+    @Override
+    public int getParallelWriters() {
+        return parallelWriters;
+    }
+
+    @Override
+    public String getSqlTableName() {
+        return sqlTableName;
+    }
+
+    @Override
+    public int getSqlBatchSize() {
+        return sqlBatchSize;
+    }
+
     @Override
     public Path getOutputPath() {
         return outputPath;
@@ -206,6 +369,11 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return this.walkerType;
     }
 
+    @Override
+    public FieldFixingStrategyType getFieldFixingStrategyType() {
+        return this.fieldFixingStrategyType;
+    }
+
     @Override
     public boolean requireFieldTyping(){
         return !allowUntypedFields;
@@ -56,22 +56,25 @@ public class GenerateExecute {
 
         profileValidator.validate(profile);
 
-        Stream<GeneratedObject> generatedDataItems = dataGenerator.generateData(profile);
-
-        outputData(profile, generatedDataItems);
+        outputData(profile);
     }
 
-    private void outputData(Profile profile, Stream<GeneratedObject> generatedDataItems) throws IOException {
+    private void outputData(Profile profile) throws IOException {
         singleDatasetOutputTarget.validate();
 
-        try (DataSetWriter writer = singleDatasetOutputTarget.openWriter(profile.getFields())) {
-            generatedDataItems.forEach(row -> {
-                try {
-                    writer.writeRow(row);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            });
+        long rowsAlreadyWritten = singleDatasetOutputTarget.getRowsAlreadyWritten();
+        try {
+            try (Stream<GeneratedObject> rows = dataGenerator.generateData(profile, rowsAlreadyWritten);
+                 DataSetWriter writer = singleDatasetOutputTarget.openWriter(profile.getFields())) {
+                rows.forEach(row -> {
+                    try {
+                        writer.writeRow(row);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            }
+            singleDatasetOutputTarget.outputComplete();
         }
         catch (RetryLimitReachedException ignored) {
             monitor.addLineToPrintAtEndOfGeneration("");
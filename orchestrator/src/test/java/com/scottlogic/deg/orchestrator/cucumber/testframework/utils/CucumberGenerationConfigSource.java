@@ -19,11 +19,15 @@ package com.scottlogic.deg.orchestrator.cucumber.testframework.utils;
 import com.google.inject.Inject;
 import com.scottlogic.deg.generator.config.detail.CombinationStrategyType;
 import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.config.detail.FieldFixingStrategyType;
 import com.scottlogic.deg.generator.config.detail.MonitorType;
+import com.scottlogic.deg.generator.config.detail.OptimiserType;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.config.detail.TreeWalkerType;
 import com.scottlogic.deg.orchestrator.guice.AllConfigSource;
 import com.scottlogic.deg.orchestrator.violate.ViolateConfigSource;
 import com.scottlogic.deg.output.guice.OutputFormat;
+import com.scottlogic.deg.output.writer.compression.OutputCompression;
 import com.scottlogic.deg.profile.dto.AtomicConstraintType;
 
 import java.io.File;
@@ -58,6 +62,11 @@ public class CucumberGenerationConfigSource implements AllConfigSource, ViolateC
         return state.walkerType;
     }
 
+    @Override
+    public FieldFixingStrategyType getFieldFixingStrategyType() {
+        return FieldFixingStrategyType.FIELD_APPEARANCE;
+    }
+
     @Override
     public List<AtomicConstraintType> getConstraintsToNotViolate() {
         return state.getConstraintsToNotViolate();
@@ -83,6 +92,81 @@ public class CucumberGenerationConfigSource implements AllConfigSource, ViolateC
         return false;
     }
 
+    @Override
+    public OptimiserType getOptimiserType() {
+        return OptimiserType.MOST_PROLIFIC;
+    }
+
+    @Override
+    public boolean walkPartitionsInParallel() {
+        return false;
+    }
+
+    @Override
+    public boolean useForwardChecking() {
+        return false;
+    }
+
+    @Override
+    public int getThreads() {
+        return 1;
+    }
+
+    @Override
+    public Shard getShard() {
+        return Shard.WHOLE;
+    }
+
+    @Override
+    public Long getSeed() {
+        return null;
+    }
+
+    @Override
+    public long getCheckpointInterval() {
+        return 0;
+    }
+
+    @Override
+    public boolean resumeFromCheckpoint() {
+        return false;
+    }
+
+    @Override
+    public int getOutputBufferSize() {
+        return 0;
+    }
+
+    @Override
+    public OutputCompression getOutputCompression() {
+        return OutputCompression.NONE;
+    }
+
+    @Override
+    public long getRollRows() {
+        return 0;
+    }
+
+    @Override
+    public long getRollBytes() {
+        return 0;
+    }
+
+    @Override
+    public int getParallelWriters() {
+        return 1;
+    }
+
+    @Override
+    public String getSqlTableName() {
+        return "data";
+    }
+
+    @Override
+    public int getSqlBatchSize() {
+        return 1000;
+    }
+
     @Override
     public Path getOutputPath() {
         return new File("mockFilePath").toPath();
@@ -36,6 +36,7 @@ import com.scottlogic.deg.profile.dto.SchemaVersionValidator;
 import java.util.stream.Stream;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -77,6 +78,7 @@ public class CucumberTestModule extends AbstractModule {
         if (testState.shouldSkipGeneration()) {
             DataGenerator mockDataGenerator = mock(DataGenerator.class);
             when(mockDataGenerator.generateData(any())).thenReturn(Stream.empty());
+            when(mockDataGenerator.generateData(any(), anyLong())).thenReturn(Stream.empty());
             bind(DataGenerator.class).toInstance(mockDataGenerator);
         }
     }
@@ -61,6 +61,9 @@ public class InMemoryOutputTarget implements SingleDatasetOutputTarget {
             listToAppendTo.add(values);
         }
 
+        @Override
+        public void flush() {}
+
         @Override
         public void close() {}
     }
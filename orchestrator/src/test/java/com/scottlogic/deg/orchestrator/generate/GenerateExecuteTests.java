@@ -49,7 +49,7 @@ class GenerateExecuteTests {
     @Test
     public void execute_onRetryFail_reportsError() throws IOException {
         when(validatingProfileReader.read()).thenReturn(profile);
-        when(dataGenerator.generateData(profile)).thenReturn(
+        when(dataGenerator.generateData(profile, 0)).thenReturn(
             Stream.iterate(mock(GeneratedObject.class), dataBag -> {
                 throw new RetryLimitReachedException();
             }).skip(1));
@@ -58,4 +58,15 @@ class GenerateExecuteTests {
 
         verify(monitor, atLeastOnce()).addLineToPrintAtEndOfGeneration(anyString());
     }
+
+    @Test
+    public void execute_whenResuming_generatesFromTheFirstRowNotYetWritten() throws IOException {
+        when(validatingProfileReader.read()).thenReturn(profile);
+        when(singleDatasetOutputTarget.getRowsAlreadyWritten()).thenReturn(1000L);
+        when(dataGenerator.generateData(profile, 1000)).thenReturn(Stream.empty());
+
+        generateExecute.execute();
+
+        verify(dataGenerator).generateData(profile, 1000);
+    }
 }
\ No newline at end of file
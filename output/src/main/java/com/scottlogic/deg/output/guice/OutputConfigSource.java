@@ -16,6 +16,8 @@
 
 package com.scottlogic.deg.output.guice;
 
+import com.scottlogic.deg.output.writer.compression.OutputCompression;
+
 import java.nio.file.Path;
 
 public interface OutputConfigSource {
@@ -23,4 +25,13 @@ public interface OutputConfigSource {
     Path getOutputPath();
     boolean overwriteOutputFiles();
     boolean useStdOut();
+    long getCheckpointInterval();
+    boolean resumeFromCheckpoint();
+    int getOutputBufferSize();
+    OutputCompression getOutputCompression();
+    long getRollRows();
+    long getRollBytes();
+    int getParallelWriters();
+    String getSqlTableName();
+    int getSqlBatchSize();
 }
@@ -18,5 +18,8 @@ package com.scottlogic.deg.output.guice;
 
 public enum OutputFormat {
     CSV,
-    JSON
+    JSON,
+    NDJSON,
+    COLUMNAR,
+    SQL
 }
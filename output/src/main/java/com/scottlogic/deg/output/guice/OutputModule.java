@@ -44,5 +44,33 @@ public class OutputModule extends AbstractModule {
         bind(boolean.class)
             .annotatedWith(Names.named("config:canOverwriteOutputFiles"))
             .toInstance(outputConfigSource.overwriteOutputFiles());
+
+        bind(long.class)
+            .annotatedWith(Names.named("config:checkpointInterval"))
+            .toInstance(outputConfigSource.getCheckpointInterval());
+
+        bind(boolean.class)
+            .annotatedWith(Names.named("config:resume"))
+            .toInstance(outputConfigSource.resumeFromCheckpoint());
+
+        bind(long.class)
+            .annotatedWith(Names.named("config:rollRows"))
+            .toInstance(outputConfigSource.getRollRows());
+
+        bind(long.class)
+            .annotatedWith(Names.named("config:rollBytes"))
+            .toInstance(outputConfigSource.getRollBytes());
+
+        bind(int.class)
+            .annotatedWith(Names.named("config:parallelWriters"))
+            .toInstance(outputConfigSource.getParallelWriters());
+
+        bind(String.class)
+            .annotatedWith(Names.named("config:sqlTableName"))
+            .toInstance(outputConfigSource.getSqlTableName());
+
+        bind(int.class)
+            .annotatedWith(Names.named("config:sqlBatchSize"))
+            .toInstance(outputConfigSource.getSqlBatchSize());
     }
 }
@@ -19,36 +19,64 @@ package com.scottlogic.deg.output.guice;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.scottlogic.deg.output.writer.OutputWriterFactory;
+import com.scottlogic.deg.output.writer.columnar.ColumnarOutputWriterFactory;
+import com.scottlogic.deg.output.writer.compression.CompressingOutputWriterFactory;
+import com.scottlogic.deg.output.writer.compression.OutputCompression;
 import com.scottlogic.deg.output.writer.csv.CsvOutputWriterFactory;
 import com.scottlogic.deg.output.writer.json.JsonOutputWriterFactory;
+import com.scottlogic.deg.output.writer.json.NdjsonOutputWriterFactory;
+import com.scottlogic.deg.output.writer.sql.SqlOutputWriterFactory;
 
 public class OutputWriterFactoryProvider implements Provider<OutputWriterFactory> {
     private final OutputConfigSource configSource;
     private final CsvOutputWriterFactory csvOutputWriterFactory;
     private final JsonOutputWriterFactory jsonOutputWriterFactory;
+    private final NdjsonOutputWriterFactory ndjsonOutputWriterFactory;
+    private final ColumnarOutputWriterFactory columnarOutputWriterFactory;
+    private final SqlOutputWriterFactory sqlOutputWriterFactory;
 
     @Inject
     public OutputWriterFactoryProvider(
         OutputConfigSource configSource,
         CsvOutputWriterFactory csvOutputWriterFactory,
-        JsonOutputWriterFactory jsonOutputWriterFactory)
+        JsonOutputWriterFactory jsonOutputWriterFactory,
+        NdjsonOutputWriterFactory ndjsonOutputWriterFactory,
+        ColumnarOutputWriterFactory columnarOutputWriterFactory,
+        SqlOutputWriterFactory sqlOutputWriterFactory)
     {
         this.configSource = configSource;
         this.csvOutputWriterFactory = csvOutputWriterFactory;
         this.jsonOutputWriterFactory = jsonOutputWriterFactory;
+        this.ndjsonOutputWriterFactory = ndjsonOutputWriterFactory;
+        this.columnarOutputWriterFactory = columnarOutputWriterFactory;
+        this.sqlOutputWriterFactory = sqlOutputWriterFactory;
     }
 
     @Override
     public OutputWriterFactory get() {
+        OutputWriterFactory outputWriterFactory = getUncompressedFactory();
+        if (configSource.getOutputCompression() != OutputCompression.NONE) {
+            return new CompressingOutputWriterFactory(outputWriterFactory, configSource.getOutputCompression());
+        }
+        return outputWriterFactory;
+    }
+
+    private OutputWriterFactory getUncompressedFactory() {
         switch (configSource.getOutputFormat()){
             case CSV:
                 return csvOutputWriterFactory;
             case JSON:
                 return jsonOutputWriterFactory;
+            case NDJSON:
+                return ndjsonOutputWriterFactory;
+            case COLUMNAR:
+                return columnarOutputWriterFactory;
+            case SQL:
+                return sqlOutputWriterFactory;
         }
 
         throw new RuntimeException(String.format(
-            "Unknown output format %s, options are CSV or JSON",
+            "Unknown output format %s, options are CSV, JSON, NDJSON, COLUMNAR or SQL",
             configSource.getOutputFormat()
         ));
     }
@@ -18,32 +18,64 @@ package com.scottlogic.deg.output.guice;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.scottlogic.deg.common.ValidationException;
+import com.scottlogic.deg.output.outputtarget.CheckpointingFileOutputTarget;
 import com.scottlogic.deg.output.outputtarget.FileOutputTarget;
+import com.scottlogic.deg.output.outputtarget.PipelinedOutputTarget;
+import com.scottlogic.deg.output.outputtarget.RollingFileOutputTarget;
 import com.scottlogic.deg.output.outputtarget.SingleDatasetOutputTarget;
 import com.scottlogic.deg.output.outputtarget.StdoutOutputTarget;
 
-import java.nio.file.Path;
-
 public class SingleDatasetOutputTargetProvider implements Provider<SingleDatasetOutputTarget> {
     private final OutputConfigSource outputConfigSource;
     private final FileOutputTarget fileOutputTarget;
     private final StdoutOutputTarget stdoutOutputTarget;
+    private final Provider<CheckpointingFileOutputTarget> checkpointingFileOutputTarget;
+    private final Provider<RollingFileOutputTarget> rollingFileOutputTarget;
 
     @Inject
     SingleDatasetOutputTargetProvider(
         OutputConfigSource outputConfigSource,
         FileOutputTarget fileOutputTarget,
-        StdoutOutputTarget stdoutOutputTarget){
+        StdoutOutputTarget stdoutOutputTarget,
+        Provider<CheckpointingFileOutputTarget> checkpointingFileOutputTarget,
+        Provider<RollingFileOutputTarget> rollingFileOutputTarget){
         this.outputConfigSource = outputConfigSource;
         this.fileOutputTarget = fileOutputTarget;
         this.stdoutOutputTarget = stdoutOutputTarget;
+        this.checkpointingFileOutputTarget = checkpointingFileOutputTarget;
+        this.rollingFileOutputTarget = rollingFileOutputTarget;
     }
 
     @Override
     public SingleDatasetOutputTarget get() {
+        SingleDatasetOutputTarget target = getUnbufferedTarget();
+        if (outputConfigSource.getOutputBufferSize() > 0){
+            return new PipelinedOutputTarget(target, outputConfigSource.getOutputBufferSize());
+        }
+        return target;
+    }
+
+    private SingleDatasetOutputTarget getUnbufferedTarget() {
         if (outputConfigSource.useStdOut()){
             return stdoutOutputTarget;
         }
+        boolean checkpointing = outputConfigSource.getCheckpointInterval() > 0 || outputConfigSource.resumeFromCheckpoint();
+        if (writeToSeveralFiles()){
+            if (checkpointing){
+                throw new ValidationException("Checkpointing and resuming are not supported when writing to several files");
+            }
+            return rollingFileOutputTarget.get();
+        }
+        if (checkpointing){
+            return checkpointingFileOutputTarget.get();
+        }
         return fileOutputTarget;
     }
+
+    private boolean writeToSeveralFiles() {
+        return outputConfigSource.getRollRows() > 0
+            || outputConfigSource.getRollBytes() > 0
+            || outputConfigSource.getParallelWriters() > 1;
+    }
 }
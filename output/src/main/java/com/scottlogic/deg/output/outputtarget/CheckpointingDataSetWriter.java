@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes rows to an underlying writer, recording a checkpoint every so many rows.
+ * Before each checkpoint the underlying writer is flushed, so the checkpoint never records more than is in the file.
+ */
+class CheckpointingDataSetWriter implements DataSetWriter {
+    private final DataSetWriter underlyingWriter;
+    private final Path outputPath;
+    private final Path checkpointPath;
+    private final long checkpointInterval;
+    private long rowsWritten;
+
+    CheckpointingDataSetWriter(
+        DataSetWriter underlyingWriter,
+        Path outputPath,
+        long checkpointInterval,
+        long rowsAlreadyWritten) {
+        this.underlyingWriter = underlyingWriter;
+        this.outputPath = outputPath;
+        this.checkpointPath = OutputCheckpoint.checkpointPathFor(outputPath);
+        this.checkpointInterval = checkpointInterval;
+        this.rowsWritten = rowsAlreadyWritten;
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        underlyingWriter.writeRow(row);
+        rowsWritten++;
+
+        if (rowsWritten % checkpointInterval == 0) {
+            underlyingWriter.flush();
+            new OutputCheckpoint(rowsWritten, Files.size(outputPath)).write(checkpointPath);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        underlyingWriter.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        underlyingWriter.close();
+    }
+}
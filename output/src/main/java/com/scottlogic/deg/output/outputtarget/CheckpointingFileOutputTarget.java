@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A file output target which periodically checkpoints how much has been written, and which can resume writing from
+ * the last checkpoint of an earlier run. Resuming relies on the generator producing the same rows in the same order,
+ * the rows up to the checkpoint are skipped and everything after it is appended to the file.
+ */
+public class CheckpointingFileOutputTarget implements SingleDatasetOutputTarget {
+    private final FileOutputTarget fileOutputTarget;
+    private final long checkpointInterval;
+    private final boolean resume;
+    private final Path checkpointPath;
+
+    @Inject
+    public CheckpointingFileOutputTarget(
+        FileOutputTarget fileOutputTarget,
+        @Named("config:checkpointInterval") long checkpointInterval,
+        @Named("config:resume") boolean resume) {
+        this.fileOutputTarget = fileOutputTarget;
+        this.checkpointInterval = checkpointInterval;
+        this.resume = resume;
+        this.checkpointPath = OutputCheckpoint.checkpointPathFor(fileOutputTarget.getFilePath());
+    }
+
+    @Override
+    public DataSetWriter openWriter(ProfileFields fields) throws IOException {
+        DataSetWriter writer;
+        long rowsAlreadyWritten = 0;
+        if (resume) {
+            OutputCheckpoint checkpoint = readCheckpoint();
+            writer = fileOutputTarget.openWriterToAppend(fields, checkpoint.getBytesWritten());
+            rowsAlreadyWritten = checkpoint.getRowsWritten();
+        } else {
+            writer = fileOutputTarget.openWriter(fields);
+        }
+
+        if (checkpointInterval <= 0) {
+            return writer;
+        }
+
+        return new CheckpointingDataSetWriter(
+            writer,
+            fileOutputTarget.getFilePath(),
+            checkpointInterval,
+            rowsAlreadyWritten);
+    }
+
+    @Override
+    public void validate() throws OutputTargetValidationException, IOException {
+        if (!resume) {
+            fileOutputTarget.validate();
+            return;
+        }
+
+        if (!Files.exists(fileOutputTarget.getFilePath())) {
+            throw new OutputTargetValidationException("output file does not exist; there is nothing to resume");
+        }
+        readCheckpoint();
+    }
+
+    @Override
+    public long getRowsAlreadyWritten() throws IOException {
+        return resume ? readCheckpoint().getRowsWritten() : 0;
+    }
+
+    @Override
+    public void outputComplete() throws IOException {
+        Files.deleteIfExists(checkpointPath);
+    }
+
+    private OutputCheckpoint readCheckpoint() throws IOException {
+        return OutputCheckpoint.read(checkpointPath)
+            .orElseThrow(() -> new OutputTargetValidationException(
+                "no checkpoint found at " + checkpointPath + "; the output cannot be resumed"));
+    }
+}
@@ -27,7 +27,9 @@ import com.scottlogic.deg.output.writer.OutputWriterFactory;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class FileOutputTarget implements SingleDatasetOutputTarget {
     private final Path filePath;
@@ -60,6 +62,35 @@ public class FileOutputTarget implements SingleDatasetOutputTarget {
         }
     }
 
+    /**
+     * Open a writer which appends to the data already in the file, after discarding everything beyond the given length
+     * (e.g. a partially written row).
+     */
+    public DataSetWriter openWriterToAppend(ProfileFields fields, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.WRITE)) {
+            if (channel.size() < length) {
+                throw new OutputTargetValidationException(
+                    "output file is shorter than when it was last checkpointed; it cannot be resumed");
+            }
+            channel.truncate(length);
+        }
+
+        final OutputStream stream = new FileOutputStream(
+            this.filePath.toFile(),
+            true);
+
+        try {
+            return outputWriterFactory.createWriterToAppend(stream, fields);
+        } catch (Exception e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    public Path getFilePath() {
+        return filePath;
+    }
+
     @Override
     public void validate() throws OutputTargetValidationException, IOException {
         if (fileUtils.isDirectory(filePath)) {
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * A record of how much of an output file had been durably written at some point during generation.
+ *
+ * Stored as a properties file alongside the output, named after it with a .checkpoint suffix. The file is replaced
+ * atomically so that a run which dies part way through writing a checkpoint leaves the previous one intact.
+ */
+public class OutputCheckpoint {
+    private static final String ROWS_WRITTEN = "rowsWritten";
+    private static final String BYTES_WRITTEN = "bytesWritten";
+
+    private final long rowsWritten;
+    private final long bytesWritten;
+
+    public OutputCheckpoint(long rowsWritten, long bytesWritten) {
+        this.rowsWritten = rowsWritten;
+        this.bytesWritten = bytesWritten;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public static Path checkpointPathFor(Path outputPath) {
+        return outputPath.resolveSibling(outputPath.getFileName() + ".checkpoint");
+    }
+
+    public static Optional<OutputCheckpoint> read(Path checkpointPath) throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return Optional.empty();
+        }
+
+        Properties properties = new Properties();
+        try (InputStream stream = Files.newInputStream(checkpointPath)) {
+            properties.load(stream);
+        }
+
+        try {
+            return Optional.of(new OutputCheckpoint(
+                Long.parseLong(properties.getProperty(ROWS_WRITTEN)),
+                Long.parseLong(properties.getProperty(BYTES_WRITTEN))));
+        } catch (NumberFormatException e) {
+            throw new OutputTargetValidationException("checkpoint file " + checkpointPath + " is corrupt");
+        }
+    }
+
+    public void write(Path checkpointPath) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(ROWS_WRITTEN, Long.toString(rowsWritten));
+        properties.setProperty(BYTES_WRITTEN, Long.toString(bytesWritten));
+
+        Path temporaryPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temporaryPath)) {
+            properties.store(stream, "Generation checkpoint, used by --resume");
+        }
+
+        Files.move(temporaryPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.PipelinedDataSetWriter;
+
+import java.io.IOException;
+
+/**
+ * Wraps the writers of another output target so that rows are written on a dedicated thread.
+ */
+public class PipelinedOutputTarget implements SingleDatasetOutputTarget {
+    private final SingleDatasetOutputTarget underlyingTarget;
+    private final int bufferSize;
+
+    public PipelinedOutputTarget(SingleDatasetOutputTarget underlyingTarget, int bufferSize) {
+        this.underlyingTarget = underlyingTarget;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public DataSetWriter openWriter(ProfileFields fields) throws IOException {
+        return new PipelinedDataSetWriter(underlyingTarget.openWriter(fields), bufferSize);
+    }
+
+    @Override
+    public void validate() throws OutputTargetValidationException, IOException {
+        underlyingTarget.validate();
+    }
+
+    @Override
+    public long getRowsAlreadyWritten() throws IOException {
+        return underlyingTarget.getRowsAlreadyWritten();
+    }
+
+    @Override
+    public void outputComplete() throws IOException {
+        underlyingTarget.outputComplete();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.util.FileUtils;
+import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.OutputWriterFactory;
+import com.scottlogic.deg.output.writer.PipelinedDataSetWriter;
+
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the data set to a directory of files (data-00001.csv, data-00002.csv, ...), starting a new file once the
+ * current one holds a given number of rows or bytes.
+ * <p>
+ * Rows can be written to several files at once, each on its own thread. The rows are dealt out to the writers in
+ * turn, and writer k of n writes files k, k + n, k + 2n, ... Each file holds every nth row rather than a contiguous
+ * run of rows, so reading the files back in name order does not restore the order the rows were generated in.
+ */
+public class RollingFileOutputTarget implements SingleDatasetOutputTarget {
+    private static final String FILE_PREFIX = "data-";
+    private static final int ROWS_BUFFERED_PER_WRITER = 4096;
+
+    private final Path directoryPath;
+    private final OutputWriterFactory outputWriterFactory;
+    private final boolean canOverwriteExistingFiles;
+    private final FileUtils fileUtils;
+    private final long rowsPerFile;
+    private final long bytesPerFile;
+    private final int parallelWriters;
+
+    @Inject
+    public RollingFileOutputTarget(
+        OutputPath outputPath,
+        OutputWriterFactory outputWriterFactory,
+        @Named("config:canOverwriteOutputFiles") boolean canOverwriteExistingFiles,
+        FileUtils fileUtils,
+        @Named("config:rollRows") long rowsPerFile,
+        @Named("config:rollBytes") long bytesPerFile,
+        @Named("config:parallelWriters") int parallelWriters) {
+        this.directoryPath = outputPath.getPath();
+        this.outputWriterFactory = outputWriterFactory;
+        this.canOverwriteExistingFiles = canOverwriteExistingFiles;
+        this.fileUtils = fileUtils;
+        this.rowsPerFile = rowsPerFile;
+        this.bytesPerFile = bytesPerFile;
+        this.parallelWriters = Math.max(1, parallelWriters);
+    }
+
+    @Override
+    public DataSetWriter openWriter(ProfileFields fields) throws IOException {
+        if (parallelWriters == 1) {
+            return new RollingDataSetWriter(fields, 0);
+        }
+
+        List<DataSetWriter> writers = new ArrayList<>();
+        try {
+            for (int writer = 0; writer < parallelWriters; writer++) {
+                writers.add(new PipelinedDataSetWriter(
+                    new RollingDataSetWriter(fields, writer),
+                    ROWS_BUFFERED_PER_WRITER));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (DataSetWriter writer : writers) {
+                writer.close();
+            }
+            throw e;
+        }
+        return new RoundRobinDataSetWriter(writers);
+    }
+
+    @Override
+    public void validate() throws OutputTargetValidationException, IOException {
+        if (fileUtils.exists(directoryPath) && !fileUtils.isDirectory(directoryPath)) {
+            throw new OutputTargetValidationException(
+                "target is a file; when writing to several files please give a directory to write them to");
+        }
+        if (!fileUtils.exists(directoryPath)) {
+            if (!fileUtils.createDirectories(directoryPath)) {
+                throw new OutputTargetValidationException(
+                    "a parent of the output directory already exists but is not a directory; please use a different output directory");
+            }
+            return;
+        }
+
+        if (!canOverwriteExistingFiles) {
+            try (DirectoryStream<Path> existingFiles = Files.newDirectoryStream(directoryPath, FILE_PREFIX + "*")) {
+                if (existingFiles.iterator().hasNext()) {
+                    throw new OutputTargetValidationException(
+                        "directory already contains data files; please use a different output directory or use the --replace option");
+                }
+            }
+        }
+    }
+
+    Path filePath(int fileNumber) {
+        String fileName = String.format("%s%05d", FILE_PREFIX, fileNumber);
+        return directoryPath.resolve(
+            outputWriterFactory.getFileExtensionWithoutDot()
+                .map(extension -> fileName + "." + extension)
+                .orElse(fileName));
+    }
+
+    /** Writes the files of one writer, moving on to its next file when the current one is full. */
+    private class RollingDataSetWriter implements DataSetWriter {
+        private final ProfileFields fields;
+        private final int writerIndex;
+        private int filesOpened;
+        private DataSetWriter currentWriter;
+        private CountingOutputStream currentStream;
+        private long rowsInCurrentFile;
+
+        RollingDataSetWriter(ProfileFields fields, int writerIndex) throws IOException {
+            this.fields = fields;
+            this.writerIndex = writerIndex;
+            openNextFile();
+        }
+
+        @Override
+        public void writeRow(GeneratedObject row) throws IOException {
+            if (currentWriter == null) {
+                openNextFile();
+            }
+
+            currentWriter.writeRow(row);
+            rowsInCurrentFile++;
+
+            if (isCurrentFileFull()) {
+                currentWriter.close();
+                currentWriter = null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (currentWriter != null) {
+                currentWriter.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (currentWriter != null) {
+                currentWriter.close();
+                currentWriter = null;
+            }
+        }
+
+        /** Bytes are counted as the writer hands them to the file, so files may overshoot by the writer's buffer. */
+        private boolean isCurrentFileFull() {
+            return (rowsPerFile > 0 && rowsInCurrentFile >= rowsPerFile)
+                || (bytesPerFile > 0 && currentStream.bytesWritten >= bytesPerFile);
+        }
+
+        private void openNextFile() throws IOException {
+            int fileNumber = filesOpened * parallelWriters + writerIndex + 1;
+            filesOpened++;
+
+            currentStream = new CountingOutputStream(new FileOutputStream(filePath(fileNumber).toFile(), false));
+            try {
+                currentWriter = outputWriterFactory.createWriter(currentStream, fields);
+            } catch (IOException | RuntimeException e) {
+                currentStream.close();
+                throw e;
+            }
+            rowsInCurrentFile = 0;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long bytesWritten;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytesWritten++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            bytesWritten += length;
+        }
+    }
+}
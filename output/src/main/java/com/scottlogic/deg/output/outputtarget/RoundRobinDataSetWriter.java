@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Deals rows out to several writers in turn, so that each writer gets every n-th row.
+ */
+class RoundRobinDataSetWriter implements DataSetWriter {
+    private final DataSetWriter[] writers;
+    private int nextWriter;
+
+    RoundRobinDataSetWriter(List<DataSetWriter> writers) {
+        this.writers = writers.toArray(new DataSetWriter[0]);
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        writers[nextWriter].writeRow(row);
+        nextWriter = (nextWriter + 1) % writers.length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (DataSetWriter writer : writers) {
+            writer.flush();
+        }
+    }
+
+    /** Closes every writer, even if some of them fail to close. */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (DataSetWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
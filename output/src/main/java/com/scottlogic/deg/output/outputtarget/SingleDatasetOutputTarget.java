@@ -24,4 +24,17 @@ import java.io.IOException;
 public interface SingleDatasetOutputTarget {
     DataSetWriter openWriter(ProfileFields fields) throws IOException;
     default void validate() throws OutputTargetValidationException, IOException {}
+
+    /**
+     * @return the number of rows already written to this target by an earlier run which is being resumed,
+     * the generator should skip this many rows before writing
+     */
+    default long getRowsAlreadyWritten() throws IOException {
+        return 0;
+    }
+
+    /**
+     * Called once every row has been written and the writer closed.
+     */
+    default void outputComplete() throws IOException {}
 }
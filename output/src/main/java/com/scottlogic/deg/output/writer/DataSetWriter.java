@@ -19,6 +19,7 @@ package com.scottlogic.deg.output.writer;
 import com.scottlogic.deg.common.output.GeneratedObject;
 
 import java.io.Closeable;
+import java.io.Flushable;
 import java.io.IOException;
 
 /**
@@ -26,6 +27,6 @@ import java.io.IOException;
  *
  * DataSetWriters should take ownership of any Closeables they use, and close them into their own .close() implementation
  **/
-public interface DataSetWriter extends Closeable {
+public interface DataSetWriter extends Closeable, Flushable {
     void writeRow(GeneratedObject row) throws IOException;
 }
@@ -16,6 +16,7 @@
 
 package com.scottlogic.deg.output.writer;
 
+import com.scottlogic.deg.common.ValidationException;
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.output.writer.DataSetWriter;
 
@@ -29,5 +30,14 @@ public interface OutputWriterFactory {
         OutputStream stream,
         ProfileFields profileFields) throws IOException;
 
+    /**
+     * Create a writer which continues a data set already partially written to the stream, e.g. omitting any header.
+     */
+    default DataSetWriter createWriterToAppend(
+        OutputStream stream,
+        ProfileFields profileFields) throws IOException {
+        throw new ValidationException("This output format cannot be appended to, so generation cannot be resumed");
+    }
+
     Optional<String> getFileExtensionWithoutDot();
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands rows over to another writer which runs on a dedicated thread, so that formatting and I/O happen concurrently
+ * with generation. Rows are passed through a bounded ring buffer and written in batches; once the buffer is full
+ * the generating thread waits for the writer to catch up.
+ *
+ * Neither thread polls: each parks until the other unparks it. The generating thread wakes the writer once a batch
+ * is ready or whenever the writer has said it is idle, and the writer wakes the generating thread after every batch
+ * it writes while that thread is waiting.
+ *
+ * writeRow, flush and close must all be called from the same thread. Any failure of the underlying writer is rethrown
+ * from the next call.
+ */
+public class PipelinedDataSetWriter implements DataSetWriter {
+    private static final int BATCH_SIZE = 256;
+
+    private final DataSetWriter underlyingWriter;
+    private final SingleProducerSingleConsumerRingBuffer<GeneratedObject> buffer;
+    private final Thread writerThread;
+    private long rowsSubmitted;
+    private volatile long rowsWritten;
+    private volatile boolean closing;
+    private volatile Throwable failure;
+    private volatile boolean writerIdle;
+    private volatile Thread waitingProducer;
+
+    public PipelinedDataSetWriter(DataSetWriter underlyingWriter, int bufferSize) {
+        this.underlyingWriter = underlyingWriter;
+        this.buffer = new SingleProducerSingleConsumerRingBuffer<>(bufferSize);
+        this.writerThread = new Thread(this::writeRows, "output-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        if (!buffer.offer(row)) {
+            awaitSpaceFor(row);
+        }
+
+        rowsSubmitted++;
+        if (rowsSubmitted % BATCH_SIZE == 0 || writerIdle) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Wait for every row submitted so far to be written, then flush the underlying writer.
+     */
+    @Override
+    public void flush() throws IOException {
+        awaitRowsWritten();
+        underlyingWriter.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            awaitRowsWritten();
+        } finally {
+            closing = true;
+            LockSupport.unpark(writerThread);
+            joinWriterThread();
+            underlyingWriter.close();
+        }
+    }
+
+    private void awaitSpaceFor(GeneratedObject row) throws IOException {
+        waitingProducer = Thread.currentThread();
+        try {
+            LockSupport.unpark(writerThread);
+            while (!buffer.offer(row)) {
+                throwIfWriterFailed();
+                LockSupport.park(this);
+            }
+        } finally {
+            waitingProducer = null;
+        }
+    }
+
+    private void awaitRowsWritten() throws IOException {
+        waitingProducer = Thread.currentThread();
+        try {
+            LockSupport.unpark(writerThread);
+            while (rowsWritten < rowsSubmitted) {
+                throwIfWriterFailed();
+                LockSupport.park(this);
+            }
+        } finally {
+            waitingProducer = null;
+        }
+        throwIfWriterFailed();
+    }
+
+    private void writeRows() {
+        List<GeneratedObject> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                if (buffer.drainTo(batch, BATCH_SIZE) == 0 && !awaitRows(batch)) {
+                    return;
+                }
+
+                for (GeneratedObject row : batch) {
+                    underlyingWriter.writeRow(row);
+                }
+                rowsWritten += batch.size();
+                batch.clear();
+                wakeWaitingProducer();
+            }
+        } catch (Throwable e) {
+            failure = e;
+            wakeWaitingProducer();
+        }
+    }
+
+    /**
+     * Park the writer thread until rows arrive, announcing that it is idle first and checking the buffer again
+     * afterwards so that a row offered in between is never missed.
+     * @return false if the writer has been closed and there are no more rows to write
+     */
+    private boolean awaitRows(List<GeneratedObject> batch) {
+        while (true) {
+            if (closing) {
+                return false;
+            }
+
+            writerIdle = true;
+            try {
+                if (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+                    return true;
+                }
+                if (!closing) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                writerIdle = false;
+            }
+
+            if (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+                return true;
+            }
+        }
+    }
+
+    private void wakeWaitingProducer() {
+        Thread producer = waitingProducer;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    private void throwIfWriterFailed() throws IOException {
+        Throwable writerFailure = failure;
+        if (writerFailure == null) {
+            return;
+        }
+
+        if (writerFailure instanceof IOException) {
+            throw new IOException(writerFailure.getMessage(), writerFailure);
+        }
+        if (writerFailure instanceof UncheckedIOException) {
+            throw new IOException(writerFailure.getMessage(), writerFailure.getCause());
+        }
+        throw new RuntimeException(writerFailure);
+    }
+
+    private void joinWriterThread() {
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, lock-free queue for exactly one producer thread and one consumer thread.
+ *
+ * Items are held in a power-of-two sized array indexed by two ever increasing counters. Each counter is only written
+ * by one thread, and published with an ordered store, so neither side needs a lock or a compare-and-swap.
+ */
+class SingleProducerSingleConsumerRingBuffer<T> {
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // index of the next item to take, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // index of the next free slot, written by the producer
+
+    SingleProducerSingleConsumerRingBuffer(int minimumCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minimumCapacity) - 1) << 1;
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Called by the producer only.
+     * @return false if the buffer is full
+     */
+    boolean offer(T item) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() == slots.length) {
+            return false;
+        }
+
+        slots[(int) (currentTail & mask)] = item;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Called by the consumer only. Moves up to maxItems items into the given list, in the order they were offered.
+     * @return the number of items moved
+     */
+    @SuppressWarnings("unchecked")
+    int drainTo(List<T> batch, int maxItems) {
+        long currentHead = head.get();
+        int available = (int) Math.min(tail.get() - currentHead, maxItems);
+
+        for (int index = 0; index < available; index++) {
+            int slot = (int) ((currentHead + index) & mask);
+            batch.add((T) slots[slot]);
+            slots[slot] = null;
+        }
+
+        head.lazySet(currentHead + available);
+        return available;
+    }
+}
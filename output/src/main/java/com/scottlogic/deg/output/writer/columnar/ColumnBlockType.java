@@ -14,19 +14,17 @@
  * limitations under the License.
  */
 
-package com.scottlogic.deg.common.profile.constraints.atomic;
+package com.scottlogic.deg.output.writer.columnar;
 
-import com.scottlogic.deg.common.profile.Field;
+/** How the values of one column are encoded within a row group, see docs/user/ColumnarOutputFormat.md */
+enum ColumnBlockType {
+    DECIMAL(1),
+    DATETIME(2),
+    STRING(3);
 
-import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
+    final byte code;
 
-public class AtomicConstraintsHelper {
-
-    public static List<AtomicConstraint> getConstraintsForField(Collection<AtomicConstraint> atomicConstraints, Field field) {
-        return atomicConstraints.stream()
-            .filter(atomicConstraint -> atomicConstraint.getField().equals(field))
-            .collect(Collectors.toList());
+    ColumnBlockType(int code) {
+        this.code = (byte) code;
     }
 }
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.columnar;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rows in groups, each group holding one typed block per column, followed by a footer indexing where every
+ * block starts. The layout is described in docs/user/ColumnarOutputFormat.md.
+ */
+class ColumnarDataSetWriter implements DataSetWriter {
+    static final byte[] MAGIC = "DHCOLS01".getBytes(StandardCharsets.US_ASCII);
+    static final int ROWS_PER_GROUP = 65_536;
+    private static final int INITIAL_GROUP_CAPACITY = 1024;
+
+    private final OutputStream stream;
+    private final Field[] fields;
+    private final Object[][] columns;
+    private int groupCapacity;
+    private final List<RowGroupIndex> rowGroups = new ArrayList<>();
+    private final ByteArrayOutputStream blockBuffer = new ByteArrayOutputStream();
+    private long position;
+    private int rowsInGroup;
+
+    private ColumnarDataSetWriter(OutputStream stream, ProfileFields fields) {
+        this.stream = stream;
+        this.fields = fields.stream().toArray(Field[]::new);
+        this.groupCapacity = INITIAL_GROUP_CAPACITY;
+        this.columns = new Object[this.fields.length][groupCapacity];
+    }
+
+    static DataSetWriter open(OutputStream stream, ProfileFields fields) throws IOException {
+        ColumnarDataSetWriter writer = new ColumnarDataSetWriter(stream, fields);
+        writer.write(MAGIC);
+        return writer;
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        if (rowsInGroup == groupCapacity) {
+            growColumns();
+        }
+        for (int column = 0; column < fields.length; column++) {
+            columns[column][rowsInGroup] = row.getFormattedValue(fields[column]);
+        }
+
+        rowsInGroup++;
+        if (rowsInGroup == ROWS_PER_GROUP) {
+            writeRowGroup();
+        }
+    }
+
+    /* the columns start small and double up to a full row group, so that small outputs and wide profiles don't
+    * allocate a full row group for every field up front */
+    private void growColumns() {
+        groupCapacity = Math.min(groupCapacity * 2, ROWS_PER_GROUP);
+        for (int column = 0; column < columns.length; column++) {
+            columns[column] = Arrays.copyOf(columns[column], groupCapacity);
+        }
+    }
+
+    /** Only complete row groups are flushed, so that checkpointing does not fragment the file into small groups. */
+    @Override
+    public void flush() throws IOException {
+        stream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (rowsInGroup > 0) {
+            writeRowGroup();
+        }
+
+        long footerOffset = position;
+        DataOutputStream footer = startBlock();
+        footer.writeInt(fields.length);
+        for (Field field : fields) {
+            writeString(footer, field.name);
+        }
+        footer.writeInt(rowGroups.size());
+        for (RowGroupIndex rowGroup : rowGroups) {
+            rowGroup.writeTo(footer);
+        }
+        footer.writeLong(footerOffset);
+        footer.write(MAGIC);
+        endBlock();
+
+        stream.close();
+    }
+
+    private void writeRowGroup() throws IOException {
+        RowGroupIndex index = new RowGroupIndex(rowsInGroup, fields.length);
+
+        for (int column = 0; column < fields.length; column++) {
+            long offset = position;
+            ColumnBlockType type = writeColumnBlock(columns[column], rowsInGroup);
+            index.addBlock(column, type, offset, position - offset);
+            Arrays.fill(columns[column], 0, rowsInGroup, null);
+        }
+
+        rowGroups.add(index);
+        rowsInGroup = 0;
+    }
+
+    private ColumnBlockType writeColumnBlock(Object[] values, int rowCount) throws IOException {
+        ColumnBlockType type = blockTypeOf(values, rowCount);
+        DataOutputStream block = startBlock();
+
+        byte[] nulls = new byte[(rowCount + 7) / 8];
+        for (int row = 0; row < rowCount; row++) {
+            if (values[row] == null) {
+                nulls[row / 8] |= 1 << (row % 8);
+            }
+        }
+        block.write(nulls);
+
+        switch (type) {
+            case DECIMAL:
+                for (int row = 0; row < rowCount; row++) {
+                    if (values[row] != null) {
+                        BigDecimal value = toBigDecimal((Number) values[row]);
+                        byte[] unscaled = value.unscaledValue().toByteArray();
+                        block.writeInt(value.scale());
+                        block.writeInt(unscaled.length);
+                        block.write(unscaled);
+                    }
+                }
+                break;
+            case DATETIME:
+                for (int row = 0; row < rowCount; row++) {
+                    if (values[row] != null) {
+                        OffsetDateTime value = (OffsetDateTime) values[row];
+                        block.writeLong(value.toEpochSecond());
+                        block.writeInt(value.getNano());
+                        block.writeInt(value.getOffset().getTotalSeconds());
+                    }
+                }
+                break;
+            case STRING:
+                writeDictionaryEncoded(block, values, rowCount);
+                break;
+        }
+
+        endBlock();
+        return type;
+    }
+
+    private static void writeDictionaryEncoded(DataOutputStream block, Object[] values, int rowCount) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] indexes = new int[rowCount];
+
+        for (int row = 0; row < rowCount; row++) {
+            if (values[row] != null) {
+                String value = values[row].toString();
+                Integer index = dictionary.get(value);
+                if (index == null) {
+                    index = entries.size();
+                    dictionary.put(value, index);
+                    entries.add(value);
+                }
+                indexes[row] = index;
+            }
+        }
+
+        block.writeInt(entries.size());
+        for (String entry : entries) {
+            writeString(block, entry);
+        }
+        for (int row = 0; row < rowCount; row++) {
+            if (values[row] != null) {
+                block.writeInt(indexes[row]);
+            }
+        }
+    }
+
+    private static ColumnBlockType blockTypeOf(Object[] values, int rowCount) {
+        boolean allNumbers = true;
+        boolean allDateTimes = true;
+        boolean anyValues = false;
+
+        for (int row = 0; row < rowCount; row++) {
+            Object value = values[row];
+            if (value != null) {
+                anyValues = true;
+                allNumbers &= value instanceof BigDecimal
+                    || value instanceof Integer
+                    || value instanceof Long
+                    || value instanceof Short
+                    || value instanceof Byte
+                    || value instanceof BigInteger;
+                allDateTimes &= value instanceof OffsetDateTime;
+            }
+        }
+
+        if (anyValues && allNumbers) {
+            return ColumnBlockType.DECIMAL;
+        }
+        if (anyValues && allDateTimes) {
+            return ColumnBlockType.DATETIME;
+        }
+        return ColumnBlockType.STRING;
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        return BigDecimal.valueOf(value.longValue());
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private DataOutputStream startBlock() {
+        blockBuffer.reset();
+        return new DataOutputStream(blockBuffer);
+    }
+
+    private void endBlock() throws IOException {
+        blockBuffer.writeTo(stream);
+        position += blockBuffer.size();
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        stream.write(bytes);
+        position += bytes.length;
+    }
+
+    private static class RowGroupIndex {
+        private final int rowCount;
+        private final ColumnBlockType[] types;
+        private final long[] offsets;
+        private final long[] lengths;
+
+        RowGroupIndex(int rowCount, int columnCount) {
+            this.rowCount = rowCount;
+            this.types = new ColumnBlockType[columnCount];
+            this.offsets = new long[columnCount];
+            this.lengths = new long[columnCount];
+        }
+
+        void addBlock(int column, ColumnBlockType type, long offset, long length) {
+            types[column] = type;
+            offsets[column] = offset;
+            lengths[column] = length;
+        }
+
+        void writeTo(DataOutputStream footer) throws IOException {
+            footer.writeInt(rowCount);
+            for (int column = 0; column < types.length; column++) {
+                footer.writeByte(types[column].code);
+                footer.writeLong(offsets[column]);
+                footer.writeInt((int) lengths[column]);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.compression;
+
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.OutputWriterFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/** Compresses the output of another format, e.g. to produce a .csv.gz file. */
+public class CompressingOutputWriterFactory implements OutputWriterFactory {
+    private final OutputWriterFactory underlying;
+    private final OutputCompression compression;
+
+    public CompressingOutputWriterFactory(OutputWriterFactory underlying, OutputCompression compression) {
+        if (compression == OutputCompression.NONE) {
+            throw new IllegalArgumentException("compression must be GZIP or DEFLATE");
+        }
+        this.underlying = underlying;
+        this.compression = compression;
+    }
+
+    @Override
+    public DataSetWriter createWriter(OutputStream stream, ProfileFields profileFields) throws IOException {
+        OutputStream compressedStream = new ParallelDeflateOutputStream(
+            stream,
+            compression == OutputCompression.GZIP,
+            Runtime.getRuntime().availableProcessors());
+
+        try {
+            return underlying.createWriter(compressedStream, profileFields);
+        } catch (Exception e) {
+            compressedStream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<String> getFileExtensionWithoutDot() {
+        String extension = compression == OutputCompression.GZIP ? "gz" : "zz";
+        return Optional.of(
+            underlying.getFileExtensionWithoutDot()
+                .map(underlyingExtension -> underlyingExtension + "." + extension)
+                .orElse(extension));
+    }
+}
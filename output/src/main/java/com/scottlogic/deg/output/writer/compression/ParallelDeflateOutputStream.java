@@ -0,0 +1,232 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses a stream in fixed size blocks, deflating the blocks concurrently on a pool of worker threads and writing
+ * them out in order. Each block is deflated independently, primed with the last 32KiB of the block before it so that
+ * the ratio is close to deflating the stream in one go, and ends on a byte boundary (a sync flush) so the compressed
+ * blocks can simply be concatenated. The result is a single ordinary gzip (RFC 1952) or zlib (RFC 1950) stream.
+ * <p>
+ * Only the checksum is calculated on the writing thread, everything else happens on the workers. Flushing only writes
+ * out the blocks already filled, the rest of the output is written when the stream is closed.
+ */
+class ParallelDeflateOutputStream extends OutputStream {
+    private static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9c};
+
+    private final OutputStream out;
+    private final boolean gzip;
+    private final ExecutorService workers;
+    private final int maxBlocksInFlight;
+    private final Checksum checksum;
+    private final Queue<Future<byte[]>> blocksInFlight = new ArrayDeque<>();
+
+    private byte[] block;
+    private int blockLength;
+    private byte[] dictionary;
+    private long uncompressedLength;
+    private boolean closed;
+
+    ParallelDeflateOutputStream(OutputStream out, boolean gzip, int threads) throws IOException {
+        this(out, gzip, threads, DEFAULT_BLOCK_SIZE);
+    }
+
+    ParallelDeflateOutputStream(OutputStream out, boolean gzip, int threads, int blockSize) throws IOException {
+        this.out = out;
+        this.gzip = gzip;
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "output-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxBlocksInFlight = threads * 2;
+        this.checksum = gzip ? new CRC32() : new Adler32();
+        this.block = new byte[blockSize];
+
+        out.write(gzip ? GZIP_HEADER : ZLIB_HEADER);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            int copied = Math.min(length, block.length - blockLength);
+            System.arraycopy(bytes, offset, block, blockLength, copied);
+            blockLength += copied;
+            offset += copied;
+            length -= copied;
+
+            if (blockLength == block.length) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Writes out every full block written so far, and flushes them. The partly filled block is kept back until it fills
+     * up or the stream is closed: the writers flush often, e.g. whenever their queue drains, and ending a block at each
+     * flush would leave many small blocks which compress badly.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        writeCompletedBlocks(0);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            submitBlock(true);
+            writeCompletedBlocks(0);
+            writeTrailer();
+        } finally {
+            workers.shutdownNow();
+            out.close();
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        byte[] input = block;
+        int inputLength = blockLength;
+        byte[] blockDictionary = dictionary;
+
+        checksum.update(input, 0, inputLength);
+        uncompressedLength += inputLength;
+        dictionary = nextDictionary(blockDictionary, input, inputLength);
+
+        blocksInFlight.add(workers.submit(() -> deflate(input, inputLength, blockDictionary, last)));
+        block = new byte[block.length];
+        blockLength = 0;
+
+        writeCompletedBlocks(maxBlocksInFlight);
+    }
+
+    private static byte[] deflate(byte[] input, int inputLength, byte[] dictionary, boolean last) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(input, 0, inputLength);
+
+            byte[] output = new byte[inputLength + inputLength / 1000 + 64];
+            int outputLength = 0;
+            if (last) {
+                deflater.finish();
+            }
+            while (true) {
+                if (outputLength == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                outputLength += deflater.deflate(
+                    output,
+                    outputLength,
+                    output.length - outputLength,
+                    last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+
+                boolean done = last ? deflater.finished() : outputLength < output.length;
+                if (done) {
+                    return Arrays.copyOf(output, outputLength);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /** The 32KiB window that the block after this one may refer back into. */
+    private static byte[] nextDictionary(byte[] previousDictionary, byte[] input, int inputLength) {
+        if (inputLength >= DICTIONARY_SIZE || previousDictionary == null) {
+            return Arrays.copyOfRange(input, Math.max(0, inputLength - DICTIONARY_SIZE), inputLength);
+        }
+
+        int kept = Math.min(previousDictionary.length, DICTIONARY_SIZE - inputLength);
+        byte[] dictionary = new byte[kept + inputLength];
+        System.arraycopy(previousDictionary, previousDictionary.length - kept, dictionary, 0, kept);
+        System.arraycopy(input, 0, dictionary, kept, inputLength);
+        return dictionary;
+    }
+
+    private void writeCompletedBlocks(int maxBlocksLeftInFlight) throws IOException {
+        while (blocksInFlight.size() > maxBlocksLeftInFlight) {
+            try {
+                out.write(blocksInFlight.remove().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while compressing output", e);
+            } catch (ExecutionException e) {
+                throw new IOException("unable to compress output", e.getCause());
+            }
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        int checksumValue = (int) checksum.getValue();
+        if (gzip) {
+            writeIntLittleEndian(checksumValue);
+            writeIntLittleEndian((int) uncompressedLength);
+        } else {
+            out.write(new byte[]{
+                (byte) (checksumValue >>> 24),
+                (byte) (checksumValue >>> 16),
+                (byte) (checksumValue >>> 8),
+                (byte) checksumValue});
+        }
+    }
+
+    private void writeIntLittleEndian(int value) throws IOException {
+        out.write(new byte[]{
+            (byte) value,
+            (byte) (value >>> 8),
+            (byte) (value >>> 16),
+            (byte) (value >>> 24)});
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("stream is closed");
+        }
+    }
+}
@@ -16,81 +16,192 @@
 
 package com.scottlogic.deg.output.writer.csv;
 
+import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.common.output.GeneratedObject;
 import com.scottlogic.deg.output.writer.DataSetWriter;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.QuoteMode;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.stream.Collectors;
 
+/**
+ * Writes RFC 4180 CSV, encoding each row straight into a reusable character buffer which is only passed on to the
+ * underlying stream when it fills up, or the writer is flushed or closed.
+ *
+ * Strings are always wrapped in quotes, to distinguish them from numbers and nulls; nulls are written as empty values.
+ */
 class CsvDataSetWriter implements DataSetWriter {
     private static final DateTimeFormatter standardDateFormat = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
-    private static final CSVFormat writerFormat = CSVFormat.RFC4180;
-    private static final CSVFormat csvStringFormatter = writerFormat.withQuoteMode(QuoteMode.ALL);
-
-    private final CSVPrinter csvPrinter;
-    private final ProfileFields fieldOrder;
-
-    private CsvDataSetWriter(CSVPrinter csvPrinter, ProfileFields fieldOrder) {
-        this.csvPrinter = csvPrinter;
-        this.fieldOrder = fieldOrder;
+    private static final String RECORD_SEPARATOR = "\r\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private final Field[] fieldOrder;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferPosition;
+
+    // the way values are encoded is decided from the type of value, and remembered per field as each field's values
+    // are almost always of a single type
+    private final Class<?>[] encodedTypes;
+    private final ValueEncoding[] encodings;
+
+    private CsvDataSetWriter(OutputStream stream, ProfileFields fieldOrder) {
+        this.writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        this.fieldOrder = fieldOrder.stream().toArray(Field[]::new);
+        this.encodedTypes = new Class<?>[this.fieldOrder.length];
+        this.encodings = new ValueEncoding[this.fieldOrder.length];
     }
 
     static DataSetWriter open(OutputStream stream, ProfileFields fields) throws IOException {
-        final Appendable outputStreamAsAppendable = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
-
-        CSVPrinter csvPrinter = writerFormat
-            .withEscape('\0') //Dont escape any character, we're formatting strings ourselves
-            .withQuoteMode(QuoteMode.NONE)
-            .withHeader(fields.stream()
-                .map(f -> f.name)
-                .toArray(String[]::new))
-            .print(outputStreamAsAppendable);
+        CsvDataSetWriter csvWriter = new CsvDataSetWriter(stream, fields);
+        csvWriter.writeHeader();
+        return csvWriter;
+    }
 
-        return new CsvDataSetWriter(csvPrinter, fields);
+    static DataSetWriter openToAppend(OutputStream stream, ProfileFields fields) {
+        return new CsvDataSetWriter(stream, fields);
     }
 
     @Override
     public void writeRow(GeneratedObject row) throws IOException {
-        csvPrinter.printRecord(fieldOrder.stream()
-                .map(row::getFormattedValue)
-                .map(CsvDataSetWriter::wrapInQuotesIfString)
-                .collect(Collectors.toList()));
+        for (int index = 0; index < fieldOrder.length; index++) {
+            if (index > 0) {
+                append(',');
+            }
+
+            Object value = row.getFormattedValue(fieldOrder[index]);
+            if (value != null) {
+                appendValue(index, value);
+            }
+        }
 
-        csvPrinter.flush();
+        append(RECORD_SEPARATOR);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drainBuffer();
+        writer.flush();
     }
 
     @Override
     public void close() throws IOException {
-        csvPrinter.close();
+        try {
+            drainBuffer();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        for (int index = 0; index < fieldOrder.length; index++) {
+            if (index > 0) {
+                append(',');
+            }
+
+            String name = fieldOrder[index].name;
+            if (requiresQuotes(name)) {
+                appendQuoted(name);
+            } else {
+                append(name);
+            }
+        }
+
+        append(RECORD_SEPARATOR);
     }
 
-    private static Object wrapInQuotesIfString(Object value){
-        if (value == null){
-            return null;
+    private void appendValue(int fieldIndex, Object value) throws IOException {
+        if (value.getClass() != encodedTypes[fieldIndex]) {
+            encodedTypes[fieldIndex] = value.getClass();
+            encodings[fieldIndex] = ValueEncoding.forType(value.getClass());
+        }
+
+        switch (encodings[fieldIndex]) {
+            case STRING:
+                appendQuoted((String) value);
+                return;
+            case DECIMAL:
+                append(((BigDecimal) value).toPlainString());
+                return;
+            case DATE_TIME:
+                append(standardDateFormat.format((OffsetDateTime) value));
+                return;
+            default:
+                append(value.toString());
         }
+    }
+
+    private void appendQuoted(String value) throws IOException {
+        append('"');
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            if (character == '"') {
+                append('"');
+            }
+            append(character);
+        }
+        append('"');
+    }
 
-        if (value instanceof BigDecimal) {
-            return ((BigDecimal) value).toPlainString();
+    private void append(char character) throws IOException {
+        if (bufferPosition == buffer.length) {
+            drainBuffer();
         }
+        buffer[bufferPosition++] = character;
+    }
 
-        if (value instanceof OffsetDateTime){
-            return standardDateFormat.format((OffsetDateTime) value);
+    private void append(String value) throws IOException {
+        int length = value.length();
+        if (length > buffer.length - bufferPosition) {
+            drainBuffer();
+            if (length > buffer.length) {
+                writer.write(value);
+                return;
+            }
         }
 
-        if (value instanceof String){
-            return csvStringFormatter.format(value);
+        value.getChars(0, length, buffer, bufferPosition);
+        bufferPosition += length;
+    }
+
+    private void drainBuffer() throws IOException {
+        writer.write(buffer, 0, bufferPosition);
+        bufferPosition = 0;
+    }
+
+    private static boolean requiresQuotes(String value) {
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            if (character == ',' || character == '"' || character == '\r' || character == '\n') {
+                return true;
+            }
         }
+        return false;
+    }
 
-        return value;
+    private enum ValueEncoding {
+        STRING,
+        DECIMAL,
+        DATE_TIME,
+        OTHER;
+
+        static ValueEncoding forType(Class<?> type) {
+            if (type == String.class) {
+                return STRING;
+            }
+            if (type == BigDecimal.class) {
+                return DECIMAL;
+            }
+            if (type == OffsetDateTime.class) {
+                return DATE_TIME;
+            }
+            return OTHER;
+        }
     }
 }
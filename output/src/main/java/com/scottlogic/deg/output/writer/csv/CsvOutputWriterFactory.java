@@ -30,6 +30,11 @@ public class CsvOutputWriterFactory implements OutputWriterFactory {
         return CsvDataSetWriter.open(stream, profileFields);
     }
 
+    @Override
+    public DataSetWriter createWriterToAppend(OutputStream stream, ProfileFields profileFields) {
+        return CsvDataSetWriter.openToAppend(stream, profileFields);
+    }
+
     @Override
     public Optional<String> getFileExtensionWithoutDot() {
         return Optional.of("csv");
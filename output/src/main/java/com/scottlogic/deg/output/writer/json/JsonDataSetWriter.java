@@ -61,13 +61,18 @@ class JsonDataSetWriter implements DataSetWriter {
         writer.write(jsonObject);
     }
 
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
     @Override
     public void close() throws IOException {
         writer.close();
     }
 
 
-    private static Object convertValue(Object value) {
+    static Object convertValue(Object value) {
         if (value == null) {
             return null;
         } else if (value instanceof BigDecimal) {
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+/**
+ * Writes newline delimited JSON: one compact object per row, on its own line.
+ * Values are represented as they are by {@link JsonDataSetWriter}.
+ */
+class NdjsonDataSetWriter implements DataSetWriter {
+    private final JsonGenerator generator;
+    private final Field[] fields;
+    private final SerializedString[] fieldNames;
+
+    private NdjsonDataSetWriter(JsonGenerator generator, ProfileFields fields) {
+        this.generator = generator;
+        this.fields = fields.stream().toArray(Field[]::new);
+        this.fieldNames = fields.stream()
+            .map(field -> new SerializedString(field.name))
+            .toArray(SerializedString[]::new);
+    }
+
+    static DataSetWriter open(OutputStream stream, ProfileFields fields) throws IOException {
+        JsonGenerator generator = new JsonFactory().createGenerator(stream, JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+
+        return new NdjsonDataSetWriter(generator, fields);
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        generator.writeStartObject();
+        for (int index = 0; index < fields.length; index++) {
+            generator.writeFieldName(fieldNames[index]);
+            writeValue(JsonDataSetWriter.convertValue(row.getFormattedValue(fields[index])));
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else {
+            generator.writeString((String) value);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.json;
+
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.OutputWriterFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+public class NdjsonOutputWriterFactory implements OutputWriterFactory {
+    @Override
+    public DataSetWriter createWriter(OutputStream stream, ProfileFields profileFields) throws IOException {
+        return NdjsonDataSetWriter.open(stream, profileFields);
+    }
+
+    @Override
+    public DataSetWriter createWriterToAppend(OutputStream stream, ProfileFields profileFields) throws IOException {
+        return NdjsonDataSetWriter.open(stream, profileFields);
+    }
+
+    @Override
+    public Optional<String> getFileExtensionWithoutDot() {
+        return Optional.of("ndjson");
+    }
+}
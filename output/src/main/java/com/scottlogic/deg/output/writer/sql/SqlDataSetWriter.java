@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.sql;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a SQL script of multi-row INSERT statements, each inserting up to a batch of rows.
+ *
+ * Numbers are written as numeric literals, datetimes as TIMESTAMP WITH TIME ZONE literals, and everything else as string
+ * literals. A plain TIMESTAMP literal is a timestamp without time zone, which would drop the datetime's offset.
+ * Flushing ends the current statement, so the script is valid up to wherever it was flushed.
+ */
+class SqlDataSetWriter implements DataSetWriter {
+    private static final DateTimeFormatter timestampFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS xxx");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private final Field[] fieldOrder;
+    private final String insertInto;
+    private final int batchSize;
+    private final StringBuilder row = new StringBuilder();
+    private int rowsInStatement;
+
+    SqlDataSetWriter(OutputStream stream, ProfileFields fields, String tableName, int batchSize) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.fieldOrder = fields.stream().toArray(Field[]::new);
+        this.insertInto = "INSERT INTO " + quoteIdentifier(tableName) +
+            fields.stream()
+                .map(field -> quoteIdentifier(field.name))
+                .collect(Collectors.joining(", ", " (", ") VALUES\n"));
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void writeRow(GeneratedObject generatedObject) throws IOException {
+        row.setLength(0);
+        row.append(rowsInStatement == 0 ? insertInto : ",\n");
+
+        row.append('(');
+        for (int index = 0; index < fieldOrder.length; index++) {
+            if (index > 0) {
+                row.append(", ");
+            }
+            appendLiteral(generatedObject.getFormattedValue(fieldOrder[index]));
+        }
+        row.append(')');
+
+        writer.append(row);
+        rowsInStatement++;
+        if (rowsInStatement == batchSize) {
+            endStatement();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        endStatement();
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        endStatement();
+        writer.close();
+    }
+
+    private void endStatement() throws IOException {
+        if (rowsInStatement > 0) {
+            writer.write(";\n");
+            rowsInStatement = 0;
+        }
+    }
+
+    private void appendLiteral(Object value) {
+        if (value == null) {
+            row.append("NULL");
+        } else if (value instanceof BigDecimal) {
+            row.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Integer || value instanceof Long) {
+            row.append(value);
+        } else if (value instanceof OffsetDateTime) {
+            row.append("TIMESTAMP WITH TIME ZONE '").append(timestampFormat.format((OffsetDateTime) value)).append('\'');
+        } else {
+            appendStringLiteral(value.toString());
+        }
+    }
+
+    private void appendStringLiteral(String value) {
+        row.append('\'');
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            if (character == '\'') {
+                row.append('\'');
+            }
+            row.append(character);
+        }
+        row.append('\'');
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
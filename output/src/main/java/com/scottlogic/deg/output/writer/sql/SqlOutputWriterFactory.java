@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.sql;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.OutputWriterFactory;
+
+import java.io.OutputStream;
+import java.util.Optional;
+
+public class SqlOutputWriterFactory implements OutputWriterFactory {
+    private final String tableName;
+    private final int batchSize;
+
+    @Inject
+    public SqlOutputWriterFactory(
+        @Named("config:sqlTableName") String tableName,
+        @Named("config:sqlBatchSize") int batchSize) {
+        this.tableName = tableName;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public DataSetWriter createWriter(OutputStream stream, ProfileFields profileFields) {
+        return new SqlDataSetWriter(stream, profileFields, tableName, batchSize);
+    }
+
+    @Override
+    public DataSetWriter createWriterToAppend(OutputStream stream, ProfileFields profileFields) {
+        return new SqlDataSetWriter(stream, profileFields, tableName, batchSize);
+    }
+
+    @Override
+    public Optional<String> getFileExtensionWithoutDot() {
+        return Optional.of("sql");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.util.FileUtils;
+import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.csv.CsvOutputWriterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CheckpointingFileOutputTargetTests {
+    private static final Field field = new Field("number");
+    private static final ProfileFields fields = new ProfileFields(Collections.singletonList(field));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void openWriter_resumingAfterAnInterruptedRun_shouldAppendTheRowsAfterTheLastCheckpoint() throws IOException {
+        Path output = directory.resolve("output.csv");
+
+        try (DataSetWriter writer = target(output, false).openWriter(fields)) {
+            for (int row = 0; row < 5; row++) {
+                writer.writeRow(row(row));
+            }
+        }
+        // simulate a row which was only partly written when the previous run died
+        Files.write(output, "12".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        CheckpointingFileOutputTarget resumingTarget = target(output, true);
+        resumingTarget.validate();
+        long rowsAlreadyWritten = resumingTarget.getRowsAlreadyWritten();
+        try (DataSetWriter writer = resumingTarget.openWriter(fields)) {
+            for (long row = rowsAlreadyWritten; row < 6; row++) {
+                writer.writeRow(row(row));
+            }
+        }
+        resumingTarget.outputComplete();
+
+        assertThat(rowsAlreadyWritten, equalTo(4L));
+        assertThat(
+            new String(Files.readAllBytes(output), StandardCharsets.UTF_8).replace("\r\n", "\n"),
+            equalTo("number\n0\n1\n2\n3\n4\n5\n"));
+        assertThat(Files.exists(OutputCheckpoint.checkpointPathFor(output)), equalTo(false));
+    }
+
+    @Test
+    void validate_resumingWithoutACheckpoint_shouldThrow() throws IOException {
+        Path output = directory.resolve("output.csv");
+        Files.write(output, "number\n".getBytes(StandardCharsets.UTF_8));
+
+        CheckpointingFileOutputTarget target = target(output, true);
+
+        assertThrows(OutputTargetValidationException.class, target::validate);
+    }
+
+    private static CheckpointingFileOutputTarget target(Path output, boolean resume) {
+        FileOutputTarget fileOutputTarget = new FileOutputTarget(
+            new OutputPath(output),
+            new CsvOutputWriterFactory(),
+            true,
+            new FileUtils());
+
+        return new CheckpointingFileOutputTarget(fileOutputTarget, 2, resume);
+    }
+
+    private static GeneratedObject row(long value) {
+        return rowField -> value;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.util.FileUtils;
+import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.csv.CsvOutputWriterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RollingFileOutputTargetTests {
+    private static final Field field = new Field("number");
+    private static final ProfileFields fields = new ProfileFields(Collections.singletonList(field));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void openWriter_withRowLimit_shouldStartANewFileWhenTheCurrentOneIsFull() throws IOException {
+        write(target(2, 0, 1), 5);
+
+        assertThat(contents(1), equalTo("number\n0\n1\n"));
+        assertThat(contents(2), equalTo("number\n2\n3\n"));
+        assertThat(contents(3), equalTo("number\n4\n"));
+        assertThat(Files.exists(directory.resolve("data-00004.csv")), equalTo(false));
+    }
+
+    @Test
+    void openWriter_withByteLimit_shouldStartANewFileOnceTheWriterHasPassedTheLimit() throws IOException {
+        int rows = 100_000;
+        write(target(0, 1, 1), rows);
+
+        String firstFile = contents(1);
+        String secondFile = contents(2);
+        int rowsInFirstFile = firstFile.split("\n").length - 1;
+        assertThat(firstFile.startsWith("number\n0\n"), equalTo(true));
+        assertThat(secondFile.startsWith("number\n" + rowsInFirstFile + "\n"), equalTo(true));
+    }
+
+    @Test
+    void openWriter_withParallelWriters_shouldDealRowsToEachWritersFilesInTurn() throws IOException {
+        write(target(2, 0, 2), 7);
+
+        assertThat(contents(1), equalTo("number\n0\n2\n"));
+        assertThat(contents(2), equalTo("number\n1\n3\n"));
+        assertThat(contents(3), equalTo("number\n4\n6\n"));
+        assertThat(contents(4), equalTo("number\n5\n"));
+    }
+
+    @Test
+    void validate_withExistingDataFilesAndNoReplace_shouldThrow() throws IOException {
+        Files.write(directory.resolve("data-00001.csv"), "number\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(OutputTargetValidationException.class, target(2, 0, 1)::validate);
+    }
+
+    @Test
+    void validate_whenOutputPathIsAFile_shouldThrow() throws IOException {
+        Path file = directory.resolve("output.csv");
+        Files.write(file, new byte[0]);
+        RollingFileOutputTarget target = new RollingFileOutputTarget(
+            new OutputPath(file), new CsvOutputWriterFactory(), true, new FileUtils(), 2, 0, 1);
+
+        assertThrows(OutputTargetValidationException.class, target::validate);
+    }
+
+    private RollingFileOutputTarget target(long rowsPerFile, long bytesPerFile, int parallelWriters) {
+        return new RollingFileOutputTarget(
+            new OutputPath(directory),
+            new CsvOutputWriterFactory(),
+            false,
+            new FileUtils(),
+            rowsPerFile,
+            bytesPerFile,
+            parallelWriters);
+    }
+
+    private static void write(RollingFileOutputTarget target, int rows) throws IOException {
+        try (DataSetWriter writer = target.openWriter(fields)) {
+            for (int row = 0; row < rows; row++) {
+                writer.writeRow(row(row));
+            }
+        }
+    }
+
+    private String contents(int fileNumber) throws IOException {
+        return new String(Files.readAllBytes(directory.resolve(String.format("data-%05d.csv", fileNumber))), StandardCharsets.UTF_8)
+            .replace("\r\n", "\n");
+    }
+
+    private static GeneratedObject row(long value) {
+        return rowField -> value;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PipelinedDataSetWriterTests {
+    @Test
+    void writeRow_withMoreRowsThanTheBuffer_shouldWriteEveryRowInOrder() throws IOException {
+        ListWriter underlyingWriter = new ListWriter();
+
+        try (DataSetWriter writer = new PipelinedDataSetWriter(underlyingWriter, 16)) {
+            for (int row = 0; row < 10_000; row++) {
+                writer.writeRow(row(row));
+            }
+        }
+
+        assertThat(underlyingWriter.rows.size(), equalTo(10_000));
+        for (int row = 0; row < 10_000; row++) {
+            assertThat(underlyingWriter.rows.get(row).getFormattedValue(null), equalTo(row));
+        }
+        assertThat(underlyingWriter.closed, equalTo(true));
+    }
+
+    @Test
+    void flush_shouldWriteEverySubmittedRowFirst() throws IOException {
+        ListWriter underlyingWriter = new ListWriter();
+        PipelinedDataSetWriter writer = new PipelinedDataSetWriter(underlyingWriter, 16);
+
+        writer.writeRow(row(1));
+        writer.writeRow(row(2));
+        writer.flush();
+
+        assertThat(underlyingWriter.rowsWhenFlushed, equalTo(2));
+        writer.close();
+    }
+
+    @Test
+    void close_whenUnderlyingWriterFails_shouldRethrowTheFailure() throws IOException {
+        DataSetWriter failingWriter = new ListWriter() {
+            @Override
+            public void writeRow(GeneratedObject row) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        PipelinedDataSetWriter writer = new PipelinedDataSetWriter(failingWriter, 16);
+
+        writer.writeRow(row(1));
+
+        assertThrows(IOException.class, writer::close);
+    }
+
+    @Test
+    void writeRow_whenUnderlyingWriterFailsWhileTheBufferIsFull_shouldRethrowTheFailure() {
+        DataSetWriter failingWriter = new ListWriter() {
+            @Override
+            public void writeRow(GeneratedObject row) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        PipelinedDataSetWriter writer = new PipelinedDataSetWriter(failingWriter, 16);
+
+        assertThrows(IOException.class, () -> {
+            for (int row = 0; row < 10_000; row++) {
+                writer.writeRow(row(row));
+            }
+        });
+    }
+
+    private static GeneratedObject row(int value) {
+        return field -> value;
+    }
+
+    private static class ListWriter implements DataSetWriter {
+        private final List<GeneratedObject> rows = new ArrayList<>();
+        private int rowsWhenFlushed = -1;
+        private boolean closed;
+
+        @Override
+        public void writeRow(GeneratedObject row) throws IOException {
+            rows.add(row);
+        }
+
+        @Override
+        public void flush() {
+            rowsWhenFlushed = rows.size();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
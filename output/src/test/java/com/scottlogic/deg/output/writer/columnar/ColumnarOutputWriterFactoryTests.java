@@ -0,0 +1,191 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.columnar;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ColumnarOutputWriterFactoryTests {
+    private static final OffsetDateTime DATE = OffsetDateTime.of(2001, 2, 3, 4, 5, 6, 0, ZoneOffset.UTC);
+
+    @Test
+    void close_afterWritingRows_shouldWriteFooterIndexingEachColumnBlock() throws IOException {
+        ByteBuffer file = write(
+            fields("my_number", "my_date", "my_string"),
+            new Object[]{ new BigDecimal("1.25"), DATE, "a" },
+            new Object[]{ null, DATE, "a" });
+
+        ByteBuffer footer = footerOf(file);
+        assertThat(footer.getInt(), equalTo(3));
+        assertThat(readString(footer), equalTo("my_number"));
+        assertThat(readString(footer), equalTo("my_date"));
+        assertThat(readString(footer), equalTo("my_string"));
+        assertThat(footer.getInt(), equalTo(1));
+        assertThat(footer.getInt(), equalTo(2));
+
+        ByteBuffer numbers = nextBlock(file, footer, ColumnBlockType.DECIMAL);
+        assertThat(numbers.get(), equalTo((byte) 0b10));
+        int scale = numbers.getInt();
+        byte[] unscaled = new byte[numbers.getInt()];
+        numbers.get(unscaled);
+        assertThat(new BigDecimal(new BigInteger(unscaled), scale), equalTo(new BigDecimal("1.25")));
+        assertThat(numbers.remaining(), equalTo(0));
+
+        ByteBuffer dates = nextBlock(file, footer, ColumnBlockType.DATETIME);
+        assertThat(dates.get(), equalTo((byte) 0));
+        assertThat(readDateTime(dates), equalTo(DATE));
+        assertThat(readDateTime(dates), equalTo(DATE));
+
+        ByteBuffer strings = nextBlock(file, footer, ColumnBlockType.STRING);
+        assertThat(strings.get(), equalTo((byte) 0));
+        assertThat(strings.getInt(), equalTo(1));
+        assertThat(readString(strings), equalTo("a"));
+        assertThat(strings.getInt(), equalTo(0));
+        assertThat(strings.getInt(), equalTo(0));
+    }
+
+    @Test
+    void close_withMoreRowsThanFitInAGroup_shouldSplitRowsIntoGroups() throws IOException {
+        Object[][] rows = new Object[ColumnarDataSetWriter.ROWS_PER_GROUP + 1][];
+        Arrays.fill(rows, new Object[]{ 1 });
+
+        ByteBuffer footer = footerOf(write(fields("my_number"), rows));
+        footer.getInt();
+        readString(footer);
+
+        assertThat(footer.getInt(), equalTo(2));
+        footer.getInt();
+        footer.get();
+        footer.getLong();
+        footer.getInt();
+        assertThat(footer.getInt(), equalTo(1));
+    }
+
+    @Test
+    void close_withDateTimesInOtherOffsets_shouldKeepTheirOffsetAndNanoseconds() throws IOException {
+        OffsetDateTime date = OffsetDateTime.of(2001, 2, 3, 4, 5, 6, 123_456_789, ZoneOffset.ofHoursMinutes(5, 30));
+        ByteBuffer file = write(fields("my_date"), new Object[]{ date });
+
+        ByteBuffer footer = footerOf(file);
+        footer.getInt();
+        readString(footer);
+        footer.getInt();
+        footer.getInt();
+
+        ByteBuffer dates = nextBlock(file, footer, ColumnBlockType.DATETIME);
+        dates.get();
+        assertThat(readDateTime(dates), equalTo(date));
+        assertThat(dates.remaining(), equalTo(0));
+    }
+
+    @Test
+    void close_withMixedValuesInAColumn_shouldWriteThemAsStrings() throws IOException {
+        ByteBuffer file = write(fields("my_field"), new Object[]{ 1 }, new Object[]{ "b" });
+
+        ByteBuffer footer = footerOf(file);
+        footer.getInt();
+        readString(footer);
+        footer.getInt();
+        footer.getInt();
+
+        ByteBuffer strings = nextBlock(file, footer, ColumnBlockType.STRING);
+        strings.get();
+        assertThat(strings.getInt(), equalTo(2));
+        assertThat(readString(strings), equalTo("1"));
+        assertThat(readString(strings), equalTo("b"));
+    }
+
+    private static ByteBuffer write(ProfileFields fields, Object[]... rows) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new ColumnarOutputWriterFactory().createWriter(stream, fields)) {
+            for (Object[] row : rows) {
+                writer.writeRow(row(fields, row));
+            }
+        }
+        return ByteBuffer.wrap(stream.toByteArray());
+    }
+
+    private static ByteBuffer footerOf(ByteBuffer file) {
+        byte[] magic = new byte[ColumnarDataSetWriter.MAGIC.length];
+        file.position(file.limit() - magic.length);
+        file.get(magic);
+        assertThat(magic, equalTo(ColumnarDataSetWriter.MAGIC));
+
+        long footerOffset = file.getLong(file.limit() - magic.length - Long.BYTES);
+        ByteBuffer footer = file.duplicate();
+        footer.position((int) footerOffset);
+        return footer;
+    }
+
+    private static ByteBuffer nextBlock(ByteBuffer file, ByteBuffer footer, ColumnBlockType expectedType) {
+        assertThat(footer.get(), equalTo(expectedType.code));
+        int offset = (int) footer.getLong();
+        int length = footer.getInt();
+
+        ByteBuffer block = file.duplicate();
+        block.position(offset);
+        block.limit(offset + length);
+        return block.slice();
+    }
+
+    private static OffsetDateTime readDateTime(ByteBuffer buffer) {
+        Instant instant = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds(buffer.getInt()));
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ProfileFields fields(String... names) {
+        return new ProfileFields(
+            Arrays.stream(names)
+                .map(Field::new)
+                .collect(Collectors.toList()));
+    }
+
+    private static GeneratedObject row(ProfileFields fields, Object... values) {
+        Map<Field, Object> valuesByField = new HashMap<>();
+        int index = 0;
+        for (Field field : fields) {
+            valuesByField.put(field, values[index++]);
+        }
+        return valuesByField::get;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+class ParallelDeflateOutputStreamTests {
+    private static final int BLOCK_SIZE = 1000;
+
+    @Test
+    void close_withGzip_shouldWriteAStreamWhichDecompressesToTheInput() throws IOException {
+        byte[] input = rows(500);
+
+        byte[] compressed = compress(input, true);
+
+        assertThat(decompress(new GZIPInputStream(new ByteArrayInputStream(compressed))), equalTo(input));
+        assertThat(compressed.length, lessThan(input.length / 2));
+    }
+
+    @Test
+    void close_withDeflate_shouldWriteAStreamWhichDecompressesToTheInput() throws IOException {
+        byte[] input = rows(500);
+
+        byte[] compressed = compress(input, false);
+
+        assertThat(decompress(new InflaterInputStream(new ByteArrayInputStream(compressed))), equalTo(input));
+    }
+
+    @Test
+    void close_withNoInput_shouldWriteAnEmptyStream() throws IOException {
+        byte[] compressed = compress(new byte[0], true);
+
+        assertThat(decompress(new GZIPInputStream(new ByteArrayInputStream(compressed))).length, equalTo(0));
+    }
+
+    @Test
+    void flush_partWayThroughABlock_shouldWriteOnlyTheFullBlocks() throws IOException, DataFormatException {
+        byte[] input = rows(500);
+        int written = BLOCK_SIZE * 2 + BLOCK_SIZE / 2;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ParallelDeflateOutputStream stream = new ParallelDeflateOutputStream(output, false, 2, BLOCK_SIZE);
+
+        stream.write(input, 0, written);
+        stream.flush();
+        byte[] flushed = output.toByteArray();
+        stream.write(input, written, input.length - written);
+        stream.close();
+
+        Inflater inflater = new Inflater();
+        inflater.setInput(flushed);
+        byte[] inflated = new byte[written];
+        int inflatedLength = 0;
+        int read;
+        while ((read = inflater.inflate(inflated, inflatedLength, written - inflatedLength)) > 0) {
+            inflatedLength += read;
+        }
+        inflater.end();
+        assertThat(inflatedLength, equalTo(BLOCK_SIZE * 2));
+        assertThat(Arrays.copyOf(inflated, inflatedLength), equalTo(Arrays.copyOf(input, BLOCK_SIZE * 2)));
+        assertThat(decompress(new InflaterInputStream(new ByteArrayInputStream(output.toByteArray()))), equalTo(input));
+    }
+
+    private static byte[] compress(byte[] input, boolean gzip) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ParallelDeflateOutputStream stream = new ParallelDeflateOutputStream(output, gzip, 4, BLOCK_SIZE)) {
+            for (int offset = 0; offset < input.length; offset += 77) {
+                stream.write(input, offset, Math.min(77, input.length - offset));
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] decompress(InputStream stream) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read = stream.read(buffer); read != -1; read = stream.read(buffer)) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] rows(int count) {
+        Random random = new Random(0);
+        StringBuilder rows = new StringBuilder();
+        for (int row = 0; row < count; row++) {
+            rows.append("\"name ").append(random.nextInt(50)).append("\",").append(random.nextInt(1000)).append("\r\n");
+        }
+        return rows.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
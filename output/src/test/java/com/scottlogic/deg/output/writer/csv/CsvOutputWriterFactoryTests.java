@@ -94,6 +94,38 @@ class CsvOutputWriterFactoryTests {
             Matchers.containsString("2001-02-03T04:05:06.777Z"));
     }
 
+    @Test
+    void writeRow_withStringContainingCommasAndQuotes_shouldQuoteAndEscapeValue() throws IOException {
+        expectCsv(
+            fields("my_string"),
+            ("a \"quoted\", value"),
+
+            Matchers.equalTo("my_string\n\"a \"\"quoted\"\", value\"\n"));
+    }
+
+    @Test
+    void writeRow_withFieldNameContainingComma_shouldQuoteHeader() throws IOException {
+        expectCsv(
+            fields("my,field"),
+            (1),
+
+            Matchers.equalTo("\"my,field\"\n1\n"));
+    }
+
+    @Test
+    void writeRow_beforeFlushOrClose_shouldNotWriteToStream() throws IOException {
+        ProfileFields fields = fields("my_number");
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        DataSetWriter writer = new CsvOutputWriterFactory().createWriter(stream, fields);
+
+        writer.writeRow(field -> 1);
+        int bytesBeforeFlush = stream.size();
+        writer.flush();
+
+        Assert.assertThat(bytesBeforeFlush, Matchers.equalTo(0));
+        Assert.assertThat(stream.size(), Matchers.greaterThan(0));
+    }
+
     private static ProfileFields fields(String ...names) {
         return new ProfileFields(
             Arrays.stream(names)
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.json;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class NdjsonOutputWriterFactoryTests {
+    @Test
+    void writeRow_withSeveralRows_shouldWriteOneCompactObjectPerLine() throws IOException {
+        ProfileFields fields = fields("my_number", "my_string");
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        try (DataSetWriter writer = new NdjsonOutputWriterFactory().createWriter(stream, fields)) {
+            writer.writeRow(row(fields, new BigDecimal("1.5"), "a"));
+            writer.writeRow(row(fields, 2, "b \"quoted\"\nvalue"));
+        }
+
+        Assert.assertThat(
+            stream.toString(StandardCharsets.UTF_8.name()),
+            Matchers.equalTo(
+                "{\"my_number\":1.5,\"my_string\":\"a\"}\n" +
+                "{\"my_number\":2,\"my_string\":\"b \\\"quoted\\\"\\nvalue\"}\n"));
+    }
+
+    @Test
+    void writeRow_withNullValue_shouldWriteJsonNull() throws IOException {
+        ProfileFields fields = fields("my_null");
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        try (DataSetWriter writer = new NdjsonOutputWriterFactory().createWriter(stream, fields)) {
+            writer.writeRow(row(fields, (Object) null));
+        }
+
+        Assert.assertThat(
+            stream.toString(StandardCharsets.UTF_8.name()),
+            Matchers.equalTo("{\"my_null\":null}\n"));
+    }
+
+    private static ProfileFields fields(String ...names) {
+        return new ProfileFields(
+            Arrays.stream(names)
+                .map(Field::new)
+                .collect(Collectors.toList()));
+    }
+
+    private static GeneratedObject row(ProfileFields fields, Object ...values) {
+        Map<Field, Object> valuesByField = new HashMap<>();
+        int index = 0;
+        for (Field field : fields) {
+            valuesByField.put(field, values[index++]);
+        }
+        return valuesByField::get;
+    }
+}
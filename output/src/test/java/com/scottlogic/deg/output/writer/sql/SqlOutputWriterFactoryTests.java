@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.sql;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class SqlOutputWriterFactoryTests {
+    private static final ProfileFields fields = fields("my_number", "my_date", "my \"string\"");
+    private static final OffsetDateTime date = OffsetDateTime.of(2001, 2, 3, 4, 5, 6, 777_000_000, ZoneOffset.ofHours(1));
+
+    @Test
+    void writeRow_withMoreRowsThanABatch_shouldStartANewStatementForEachBatch() throws IOException {
+        String sql = write(2,
+            row(new BigDecimal("1E+3"), date, "it's"),
+            row(2, null, "b"),
+            row(null, null, null));
+
+        assertThat(sql, equalTo(
+            "INSERT INTO \"my_table\" (\"my_number\", \"my_date\", \"my \"\"string\"\"\") VALUES\n" +
+            "(1000, TIMESTAMP WITH TIME ZONE '2001-02-03 04:05:06.777 +01:00', 'it''s'),\n" +
+            "(2, NULL, 'b');\n" +
+            "INSERT INTO \"my_table\" (\"my_number\", \"my_date\", \"my \"\"string\"\"\") VALUES\n" +
+            "(NULL, NULL, NULL);\n"));
+    }
+
+    @Test
+    void flush_partWayThroughABatch_shouldEndTheStatement() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        DataSetWriter writer = new SqlOutputWriterFactory("my_table", 10).createWriter(stream, fields);
+
+        writer.writeRow(row(1, null, "a"));
+        writer.flush();
+
+        assertThat(
+            stream.toString(StandardCharsets.UTF_8.name()),
+            equalTo(
+                "INSERT INTO \"my_table\" (\"my_number\", \"my_date\", \"my \"\"string\"\"\") VALUES\n" +
+                "(1, NULL, 'a');\n"));
+    }
+
+    private static String write(int batchSize, GeneratedObject... rows) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new SqlOutputWriterFactory("my_table", batchSize).createWriter(stream, fields)) {
+            for (GeneratedObject row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        return stream.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private static ProfileFields fields(String... names) {
+        return new ProfileFields(
+            Arrays.stream(names)
+                .map(Field::new)
+                .collect(Collectors.toList()));
+    }
+
+    private static GeneratedObject row(Object... values) {
+        Map<Field, Object> valuesByField = new HashMap<>();
+        int index = 0;
+        for (Field field : fields) {
+            valuesByField.put(field, values[index++]);
+        }
+        return valuesByField::get;
+    }
+}